@@ -0,0 +1,105 @@
+package org.amalitech.propertymanagementapi.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.RevokedTokenRepository;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs {@link JwtAuthenticationFilter#doFilterInternal} against a no-op chain. The user lookup is an
+ * in-memory stub, so the numbers isolate token handling from database latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"true", "false"})
+    public boolean tokenCacheEnabled;
+
+    @Param({"true", "false"})
+    public boolean claimsOnly;
+
+    @Param({"0", "100000"})
+    public int revokedTokens;
+
+    private JwtAuthenticationFilter filter;
+    private String authorizationHeader;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider jwtTokenProvider = JwtTokenProviderBenchmark.tokenProvider("ES256");
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuthMetrics authMetrics = new AuthMetrics(registry);
+
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(jwtTokenProvider, registry, authMetrics);
+        ReflectionTestUtils.setField(verifiedTokenCache, "enabled", tokenCacheEnabled);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maximumSize", 10_000L);
+        verifiedTokenCache.init();
+
+        User user = User.builder()
+                .id(1L)
+                .email("benchmark@example.com")
+                .password("encodedPassword")
+                .role(Role.USER)
+                .build();
+
+        // Revoked tokens of other users fill the denylist; the benchmarked token is never among them
+        TokenRevocationService revocationService = new TokenRevocationService(mock(UserRepository.class),
+                mock(RevokedTokenRepository.class), mock(CachedUserDetailsService.class), registry);
+        ReflectionTestUtils.setField(revocationService, "expectedRevocations", 100_000L);
+        ReflectionTestUtils.setField(revocationService, "falsePositiveRate", 0.01);
+        revocationService.init();
+        Instant expiry = Instant.now().plus(1, ChronoUnit.DAYS);
+        for (int i = 0; i < revokedTokens; i++) {
+            revocationService.revoke(new VerifiedToken("revoked@example.com", "USER", 2L, Instant.now(), expiry,
+                    null, UUID.randomUUID().toString(), 0));
+        }
+
+        filter = new JwtAuthenticationFilter(jwtTokenProvider, verifiedTokenCache, email -> user, authMetrics,
+                revocationService);
+        ReflectionTestUtils.setField(filter, "claimsOnlyAuthentication", claimsOnly);
+        authorizationHeader = "Bearer " + jwtTokenProvider.generateToken(user, "USER");
+    }
+
+    @Benchmark
+    public Object doFilterInternal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/test/secure");
+        request.addHeader("Authorization", authorizationHeader);
+        try {
+            filter.doFilterInternal(request, new MockHttpServletResponse(), chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
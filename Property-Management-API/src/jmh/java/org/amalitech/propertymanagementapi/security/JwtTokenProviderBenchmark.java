@@ -0,0 +1,81 @@
+package org.amalitech.propertymanagementapi.security;
+
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    @Param({"ES256", "EdDSA"})
+    private String algorithm;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = tokenProvider(algorithm);
+        user = User.builder()
+                .id(1L)
+                .email("benchmark@example.com")
+                .password("encodedPassword")
+                .role(Role.USER)
+                .build();
+        token = jwtTokenProvider.generateToken(user, "USER");
+    }
+
+    static JwtTokenProvider tokenProvider(String algorithm) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", algorithm);
+        ReflectionTestUtils.setField(keyRing, "directory", "");
+        ReflectionTestUtils.setField(keyRing, "retained", 2);
+        ReflectionTestUtils.setField(keyRing, "activationDelay", Duration.ZERO);
+        keyRing.init();
+
+        JwtTokenProvider provider = new JwtTokenProvider(keyRing);
+        ReflectionTestUtils.setField(provider, "expiration", 86400000L);
+        provider.init();
+        return provider;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken(user, "USER");
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtTokenProvider.extractUsername(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtTokenProvider.validateToken(token, user);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtTokenProvider.verify(token);
+    }
+}
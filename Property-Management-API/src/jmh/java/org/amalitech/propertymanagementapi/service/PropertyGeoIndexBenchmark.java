@@ -0,0 +1,116 @@
+package org.amalitech.propertymanagementapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * Radius and box searches over one million listings spread uniformly over a square around Accra. A spread
+ * of 2 degrees puts about 20 listings in each square kilometre, so a 5 km search matches about 1,600.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyGeoIndexBenchmark {
+
+    private static final double CENTER_LAT = 5.6;
+    private static final double CENTER_LON = -0.2;
+
+    @Param("1000000")
+    private int listings;
+
+    @Param({"1", "2"})
+    private double spreadDegrees;
+
+    private PropertyGeoIndex geoIndex;
+    private double[][] origins;
+    private int next;
+
+    private record Point(Long getId, Double getLatitude, Double getLongitude, PropertyStatus getStatus)
+            implements PropertyRepository.GeoPoint {
+    }
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        PropertyRepository repository = Mockito.mock(PropertyRepository.class);
+        Mockito.when(repository.findGeoPointsAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int batch = invocation.<Limit>getArgument(1).max();
+            List<PropertyRepository.GeoPoint> points = new ArrayList<>(batch);
+            for (long id = afterId + 1; id <= listings && points.size() < batch; id++) {
+                // Three in four listed as available, the rest spread over the other statuses
+                PropertyStatus status = random.nextInt(4) > 0 ? PropertyStatus.AVAILABLE
+                        : PropertyStatus.values()[random.nextInt(PropertyStatus.values().length)];
+                points.add(new Point(id, randomLat(random), randomLon(random), status));
+            }
+            return points;
+        });
+
+        geoIndex = new PropertyGeoIndex(repository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(geoIndex, "cellSizeDegrees", 0.05);
+        ReflectionTestUtils.setField(geoIndex, "loadBatchSize", 10_000);
+        geoIndex.init();
+
+        origins = new double[1024][];
+        for (int i = 0; i < origins.length; i++) {
+            origins[i] = new double[]{randomLat(random), randomLon(random)};
+        }
+    }
+
+    private double randomLat(SplittableRandom random) {
+        return CENTER_LAT + (random.nextDouble() - 0.5) * spreadDegrees;
+    }
+
+    private double randomLon(SplittableRandom random) {
+        return CENTER_LON + (random.nextDouble() - 0.5) * spreadDegrees;
+    }
+
+    private double[] nextOrigin() {
+        return origins[next++ & (origins.length - 1)];
+    }
+
+    @Benchmark
+    public PropertyGeoIndex.Result nearby5Km() {
+        double[] origin = nextOrigin();
+        return geoIndex.nearby(origin[0], origin[1], 5_000, PropertyStatus.AVAILABLE, 20);
+    }
+
+    @Benchmark
+    public PropertyGeoIndex.Result nearby1Km() {
+        double[] origin = nextOrigin();
+        return geoIndex.nearby(origin[0], origin[1], 1_000, PropertyStatus.AVAILABLE, 20);
+    }
+
+    @Benchmark
+    public PropertyGeoIndex.Result box10Km() {
+        double[] origin = nextOrigin();
+        return geoIndex.within(origin[0] - 0.045, origin[1] - 0.045, origin[0] + 0.045, origin[1] + 0.045,
+                PropertyStatus.AVAILABLE, 20);
+    }
+}
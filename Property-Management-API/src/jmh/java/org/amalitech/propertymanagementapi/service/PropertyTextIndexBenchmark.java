@@ -0,0 +1,122 @@
+package org.amalitech.propertymanagementapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * Full-text queries over synthetic listings: a 4-word title and a 30-word description drawn from a
+ * 20,000-word vocabulary with Zipf-like frequencies, so a few words appear in most listings and most
+ * words in very few. {@code common} hits the most frequent words, {@code rare} the long tail.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class PropertyTextIndexBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+    private static final String[] CITIES = {"Accra", "Kumasi", "Tamale", "Takoradi", "Cape Coast", "Tema"};
+
+    @Param("1000000")
+    private int listings;
+
+    private PropertyTextIndex textIndex;
+
+    private record Row(Long getId, String getTitle, String getDescription, String getCity, BigDecimal getPrice,
+                       int getBedrooms, PropertyStatus getStatus) implements PropertyRepository.TextDocument {
+    }
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        PropertyRepository repository = Mockito.mock(PropertyRepository.class);
+        Mockito.when(repository.findTextDocumentsAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int batch = invocation.<Limit>getArgument(1).max();
+            List<PropertyRepository.TextDocument> rows = new ArrayList<>(batch);
+            for (long id = afterId + 1; id <= listings && rows.size() < batch; id++) {
+                rows.add(new Row(id, words(random, 4), words(random, 30), CITIES[random.nextInt(CITIES.length)],
+                        BigDecimal.valueOf(50_000 + random.nextInt(950) * 1_000L), 1 + random.nextInt(5),
+                        random.nextInt(4) > 0 ? PropertyStatus.AVAILABLE : PropertyStatus.SOLD));
+            }
+            return rows;
+        });
+
+        textIndex = new PropertyTextIndex(repository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(textIndex, "loadBatchSize", 10_000);
+        ReflectionTestUtils.setField(textIndex, "maxPrefixTerms", 64);
+        ReflectionTestUtils.setField(textIndex, "minPrefixLength", 2);
+        ReflectionTestUtils.setField(textIndex, "compactRatio", 0.2);
+        textIndex.init();
+    }
+
+    // Word k is drawn with probability roughly proportional to 1/k
+    private static String words(SplittableRandom random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int rank = (int) Math.pow(VOCABULARY, random.nextDouble());
+            text.append(i == 0 ? "" : " ").append(word(rank));
+        }
+        return text.toString();
+    }
+
+    private static String word(int rank) {
+        return "w" + Integer.toString(rank, 36);
+    }
+
+    private PropertyTextIndex.Result search(String text, String city, Integer minBedrooms) {
+        return textIndex.search(new PropertyTextIndex.Query(text, PropertyStatus.AVAILABLE, city, null, null,
+                minBedrooms, 0, 20));
+    }
+
+    @Benchmark
+    public PropertyTextIndex.Result commonWord() {
+        return search(word(2) + " ", null, null);
+    }
+
+    @Benchmark
+    public PropertyTextIndex.Result commonPair() {
+        return search(word(2) + " " + word(3) + " ", null, null);
+    }
+
+    @Benchmark
+    public PropertyTextIndex.Result rareWordWithCommonWord() {
+        return search(word(2) + " " + word(15_000) + " ", null, null);
+    }
+
+    @Benchmark
+    public PropertyTextIndex.Result rarePair() {
+        return search(word(9_000) + " " + word(15_000) + " ", null, null);
+    }
+
+    @Benchmark
+    public PropertyTextIndex.Result prefixWithFilters() {
+        return search(word(40) + " " + word(1_300).substring(0, 3), "Accra", 3);
+    }
+}
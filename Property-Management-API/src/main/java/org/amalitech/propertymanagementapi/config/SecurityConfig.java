@@ -1,9 +1,13 @@
 package org.amalitech.propertymanagementapi.config;
 
 import lombok.RequiredArgsConstructor;
+import org.amalitech.propertymanagementapi.security.BCryptStrengthCalibrator;
 import org.amalitech.propertymanagementapi.security.JwtAuthenticationFilter;
+import org.amalitech.propertymanagementapi.security.OffloadingPasswordEncoder;
+import org.amalitech.propertymanagementapi.security.PasswordHashingExecutor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -16,10 +20,13 @@ import org.springframework.security.config.Customizer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -28,10 +35,19 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final UserDetailsService userDetailsService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final BCryptStrengthCalibrator bcryptStrengthCalibrator;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // New hashes are stored as {bcrypt}$2a$<cost>$...; legacy hashes without a prefix still match
+        // and report upgradeEncoding() == true so they are re-hashed after the next login
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(bcryptStrengthCalibrator.getStrength())));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+
+        // BCrypt runs on the bounded hashing pool so login bursts cannot exhaust the request threads
+        return new OffloadingPasswordEncoder(encoder, passwordHashingExecutor);
     }
 
     @Bean
@@ -52,7 +68,13 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/**", "/h2-console/**", "/actuator/**").permitAll()
+                        .requestMatchers("/api/auth/logout").authenticated()
+                        .requestMatchers("/api/auth/**", "/h2-console/**", "/.well-known/**").permitAll()
+                        // Metrics carry login outcomes, pool and queue state: only health and info are public
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/properties/my-properties").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/properties", "/api/properties/*").permitAll()
                         .anyRequest().authenticated())
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
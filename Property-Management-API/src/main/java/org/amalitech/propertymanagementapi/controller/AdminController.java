@@ -1,14 +1,34 @@
 package org.amalitech.propertymanagementapi.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.dto.RoleChangeRequest;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.security.JwtKeyRing;
+import org.amalitech.propertymanagementapi.service.ResourceVersions;
+import org.amalitech.propertymanagementapi.service.StatisticsService;
+import org.amalitech.propertymanagementapi.service.UserImportService;
+import org.amalitech.propertymanagementapi.service.UserService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -17,17 +37,76 @@ import java.util.Map;
 @Slf4j
 public class AdminController {
     
+    private final UserImportService userImportService;
+    private final JwtKeyRing jwtKeyRing;
+    private final UserService userService;
+    private final StatisticsService statisticsService;
+    private final ConditionalGet conditionalGet;
+    
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> getStats(Authentication authentication) {
+    public ResponseEntity<Map<String, Object>> getStats(Authentication authentication, WebRequest request) {
         log.info("Admin {} accessing system stats", authentication.getName());
         
+        // Served from in-memory counters, so the cost does not grow with the tables; the body names the
+        // caller, so the ETag varies by admin as well as by the counters' version
+        return conditionalGet.respond(request, ResourceVersions.ADMIN_STATS, null, authentication.getName(), () -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("message", "Admin statistics");
+            stats.putAll(statisticsService.snapshot());
+            stats.put("accessedBy", authentication.getName());
+            return stats;
+        });
+    }
+    
+    /**
+     * Imports users from a CSV ({@code email,password[,role]}) or NDJSON body. The body is read
+     * incrementally and one NDJSON result line per row is streamed back, followed by a summary line.
+     */
+    @PostMapping(value = "/users/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public void importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                            InputStream body,
+                            HttpServletResponse response,
+                            Authentication authentication) throws IOException {
+        log.info("Admin {} importing users from {}", authentication.getName(), contentType);
+        
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        userImportService.importUsers(body, contentType, response.getOutputStream());
+    }
+    
+    /** Changes a user's role; tokens issued under the old role stop working immediately. */
+    @PutMapping("/users/{id}/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> changeRole(@PathVariable Long id,
+                                                          @Valid @RequestBody RoleChangeRequest request,
+                                                          Authentication authentication) {
+        log.info("Admin {} changing role of user {} to {}", authentication.getName(), id, request.getRole());
+        User user = userService.changeRole(id, request.getRole());
+        
+        return ResponseEntity.ok(Map.of(
+                "id", user.getId(),
+                "email", user.getEmail(),
+                "role", user.getRole().name()
+        ));
+    }
+    
+    /**
+     * Publishes a new signing key, which takes over once verifiers have had time to refetch the JWK set.
+     * Tokens signed with the previous key stay valid until they expire.
+     */
+    @PostMapping("/jwt/rotate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rotateSigningKey(Authentication authentication) {
+        JwtKeyRing.SigningKey key = jwtKeyRing.rotate();
+        log.info("Admin {} rotated the JWT signing key to {}", authentication.getName(), key.kid());
+        
         return ResponseEntity.ok(Map.of(
-                "message", "Admin statistics",
-                "totalUsers", 100,
-                "totalProperties", 50,
-                "totalAgents", 10,
-                "accessedBy", authentication.getName()
+                "kid", key.kid(),
+                "algorithm", jwtKeyRing.signatureAlgorithm().getId(),
+                "createdAt", key.created().toString(),
+                "activatesAt", jwtKeyRing.activatesAt(key).toString()
         ));
     }
 }
@@ -2,13 +2,19 @@ package org.amalitech.propertymanagementapi.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.dto.AgentDashboard;
+import org.amalitech.propertymanagementapi.security.CurrentUser;
+import org.amalitech.propertymanagementapi.service.AgentDashboardService;
+import org.amalitech.propertymanagementapi.service.ResourceVersions;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -17,16 +23,30 @@ import java.util.Map;
 @Slf4j
 public class AgentController {
     
+    private final AgentDashboardService agentDashboardService;
+    private final ConditionalGet conditionalGet;
+    
     @GetMapping("/dashboard")
     @PreAuthorize("hasAnyRole('AGENT', 'ADMIN')")
-    public ResponseEntity<Map<String, Object>> getDashboard(Authentication authentication) {
+    public ResponseEntity<Map<String, Object>> getDashboard(Authentication authentication, WebRequest request) {
         log.info("Agent/Admin {} accessing dashboard", authentication.getName());
+        Long agentId = CurrentUser.id(authentication);
         
-        return ResponseEntity.ok(Map.of(
-                "message", "Agent dashboard",
-                "myProperties", 15,
-                "pendingApprovals", 3,
-                "accessedBy", authentication.getName()
-        ));
+        // Polled continuously; an unchanged dashboard is answered with 304 before the cache or database is touched
+        return conditionalGet.respond(request, ResourceVersions.AGENT_DASHBOARD, agentId, null, () -> {
+            AgentDashboard dashboard = agentDashboardService.dashboard(agentId);
+            
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("message", "Agent dashboard");
+            response.put("myProperties", dashboard.getMyProperties());
+            response.put("pendingApprovals", dashboard.getPendingApprovals());
+            response.put("available", dashboard.getAvailable());
+            response.put("underOffer", dashboard.getUnderOffer());
+            response.put("sold", dashboard.getSold());
+            response.put("availableValue", dashboard.getAvailableValue());
+            response.put("computedAt", dashboard.getComputedAt());
+            response.put("accessedBy", authentication.getName());
+            return response;
+        });
     }
 }
@@ -0,0 +1,70 @@
+package org.amalitech.propertymanagementapi.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.amalitech.propertymanagementapi.service.ResourceVersions;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Answers GETs of versioned resources with 304 when the client's If-None-Match still matches, without
+ * calling the body supplier. Full responses carry the ETag and {@code private, no-cache}, so clients
+ * keep the body but revalidate it on every poll.
+ */
+@Component
+@RequiredArgsConstructor
+class ConditionalGet {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final ResourceVersions resourceVersions;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param resource one of the {@link ResourceVersions} names, also used as a metric tag
+     * @param id       the resource instance, or null for a singleton
+     * @param variant  anything else the body depends on, or null
+     * @param body     loads and builds the body; only called when the client's copy is out of date
+     */
+    <T> ResponseEntity<T> respond(WebRequest request, String resource, Object id, String variant, Supplier<T> body) {
+        // Taken before the body is loaded; see ResourceVersions
+        String etag = resourceVersions.etag(resource, id, variant);
+        if (matches(request.getHeaderValues(HttpHeaders.IF_NONE_MATCH), etag)) {
+            count(resource, "not_modified");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        count(resource, "modified");
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body.get());
+    }
+
+    // If-None-Match compares weakly, so W/ prefixes on either side are ignored
+    private static boolean matches(String[] headers, String etag) {
+        if (headers == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String header : headers) {
+            for (String candidate : header.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || opaque(tag).equals(opaque)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private void count(String resource, String outcome) {
+        meterRegistry.counter("http.conditional.requests", "resource", resource, "outcome", outcome).increment();
+    }
+}
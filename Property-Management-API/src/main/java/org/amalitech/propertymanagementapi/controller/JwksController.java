@@ -0,0 +1,35 @@
+package org.amalitech.propertymanagementapi.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.amalitech.propertymanagementapi.security.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Publishes the JWT verification keys so other services can verify tokens locally. The body is
+ * pre-serialized by the key ring; clients revalidate with If-None-Match and get 304 until a rotation.
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+    
+    private final JwtKeyRing keyRing;
+    
+    @Value("${jwt.keys.jwks-max-age:5m}")
+    private Duration maxAge;
+    
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .eTag(keyRing.jwksETag())
+                .body(keyRing.jwks());
+    }
+}
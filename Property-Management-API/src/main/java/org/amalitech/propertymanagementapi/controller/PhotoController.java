@@ -0,0 +1,32 @@
+package org.amalitech.propertymanagementapi.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.amalitech.propertymanagementapi.service.PhotoDownloadService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/photos")
+@RequiredArgsConstructor
+public class PhotoController {
+    
+    private final PhotoDownloadService photoDownloadService;
+    
+    /**
+     * Photo bytes by content hash, for any signed-in user. Supports single byte ranges and conditional
+     * requests; responses are cacheable for a year since a hash always names the same bytes. With
+     * {@code width} the resized variant is served, once the thumbnail pipeline has generated it.
+     */
+    @GetMapping("/{hash}")
+    public void download(@PathVariable String hash, @RequestParam(required = false) Integer width,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        photoDownloadService.serve(hash, width, request, response);
+    }
+}
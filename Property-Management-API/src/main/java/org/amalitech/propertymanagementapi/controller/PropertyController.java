@@ -0,0 +1,120 @@
+package org.amalitech.propertymanagementapi.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.amalitech.propertymanagementapi.dto.NearbyPage;
+import org.amalitech.propertymanagementapi.dto.NearbySearchRequest;
+import org.amalitech.propertymanagementapi.dto.PhotoResponse;
+import org.amalitech.propertymanagementapi.dto.PropertyPage;
+import org.amalitech.propertymanagementapi.dto.PropertyRequest;
+import org.amalitech.propertymanagementapi.dto.PropertyResponse;
+import org.amalitech.propertymanagementapi.dto.PropertySearchRequest;
+import org.amalitech.propertymanagementapi.dto.PropertyTextPage;
+import org.amalitech.propertymanagementapi.dto.PropertyTextSearchRequest;
+import org.amalitech.propertymanagementapi.service.PhotoService;
+import org.amalitech.propertymanagementapi.service.PropertyService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/properties")
+@RequiredArgsConstructor
+public class PropertyController {
+    
+    private final PropertyService propertyService;
+    private final PhotoService photoService;
+    
+    @PostMapping
+    @PreAuthorize("hasAnyRole('AGENT', 'ADMIN')")
+    public ResponseEntity<PropertyResponse> create(@Valid @RequestBody PropertyRequest request,
+                                                   Authentication authentication) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(propertyService.create(request, authentication));
+    }
+    
+    /**
+     * Searches listings by price range, bedrooms, city and status. Pages are keyset-paginated: pass the
+     * previous page's {@code nextCursor} as {@code cursor} to continue. Only admins may search pending listings.
+     */
+    @GetMapping
+    public ResponseEntity<PropertyPage> search(@Valid PropertySearchRequest request, Authentication authentication) {
+        return ResponseEntity.ok(propertyService.search(request, authentication));
+    }
+    
+    @GetMapping("/my-properties")
+    @PreAuthorize("hasAnyRole('AGENT', 'ADMIN')")
+    public ResponseEntity<PropertyPage> myProperties(@Valid PropertySearchRequest request,
+                                                     Authentication authentication) {
+        return ResponseEntity.ok(propertyService.searchOwn(request, authentication));
+    }
+    
+    /**
+     * Full-text search over titles, descriptions and cities, ranked by relevance and narrowed by the same
+     * filters as the listing search. The last word also matches as a prefix.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<PropertyTextPage> textSearch(@Valid PropertyTextSearchRequest request,
+                                                       Authentication authentication) {
+        return ResponseEntity.ok(propertyService.textSearch(request, authentication));
+    }
+    
+    /**
+     * Listings within {@code radiusKm} of ({@code lat}, {@code lon}), or inside a bounding box, nearest
+     * first. Served from the in-memory spatial index.
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<NearbyPage> nearby(@Valid NearbySearchRequest request, Authentication authentication) {
+        return ResponseEntity.ok(propertyService.nearby(request, authentication));
+    }
+    
+    /** A listing with its photos. Pending listings are only found by their agent and admins. */
+    @GetMapping("/{id}")
+    public ResponseEntity<PropertyResponse> get(@PathVariable Long id, Authentication authentication) {
+        return ResponseEntity.ok(propertyService.get(id, authentication));
+    }
+    
+    @PutMapping("/{id}")
+    public ResponseEntity<PropertyResponse> update(@PathVariable Long id,
+                                                   @Valid @RequestBody PropertyRequest request,
+                                                   Authentication authentication) {
+        return ResponseEntity.ok(propertyService.update(id, request, authentication));
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id, Authentication authentication) {
+        propertyService.delete(id, authentication);
+        return ResponseEntity.noContent().build();
+    }
+    
+    /**
+     * Adds a photo from the raw request body (JPEG, PNG, GIF or WebP). The body is streamed to the
+     * photo store rather than buffered; uploading an image the listing already has returns the existing photo.
+     */
+    @PostMapping("/{id}/photos")
+    @PreAuthorize("hasAnyRole('AGENT', 'ADMIN')")
+    public ResponseEntity<PhotoResponse> uploadPhoto(@PathVariable Long id, HttpServletRequest request,
+                                                     Authentication authentication) throws IOException {
+        PhotoResponse photo = photoService.upload(id, request.getInputStream(), request.getContentLengthLong(),
+                authentication);
+        return ResponseEntity.status(HttpStatus.CREATED).body(photo);
+    }
+    
+    @GetMapping("/{id}/photos")
+    public ResponseEntity<List<PhotoResponse>> photos(@PathVariable Long id) {
+        return ResponseEntity.ok(photoService.list(id));
+    }
+    
+    @DeleteMapping("/{id}/photos/{photoId}")
+    @PreAuthorize("hasAnyRole('AGENT', 'ADMIN')")
+    public ResponseEntity<Void> deletePhoto(@PathVariable Long id, @PathVariable Long photoId,
+                                            Authentication authentication) {
+        photoService.delete(id, photoId, authentication);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,23 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentDashboard {
+    private long myProperties;
+    private long pendingApprovals;
+    private long available;
+    private long underOffer;
+    private long sold;
+    private BigDecimal availableValue;
+    private Instant computedAt;
+}
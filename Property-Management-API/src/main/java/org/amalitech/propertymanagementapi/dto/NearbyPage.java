@@ -0,0 +1,17 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyPage {
+    // Nearest first, at most the requested limit
+    private List<NearbyProperty> items;
+    // Listings in the area, including those beyond the limit
+    private int matches;
+}
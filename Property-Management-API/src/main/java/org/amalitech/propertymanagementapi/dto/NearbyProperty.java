@@ -0,0 +1,26 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+
+import java.math.BigDecimal;
+
+/** Nearby search result row; the distance is from the search point, or from the center of the box. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyProperty {
+    private Long id;
+    private String title;
+    private String city;
+    private BigDecimal price;
+    private int bedrooms;
+    private PropertyStatus status;
+    private double latitude;
+    private double longitude;
+    private long distanceMeters;
+}
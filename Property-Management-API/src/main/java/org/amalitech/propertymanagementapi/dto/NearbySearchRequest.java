@@ -0,0 +1,88 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+
+/**
+ * Query parameters of a nearby search: either a point ({@code lat}, {@code lon}) with a radius, or a
+ * bounding box ({@code minLat}, {@code minLon}, {@code maxLat}, {@code maxLon}). A box with
+ * {@code minLon > maxLon} crosses the antimeridian.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbySearchRequest {
+    
+    // Keeps a box query to a few hundred grid cells
+    public static final double MAX_BOX_DEGREES = 1.0;
+    
+    @DecimalMin(value = "-90", message = "lat must be between -90 and 90")
+    @DecimalMax(value = "90", message = "lat must be between -90 and 90")
+    private Double lat;
+    
+    @DecimalMin(value = "-180", message = "lon must be between -180 and 180")
+    @DecimalMax(value = "180", message = "lon must be between -180 and 180")
+    private Double lon;
+    
+    @DecimalMin(value = "0.0", inclusive = false, message = "radiusKm must be positive")
+    @DecimalMax(value = "50", message = "radiusKm must be at most 50")
+    private Double radiusKm;
+    
+    @DecimalMin(value = "-90", message = "minLat must be between -90 and 90")
+    @DecimalMax(value = "90", message = "minLat must be between -90 and 90")
+    private Double minLat;
+    
+    @DecimalMin(value = "-180", message = "minLon must be between -180 and 180")
+    @DecimalMax(value = "180", message = "minLon must be between -180 and 180")
+    private Double minLon;
+    
+    @DecimalMin(value = "-90", message = "maxLat must be between -90 and 90")
+    @DecimalMax(value = "90", message = "maxLat must be between -90 and 90")
+    private Double maxLat;
+    
+    @DecimalMin(value = "-180", message = "maxLon must be between -180 and 180")
+    @DecimalMax(value = "180", message = "maxLon must be between -180 and 180")
+    private Double maxLon;
+    
+    // Defaults to AVAILABLE
+    private PropertyStatus status;
+    
+    @Min(value = 1, message = "limit must be at least 1")
+    @Max(value = 100, message = "limit must be at most 100")
+    private Integer limit;
+    
+    @JsonIgnore
+    public boolean isBox() {
+        return minLat != null || minLon != null || maxLat != null || maxLon != null;
+    }
+    
+    @JsonIgnore
+    @AssertTrue(message = "Give either lat and lon, or minLat, minLon, maxLat and maxLon")
+    public boolean isAreaValid() {
+        if (!isBox()) {
+            return lat != null && lon != null;
+        }
+        return lat == null && lon == null && radiusKm == null
+                && minLat != null && minLon != null && maxLat != null && maxLon != null;
+    }
+    
+    @JsonIgnore
+    @AssertTrue(message = "The box must have minLat <= maxLat and span at most 1 degree each way")
+    public boolean isBoxSizeValid() {
+        if (!isBox() || !isAreaValid()) {
+            return true;
+        }
+        double lonSpan = maxLon >= minLon ? maxLon - minLon : maxLon + 360 - minLon;
+        return minLat <= maxLat && maxLat - minLat <= MAX_BOX_DEGREES && lonSpan <= MAX_BOX_DEGREES;
+    }
+}
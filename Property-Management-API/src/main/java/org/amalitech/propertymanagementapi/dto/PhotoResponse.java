@@ -0,0 +1,36 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.amalitech.propertymanagementapi.model.PropertyPhoto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoResponse {
+    private Long id;
+    private String hash;
+    private String contentType;
+    private long size;
+    private String url;
+    private LocalDateTime createdAt;
+    private List<PhotoVariant> variants;
+    
+    public static PhotoResponse of(PropertyPhoto photo, List<PhotoVariant> variants) {
+        return PhotoResponse.builder()
+                .id(photo.getId())
+                .hash(photo.getContentHash())
+                .contentType(photo.getContentType())
+                .size(photo.getSize())
+                .url("/api/photos/" + photo.getContentHash())
+                .createdAt(photo.getCreatedAt())
+                .variants(variants)
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A resized copy of a photo. {@code url} is only set once the variant is {@link Status#READY}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoVariant {
+
+    public enum Status {
+        READY,
+        /** Queued, being generated, or waiting for the next backfill. */
+        PENDING,
+        /** The image cannot be resized, e.g. a WebP or a file the decoder rejected. */
+        UNAVAILABLE
+    }
+
+    private int width;
+    private Status status;
+    private String url;
+}
@@ -0,0 +1,16 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyPage {
+    private List<PropertySummary> items;
+    // Null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,61 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyRequest {
+    
+    @NotBlank(message = "Title is required")
+    @Size(max = 255, message = "Title must be at most 255 characters")
+    private String title;
+    
+    @Size(max = 2000, message = "Description must be at most 2000 characters")
+    private String description;
+    
+    @NotBlank(message = "City is required")
+    @Size(max = 100, message = "City must be at most 100 characters")
+    private String city;
+    
+    @NotNull(message = "Price is required")
+    @DecimalMin(value = "0.00", message = "Price must not be negative")
+    @Digits(integer = 10, fraction = 2, message = "Price must have at most 10 digits and 2 decimals")
+    private BigDecimal price;
+    
+    @Min(value = 0, message = "Bedrooms must not be negative")
+    private int bedrooms;
+    
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+    
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+    
+    // Optional on update; new listings always start as PENDING_APPROVAL
+    private PropertyStatus status;
+    
+    @JsonIgnore
+    @AssertTrue(message = "Latitude and longitude must be given together")
+    public boolean isCoordinatesComplete() {
+        return (latitude == null) == (longitude == null);
+    }
+}
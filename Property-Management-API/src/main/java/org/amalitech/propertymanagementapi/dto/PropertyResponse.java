@@ -0,0 +1,50 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.amalitech.propertymanagementapi.model.Property;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyResponse {
+    private Long id;
+    private String title;
+    private String description;
+    private String city;
+    private BigDecimal price;
+    private int bedrooms;
+    private Double latitude;
+    private Double longitude;
+    private PropertyStatus status;
+    private String ownerEmail;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<PhotoResponse> photos;
+    
+    public static PropertyResponse of(Property property, String ownerEmail) {
+        return PropertyResponse.builder()
+                .id(property.getId())
+                .title(property.getTitle())
+                .description(property.getDescription())
+                .city(property.getCity())
+                .price(property.getPrice())
+                .bedrooms(property.getBedrooms())
+                .latitude(property.getLatitude())
+                .longitude(property.getLongitude())
+                .status(property.getStatus())
+                .ownerEmail(ownerEmail)
+                .createdAt(property.getCreatedAt())
+                .updatedAt(property.getUpdatedAt())
+                .photos(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+
+import java.math.BigDecimal;
+
+/** Query parameters of a listing search. Results are ordered by price, then id. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertySearchRequest {
+    
+    @DecimalMin(value = "0.00", message = "minPrice must not be negative")
+    private BigDecimal minPrice;
+    
+    @DecimalMin(value = "0.00", message = "maxPrice must not be negative")
+    private BigDecimal maxPrice;
+    
+    @Min(value = 0, message = "minBedrooms must not be negative")
+    private Integer minBedrooms;
+    
+    private String city;
+    
+    private PropertyStatus status;
+    
+    // Opaque position returned as nextCursor by the previous page
+    private String cursor;
+    
+    @Min(value = 1, message = "size must be at least 1")
+    @Max(value = 100, message = "size must be at most 100")
+    private Integer size;
+}
@@ -0,0 +1,21 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+
+import java.math.BigDecimal;
+
+/** Search result row, selected as a projection so listings are never loaded as entities. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertySummary {
+    private Long id;
+    private String title;
+    private String city;
+    private BigDecimal price;
+    private int bedrooms;
+    private PropertyStatus status;
+}
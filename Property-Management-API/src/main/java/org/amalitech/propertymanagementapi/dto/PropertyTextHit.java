@@ -0,0 +1,24 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+
+import java.math.BigDecimal;
+
+/** Full-text search result row with its BM25 relevance score. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyTextHit {
+    private Long id;
+    private String title;
+    private String city;
+    private BigDecimal price;
+    private int bedrooms;
+    private PropertyStatus status;
+    private float score;
+}
@@ -0,0 +1,19 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyTextPage {
+    // Most relevant first
+    private List<PropertyTextHit> items;
+    // Listings matching the text and filters, across all pages
+    private int matches;
+    // Time spent serving the search, index lookup and page hydration included
+    private long tookMicros;
+}
@@ -0,0 +1,61 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+
+import java.math.BigDecimal;
+
+/** Query parameters of a full-text search: the text plus the filters of {@link PropertySearchRequest}. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyTextSearchRequest {
+    
+    // Relevance pages are ranked in memory, so only the first results can be paged through
+    public static final int MAX_DEPTH = 1000;
+    
+    // Mirrors properties.search.default-page-size, so an omitted size is checked against the page it gets
+    public static final int DEFAULT_SIZE = 20;
+    
+    @NotBlank(message = "q is required")
+    @Size(max = 200, message = "q must be at most 200 characters")
+    private String q;
+    
+    @DecimalMin(value = "0.00", message = "minPrice must not be negative")
+    private BigDecimal minPrice;
+    
+    @DecimalMin(value = "0.00", message = "maxPrice must not be negative")
+    private BigDecimal maxPrice;
+    
+    @Min(value = 0, message = "minBedrooms must not be negative")
+    private Integer minBedrooms;
+    
+    private String city;
+    
+    private PropertyStatus status;
+    
+    @Min(value = 0, message = "page must not be negative")
+    private Integer page;
+    
+    @Min(value = 1, message = "size must be at least 1")
+    @Max(value = 100, message = "size must be at most 100")
+    private Integer size;
+    
+    @JsonIgnore
+    @AssertTrue(message = "Only the first 1000 results can be paged through")
+    public boolean isWithinDepth() {
+        long effectiveSize = size != null ? size : DEFAULT_SIZE;
+        return page == null || ((long) page + 1) * effectiveSize <= MAX_DEPTH;
+    }
+}
@@ -0,0 +1,16 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.amalitech.propertymanagementapi.model.Role;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleChangeRequest {
+    
+    @NotNull(message = "Role is required")
+    private Role role;
+}
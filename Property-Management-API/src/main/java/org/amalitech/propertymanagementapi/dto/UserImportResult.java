@@ -0,0 +1,25 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+    
+    public enum Status {
+        CREATED, DUPLICATE, INVALID
+    }
+    
+    private int line;
+    private String email;
+    private Status status;
+    private Long id;
+    private String message;
+}
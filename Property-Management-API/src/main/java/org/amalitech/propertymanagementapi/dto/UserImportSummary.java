@@ -0,0 +1,20 @@
+package org.amalitech.propertymanagementapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportSummary {
+    private boolean summary;
+    private long rows;
+    private long created;
+    private long duplicates;
+    private long invalid;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,7 @@
+package org.amalitech.propertymanagementapi.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.amalitech.propertymanagementapi.exception;
+
+public class InvalidPhotoException extends RuntimeException {
+    public InvalidPhotoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.amalitech.propertymanagementapi.exception;
+
+public class PhotoNotFoundException extends RuntimeException {
+    public PhotoNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.amalitech.propertymanagementapi.exception;
+
+public class PhotoTooLargeException extends RuntimeException {
+    public PhotoTooLargeException(String message) {
+        super(message);
+    }
+}
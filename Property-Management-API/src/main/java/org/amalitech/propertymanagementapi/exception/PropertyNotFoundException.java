@@ -0,0 +1,7 @@
+package org.amalitech.propertymanagementapi.exception;
+
+public class PropertyNotFoundException extends RuntimeException {
+    public PropertyNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.amalitech.propertymanagementapi.exception;
+
+public class UserNotFoundException extends RuntimeException {
+    public UserNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,83 @@
+package org.amalitech.propertymanagementapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** A listing managed by an agent. New listings wait for approval before they are shown as available. */
+@Entity
+@Table(name = "properties", indexes = {
+        @Index(name = "idx_properties_agent_status", columnList = "agent_id, status"),
+        // Keyset search: equality columns first, then the (price, id) sort key the cursor seeks on
+        @Index(name = "idx_properties_status_price", columnList = "status, price, id"),
+        @Index(name = "idx_properties_status_city_price", columnList = "status, city, price, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Property {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "properties_seq")
+    @SequenceGenerator(name = "properties_seq", sequenceName = "properties_seq", allocationSize = 50)
+    private Long id;
+    
+    // Queries filter on agent.id, which reads the foreign key without loading the agent
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "agent_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User agent;
+    
+    @Column(nullable = false)
+    private String title;
+    
+    @Column(length = 2000)
+    private String description;
+    
+    @Column(nullable = false, length = 100)
+    private String city;
+    
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal price;
+    
+    @Column(nullable = false)
+    private int bedrooms;
+    
+    // WGS84 degrees; listings without coordinates are left out of nearby searches
+    private Double latitude;
+    
+    private Double longitude;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PropertyStatus status;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+        if (status == null) {
+            status = PropertyStatus.PENDING_APPROVAL;
+        }
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,56 @@
+package org.amalitech.propertymanagementapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * A photo attached to a listing. The bytes live in the content-addressed photo store under their
+ * SHA-256, so listings sharing an image share one file.
+ */
+@Entity
+@Table(name = "property_photos",
+        indexes = @Index(name = "idx_property_photos_content_hash", columnList = "content_hash"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_property_photos_property_hash",
+                columnNames = {"property_id", "content_hash"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyPhoto {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "property_photos_seq")
+    @SequenceGenerator(name = "property_photos_seq", sequenceName = "property_photos_seq", allocationSize = 50)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "property_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Property property;
+    
+    // Lower-case hex SHA-256 of the bytes, also the file's name in the store
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+    
+    @Column(name = "content_type", nullable = false, length = 50)
+    private String contentType;
+    
+    @Column(name = "size_bytes", nullable = false)
+    private long size;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
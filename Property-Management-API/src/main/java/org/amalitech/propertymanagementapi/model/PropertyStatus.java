@@ -0,0 +1,13 @@
+package org.amalitech.propertymanagementapi.model;
+
+public enum PropertyStatus {
+    PENDING_APPROVAL,
+    AVAILABLE,
+    UNDER_OFFER,
+    SOLD;
+
+    /** Whether anyone may see listings in this status; pending ones are only shown to their agent and admins. */
+    public boolean isPublic() {
+        return this != PENDING_APPROVAL;
+    }
+}
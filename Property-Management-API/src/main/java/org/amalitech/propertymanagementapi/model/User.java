@@ -5,29 +5,41 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email_key"))
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class User implements UserDetails {
     
+    /** Name of the unique constraint on the email key; registration relies on it to detect duplicates. */
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    
+    // Sequence ids with a pooled allocation let Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
     
+    // Normalized copy of email backing the unique index; every lookup by email goes through it
+    @Column(name = "email_key", nullable = false)
+    private String emailKey;
+    
     @Column(nullable = false)
     private String password;
     
@@ -38,9 +50,37 @@ public class User implements UserDetails {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    // Tokens carrying an older epoch are revoked. Only changed through UserRepository.incrementTokenEpoch,
+    // so saving a stale entity cannot roll it back
+    @ColumnDefault("0")
+    @Column(name = "token_epoch", nullable = false, updatable = false)
+    private long tokenEpoch;
+    
+    // Written asynchronously by LoginAttemptService through UserRepository.updateLoginFailures
+    @ColumnDefault("0")
+    @Column(name = "failed_login_attempts", nullable = false, updatable = false)
+    private int failedLoginAttempts;
+    
+    @Column(name = "locked_until", updatable = false)
+    private Instant lockedUntil;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        emailKey = normalizeEmail(email);
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        emailKey = normalizeEmail(email);
+    }
+    
+    /**
+     * Returns the lookup key for an email address: trimmed and lower-cased, so addresses that
+     * differ only in case or surrounding whitespace map to the same account.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
     }
     
     @Override
@@ -60,7 +100,7 @@ public class User implements UserDetails {
     
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return lockedUntil == null || !lockedUntil.isAfter(Instant.now());
     }
     
     @Override
@@ -0,0 +1,27 @@
+package org.amalitech.propertymanagementapi.repository;
+
+import org.amalitech.propertymanagementapi.model.PropertyPhoto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PropertyPhotoRepository extends JpaRepository<PropertyPhoto, Long> {
+    // The unique (property_id, content_hash) constraint's index serves lookups by property
+    List<PropertyPhoto> findByPropertyIdOrderById(Long propertyId);
+    
+    Optional<PropertyPhoto> findByPropertyIdAndContentHash(Long propertyId, String contentHash);
+    
+    Optional<PropertyPhoto> findByIdAndPropertyId(Long id, Long propertyId);
+    
+    boolean existsByContentHash(String contentHash);
+    
+    @Modifying
+    @Query("delete from PropertyPhoto p where p.property.id = :propertyId")
+    int deleteByPropertyId(@Param("propertyId") Long propertyId);
+}
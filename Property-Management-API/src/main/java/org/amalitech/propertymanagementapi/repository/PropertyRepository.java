@@ -0,0 +1,89 @@
+package org.amalitech.propertymanagementapi.repository;
+
+import org.amalitech.propertymanagementapi.dto.PropertySummary;
+import org.amalitech.propertymanagementapi.model.Property;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PropertyRepository extends JpaRepository<Property, Long>, PropertySearchRepository {
+    
+    /** Per-status totals of one agent's listings. Sums are null when the agent has no listings. */
+    interface AgentTotals {
+        long getTotal();
+        Long getPendingApproval();
+        Long getAvailable();
+        Long getUnderOffer();
+        Long getSold();
+        BigDecimal getAvailableValue();
+    }
+    
+    // One aggregate over the (agent_id, status) index; no Property entities are loaded
+    @Query("""
+            select count(p) as total,
+                   sum(case when p.status = org.amalitech.propertymanagementapi.model.PropertyStatus.PENDING_APPROVAL then 1 else 0 end) as pendingApproval,
+                   sum(case when p.status = org.amalitech.propertymanagementapi.model.PropertyStatus.AVAILABLE then 1 else 0 end) as available,
+                   sum(case when p.status = org.amalitech.propertymanagementapi.model.PropertyStatus.UNDER_OFFER then 1 else 0 end) as underOffer,
+                   sum(case when p.status = org.amalitech.propertymanagementapi.model.PropertyStatus.SOLD then 1 else 0 end) as sold,
+                   sum(case when p.status = org.amalitech.propertymanagementapi.model.PropertyStatus.AVAILABLE then p.price else 0 end) as availableValue
+            from Property p
+            where p.agent.id = :agentId
+            """)
+    AgentTotals findAgentTotals(@Param("agentId") Long agentId);
+    
+    /** Coordinates of one listing, read in id order to load the spatial index. */
+    interface GeoPoint {
+        Long getId();
+        Double getLatitude();
+        Double getLongitude();
+        PropertyStatus getStatus();
+    }
+    
+    @Query("""
+            select p.id as id, p.latitude as latitude, p.longitude as longitude, p.status as status
+            from Property p
+            where p.id > :afterId and p.latitude is not null and p.longitude is not null
+            order by p.id
+            """)
+    List<GeoPoint> findGeoPointsAfter(@Param("afterId") long afterId, Limit limit);
+    
+    /** Indexed text and filter columns of one listing, read in id order to load the full-text index. */
+    interface TextDocument {
+        Long getId();
+        String getTitle();
+        String getDescription();
+        String getCity();
+        BigDecimal getPrice();
+        int getBedrooms();
+        PropertyStatus getStatus();
+    }
+    
+    @Query("""
+            select p.id as id, p.title as title, p.description as description, p.city as city, p.price as price,
+                   p.bedrooms as bedrooms, p.status as status
+            from Property p
+            where p.id > :afterId
+            order by p.id
+            """)
+    List<TextDocument> findTextDocumentsAfter(@Param("afterId") long afterId, Limit limit);
+    
+    // Hydrates a page of index hits; the caller restores the index's order
+    @Query("""
+            select new org.amalitech.propertymanagementapi.dto.PropertySummary(p.id, p.title, p.city, p.price, p.bedrooms, p.status)
+            from Property p
+            where p.id in :ids
+            """)
+    List<PropertySummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("select p from Property p join fetch p.agent where p.id = :id")
+    Optional<Property> findWithAgentById(@Param("id") Long id);
+}
@@ -0,0 +1,21 @@
+package org.amalitech.propertymanagementapi.repository;
+
+import org.amalitech.propertymanagementapi.dto.PropertySummary;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** Keyset-paginated listing search, implemented with the Criteria API in {@link PropertySearchRepositoryImpl}. */
+public interface PropertySearchRepository {
+    
+    /**
+     * Filters for a search. Null fields are not filtered on. {@code afterPrice}/{@code afterId} is the
+     * last row of the previous page; the search continues strictly after it in (price, id) order.
+     */
+    record Filter(PropertyStatus status, String city, BigDecimal minPrice, BigDecimal maxPrice,
+                  Integer minBedrooms, Long agentId, BigDecimal afterPrice, Long afterId) {
+    }
+    
+    List<PropertySummary> search(Filter filter, int limit);
+}
@@ -0,0 +1,76 @@
+package org.amalitech.propertymanagementapi.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.amalitech.propertymanagementapi.dto.PropertySummary;
+import org.amalitech.propertymanagementapi.model.Property;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+class PropertySearchRepositoryImpl implements PropertySearchRepository {
+    
+    private final EntityManager entityManager;
+    
+    @Override
+    public List<PropertySummary> search(Filter filter, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PropertySummary> query = cb.createQuery(PropertySummary.class);
+        Root<Property> p = query.from(Property.class);
+        
+        List<Predicate> where = new ArrayList<>();
+        if (filter.status() != null) {
+            where.add(cb.equal(p.get("status"), filter.status()));
+        }
+        if (filter.city() != null) {
+            where.add(cb.equal(p.get("city"), filter.city()));
+        }
+        if (filter.agentId() != null) {
+            where.add(cb.equal(p.get("agent").get("id"), filter.agentId()));
+        }
+        if (filter.minPrice() != null) {
+            where.add(cb.greaterThanOrEqualTo(p.get("price"), filter.minPrice()));
+        }
+        if (filter.maxPrice() != null) {
+            where.add(cb.lessThanOrEqualTo(p.get("price"), filter.maxPrice()));
+        }
+        if (filter.minBedrooms() != null) {
+            where.add(cb.greaterThanOrEqualTo(p.get("bedrooms"), filter.minBedrooms()));
+        }
+        if (filter.afterPrice() != null && filter.afterId() != null) {
+            // (price, id) > (afterPrice, afterId), written so the leading price >= bound can seek the index
+            where.add(cb.greaterThanOrEqualTo(p.<BigDecimal>get("price"), filter.afterPrice()));
+            where.add(cb.or(
+                    cb.greaterThan(p.<BigDecimal>get("price"), filter.afterPrice()),
+                    cb.greaterThan(p.<Long>get("id"), filter.afterId())));
+        }
+        
+        // Sorting by the columns fixed by equality first changes nothing in the result, but lets the database
+        // read the (status[, city], price, id) index in order and stop after one page instead of sorting
+        List<Order> order = new ArrayList<>();
+        if (filter.status() != null && filter.agentId() == null) {
+            order.add(cb.asc(p.get("status")));
+            if (filter.city() != null) {
+                order.add(cb.asc(p.get("city")));
+            }
+        }
+        order.add(cb.asc(p.get("price")));
+        order.add(cb.asc(p.get("id")));
+        
+        query.select(cb.construct(PropertySummary.class,
+                        p.get("id"), p.get("title"), p.get("city"), p.get("price"), p.get("bedrooms"), p.get("status")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(order);
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
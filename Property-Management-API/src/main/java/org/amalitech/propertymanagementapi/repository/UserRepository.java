@@ -1,13 +1,76 @@
 package org.amalitech.propertymanagementapi.repository;
 
+import jakarta.persistence.LockModeType;
+import org.amalitech.propertymanagementapi.model.Role;
 import org.amalitech.propertymanagementapi.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
-    boolean existsByEmail(String email);
+    Optional<User> findByEmailKey(String emailKey);
+    boolean existsByEmailKey(String emailKey);
+    
+    default Optional<User> findByEmail(String email) {
+        return findByEmailKey(User.normalizeEmail(email));
+    }
+    
+    default boolean existsByEmail(String email) {
+        return existsByEmailKey(User.normalizeEmail(email));
+    }
+    
+    @Query("select u.emailKey from User u where u.emailKey in :emailKeys")
+    Set<String> findExistingEmailKeys(@Param("emailKeys") Collection<String> emailKeys);
+    
+    /** Number of users holding a role. */
+    interface RoleCount {
+        Role getRole();
+        long getCount();
+    }
+    
+    @Query("select u.role as role, count(u) as count from User u group by u.role")
+    List<RoleCount> countByRole();
+    
+    /** A user whose tokens issued before the current epoch are revoked. */
+    interface TokenEpoch {
+        Long getId();
+        long getTokenEpoch();
+    }
+    
+    List<TokenEpoch> findByTokenEpochGreaterThan(long tokenEpoch);
+    
+    /** Loads the user with a row lock, so concurrent updates of the same user run one after another. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+    
+    @Query("select u.tokenEpoch from User u where u.id = :id")
+    Optional<Long> findTokenEpoch(@Param("id") Long id);
+    
+    @Transactional
+    @Modifying
+    @Query("update User u set u.tokenEpoch = u.tokenEpoch + 1 where u.id = :id")
+    int incrementTokenEpoch(@Param("id") Long id);
+    
+    @Transactional
+    @Modifying
+    @Query("update User u set u.failedLoginAttempts = :failures, u.lockedUntil = :lockedUntil where u.emailKey = :emailKey")
+    int updateLoginFailures(@Param("emailKey") String emailKey, @Param("failures") int failures,
+                            @Param("lockedUntil") Instant lockedUntil);
+    
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
@@ -0,0 +1,106 @@
+package org.amalitech.propertymanagementapi.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the authentication paths. Every tag value comes from a fixed set of outcomes; emails,
+ * tokens and paths are never used as tags, so the number of series stays constant under load.
+ */
+@Component
+public class AuthMetrics {
+
+    public enum FilterOutcome {
+        NO_HEADER, AUTHENTICATED, INVALID, EXPIRED, REVOKED, USER_NOT_FOUND, REJECTED
+    }
+
+    public enum VerifyOutcome {
+        VALID, INVALID, EXPIRED
+    }
+
+    public enum ThrottleReason {
+        IP, EMAIL, LOCKED
+    }
+
+    private final Timer loginSuccess;
+    private final Timer loginFailure;
+    private final Timer registerSuccess;
+    private final Timer registerDuplicate;
+    private final Timer userFound;
+    private final Timer userNotFound;
+    private final Map<VerifyOutcome, Timer> verifyTimers = new EnumMap<>(VerifyOutcome.class);
+    private final Map<FilterOutcome, Counter> filterCounters = new EnumMap<>(FilterOutcome.class);
+    private final Map<ThrottleReason, Counter> throttleCounters = new EnumMap<>(ThrottleReason.class);
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        loginSuccess = timer(meterRegistry, "auth.login", "Login attempts", "success");
+        loginFailure = timer(meterRegistry, "auth.login", "Login attempts", "failure");
+        registerSuccess = timer(meterRegistry, "auth.register", "Registration attempts", "success");
+        registerDuplicate = timer(meterRegistry, "auth.register", "Registration attempts", "duplicate");
+        userFound = timer(meterRegistry, "security.user.lookup", "User lookups by email", "found");
+        userNotFound = timer(meterRegistry, "security.user.lookup", "User lookups by email", "not_found");
+
+        for (VerifyOutcome outcome : VerifyOutcome.values()) {
+            verifyTimers.put(outcome, timer(meterRegistry, "jwt.verify", "JWT signature verification and parsing",
+                    tagValue(outcome)));
+        }
+        for (FilterOutcome outcome : FilterOutcome.values()) {
+            filterCounters.put(outcome, Counter.builder("jwt.filter.requests")
+                    .description("Requests seen by the JWT filter")
+                    .tag("outcome", tagValue(outcome))
+                    .register(meterRegistry));
+        }
+        for (ThrottleReason reason : ThrottleReason.values()) {
+            throttleCounters.put(reason, Counter.builder("auth.login.throttled")
+                    .description("Login attempts rejected before checking the password")
+                    .tag("reason", tagValue(reason))
+                    .register(meterRegistry));
+        }
+    }
+
+    public void recordLogin(boolean success, long startNanos) {
+        record(success ? loginSuccess : loginFailure, startNanos);
+    }
+
+    public void recordRegistration(boolean duplicate, long startNanos) {
+        record(duplicate ? registerDuplicate : registerSuccess, startNanos);
+    }
+
+    public void recordUserLookup(boolean found, long startNanos) {
+        record(found ? userFound : userNotFound, startNanos);
+    }
+
+    public void recordVerify(VerifyOutcome outcome, long startNanos) {
+        record(verifyTimers.get(outcome), startNanos);
+    }
+
+    public void recordFilterOutcome(FilterOutcome outcome) {
+        filterCounters.get(outcome).increment();
+    }
+
+    public void recordLoginThrottled(ThrottleReason reason) {
+        throttleCounters.get(reason).increment();
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String name, String description, String outcome) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static void record(Timer timer, long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String tagValue(Enum<?> outcome) {
+        return outcome.name().toLowerCase(Locale.ROOT);
+    }
+}
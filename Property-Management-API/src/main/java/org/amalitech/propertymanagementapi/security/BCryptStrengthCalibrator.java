@@ -0,0 +1,78 @@
+package org.amalitech.propertymanagementapi.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt work factor for this node at startup: the highest strength whose measured
+ * hash time still fits the configured latency budget, but never below the minimum strength.
+ */
+@Component
+@Slf4j
+public class BCryptStrengthCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    @Value("${security.password-hashing.latency-budget:50ms}")
+    private Duration latencyBudget;
+
+    @Value("${security.password-hashing.min-strength:10}")
+    private int minStrength;
+
+    @Value("${security.password-hashing.max-strength:16}")
+    private int maxStrength;
+
+    // A positive value pins the strength and skips calibration
+    @Value("${security.password-hashing.strength:0}")
+    private int fixedStrength;
+
+    @Getter
+    private int strength;
+
+    @PostConstruct
+    void init() {
+        if (fixedStrength > 0) {
+            strength = fixedStrength;
+            log.info("Using fixed BCrypt strength {}", strength);
+            return;
+        }
+        strength = calibrate(latencyBudget, minStrength, maxStrength);
+    }
+
+    static int calibrate(Duration budget, int minStrength, int maxStrength) {
+        // Warm up so JIT compilation does not inflate the first measurement
+        new BCryptPasswordEncoder(minStrength).encode(SAMPLE_PASSWORD);
+
+        int chosen = minStrength;
+        long chosenNanos = measure(minStrength);
+        for (int candidate = minStrength + 1; candidate <= maxStrength; candidate++) {
+            // Each step doubles the cost, so stop before measuring a strength that cannot fit
+            if (chosenNanos * 2 > budget.toNanos()) {
+                break;
+            }
+            long nanos = measure(candidate);
+            if (nanos > budget.toNanos()) {
+                break;
+            }
+            chosen = candidate;
+            chosenNanos = nanos;
+        }
+
+        log.info("Calibrated BCrypt strength {} ({} ms per hash, budget {} ms)",
+                chosen, chosenNanos / 1_000_000, budget.toMillis());
+        return chosen;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return System.nanoTime() - start;
+    }
+}
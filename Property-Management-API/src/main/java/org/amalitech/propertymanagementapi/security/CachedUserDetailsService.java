@@ -0,0 +1,90 @@
+package org.amalitech.propertymanagementapi.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Caching layer in front of {@link CustomUserDetailsService}. Concurrent misses for the same email
+ * are coalesced into a single database query. Any code path that changes a user's email, role,
+ * password or lock state must call {@link #evict(String)} so stale details are not served.
+ */
+@Service
+@Primary
+@RequiredArgsConstructor
+@Slf4j
+public class CachedUserDetailsService implements UserDetailsService {
+
+    private final CustomUserDetailsService delegate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.user-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.user-cache.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${security.user-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    private AsyncCache<String, UserDetails> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "security.user-details");
+        log.info("User details cache {} (ttl {}, maximum size {})", enabled ? "enabled" : "disabled", ttl, maximumSize);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        if (!enabled) {
+            return delegate.loadUserByUsername(email);
+        }
+        // Keyed by the normalized email so differently capitalized logins share one entry; unknown users
+        // fail the load and so are not cached
+        return SingleFlight.get(cache, User.normalizeEmail(email), key -> delegate.loadUserByUsername(email));
+    }
+
+    /**
+     * Drops the cached details for the email. When called inside a transaction the entry is dropped
+     * again after commit, so a lookup racing with the write cannot re-cache the old row.
+     */
+    public void evict(String email) {
+        String key = User.normalizeEmail(email);
+        cache.synchronous().invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.synchronous().invalidate(key);
+                }
+            });
+        }
+        log.debug("Evicted cached user details for: {}", email);
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+}
@@ -0,0 +1,25 @@
+package org.amalitech.propertymanagementapi.security;
+
+import org.amalitech.propertymanagementapi.model.User;
+import org.springframework.security.core.Authentication;
+
+/** Reads the caller's user id from the principal, whichever way the JWT filter built it. */
+public final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    public static Long id(Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof User user) {
+            return user.getId();
+        }
+        if (principal instanceof JwtPrincipal jwtPrincipal) {
+            return jwtPrincipal.id();
+        }
+        if (authentication.getCredentials() instanceof VerifiedToken token) {
+            return token.userId();
+        }
+        throw new IllegalStateException("No user id for principal " + authentication.getName());
+    }
+}
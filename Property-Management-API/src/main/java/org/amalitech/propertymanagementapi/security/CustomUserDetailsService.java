@@ -1,21 +1,27 @@
 package org.amalitech.propertymanagementapi.security;
 
 import lombok.RequiredArgsConstructor;
+import org.amalitech.propertymanagementapi.model.User;
 import org.amalitech.propertymanagementapi.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
     
     private final UserRepository userRepository;
+    private final AuthMetrics authMetrics;
     
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        long start = System.nanoTime();
+        Optional<User> user = userRepository.findByEmail(email);
+        authMetrics.recordUserLookup(user.isPresent(), start);
+        return user.orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
 }
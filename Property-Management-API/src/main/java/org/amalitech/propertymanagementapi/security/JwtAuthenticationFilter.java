@@ -1,16 +1,20 @@
 package org.amalitech.propertymanagementapi.security;
 
+import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,7 +27,17 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final UserDetailsService userDetailsService;
+    private final AuthMetrics authMetrics;
+    private final TokenRevocationService tokenRevocationService;
+    
+    /**
+     * When enabled, the principal and authorities are taken from the verified token claims
+     * instead of loading the user from the database on every request.
+     */
+    @Value("${jwt.claims-only-authentication:false}")
+    private boolean claimsOnlyAuthentication;
     
     @Override
     protected void doFilterInternal(
@@ -35,34 +49,65 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader("Authorization");
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            authMetrics.recordFilterOutcome(AuthMetrics.FilterOutcome.NO_HEADER);
             filterChain.doFilter(request, response);
             return;
         }
         
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtTokenProvider.extractUsername(jwt);
+            final VerifiedToken token = verifiedTokenCache.verify(jwt);
+            final String userEmail = token.subject();
             
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+            if (tokenRevocationService.isRevoked(token)) {
+                authMetrics.recordFilterOutcome(AuthMetrics.FilterOutcome.REVOKED);
+                log.debug("Revoked JWT presented for user: {}", userEmail);
+            } else if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UsernamePasswordAuthenticationToken authToken = claimsOnlyAuthentication
+                        ? authenticateFromClaims(token)
+                        : authenticateFromUserDetails(token);
                 
-                if (jwtTokenProvider.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    
+                if (authToken != null) {
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    authMetrics.recordFilterOutcome(AuthMetrics.FilterOutcome.AUTHENTICATED);
                     
                     log.debug("JWT authentication successful for user: {}", userEmail);
+                } else {
+                    authMetrics.recordFilterOutcome(AuthMetrics.FilterOutcome.REJECTED);
                 }
             }
+        } catch (ExpiredJwtException e) {
+            authMetrics.recordFilterOutcome(AuthMetrics.FilterOutcome.EXPIRED);
+            log.debug("JWT expired for user: {}", e.getClaims().getSubject());
+        } catch (UsernameNotFoundException e) {
+            authMetrics.recordFilterOutcome(AuthMetrics.FilterOutcome.USER_NOT_FOUND);
+            log.warn("JWT authentication failed: {}", e.getMessage());
         } catch (Exception e) {
+            authMetrics.recordFilterOutcome(AuthMetrics.FilterOutcome.INVALID);
             log.error("JWT authentication failed: {}", e.getMessage());
         }
         
         filterChain.doFilter(request, response);
     }
+    
+    private UsernamePasswordAuthenticationToken authenticateFromUserDetails(VerifiedToken token) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(token.subject());
+        
+        if (!jwtTokenProvider.validateToken(token, userDetails)) {
+            return null;
+        }
+        // The verified token is kept as the credentials so logout can revoke it
+        return new UsernamePasswordAuthenticationToken(userDetails, token, userDetails.getAuthorities());
+    }
+    
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(VerifiedToken token) {
+        if (token.role() == null) {
+            log.warn("JWT for user {} carries no role claim", token.subject());
+            return null;
+        }
+        
+        JwtPrincipal principal = new JwtPrincipal(token.userId(), token.subject(), Role.valueOf(token.role()));
+        return new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
+    }
 }
@@ -0,0 +1,263 @@
+package org.amalitech.propertymanagementapi.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Asymmetric JWT signing keys, identified by {@code kid}. The newest key signs; it and the previous
+ * {@code jwt.keys.retained - 1} keys verify and are published as a JWK set. Readers see an immutable
+ * snapshot, so a verification is a single map lookup and rotation never blocks them.
+ * <p>
+ * A rotated-in key is published at once but only starts signing after {@code jwt.keys.activation-delay},
+ * by default the JWK set's max-age, so verifiers holding a cached set have refetched it before they see a
+ * token carrying the new kid.
+ * <p>
+ * With {@code jwt.keys.directory} set, keys are stored there as private JWK files and survive restarts.
+ * Without it, a key is generated at startup and tokens do not outlive the process.
+ */
+@Component
+@Slf4j
+public class JwtKeyRing {
+
+    private static final String KEY_FILE_SUFFIX = ".jwk.json";
+
+    /** A key pair with its JWK id and the time it was generated. */
+    public record SigningKey(String kid, PrivateKey privateKey, PublicKey publicKey, Instant created) {
+    }
+
+    /** {@code nextActivation} is when the oldest not-yet-signing key takes over, or null if there is none. */
+    private record Snapshot(SigningKey active, Instant nextActivation, Map<String, SigningKey> byKid, String jwks,
+                            String etag) {
+    }
+
+    @Value("${jwt.keys.algorithm:ES256}")
+    private String algorithm;
+
+    @Value("${jwt.keys.directory:}")
+    private String directory;
+
+    @Value("${jwt.keys.retained:2}")
+    private int retained;
+
+    @Value("${jwt.keys.activation-delay:${jwt.keys.jwks-max-age:5m}}")
+    private Duration activationDelay;
+
+    // Replaced in tests to step over the activation delay
+    private Clock clock = Clock.systemUTC();
+
+    private SignatureAlgorithm signatureAlgorithm;
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    void init() {
+        signatureAlgorithm = switch (algorithm) {
+            case "ES256" -> Jwts.SIG.ES256;
+            case "EdDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalStateException("Unsupported jwt.keys.algorithm: " + algorithm + " (ES256 or EdDSA)");
+        };
+        if (retained < 1) {
+            throw new IllegalStateException("jwt.keys.retained must be at least 1");
+        }
+
+        List<SigningKey> keys = directory.isBlank() ? new ArrayList<>() : load(Path.of(directory));
+        if (keys.isEmpty()) {
+            keys.add(generate());
+        }
+        publish(keys);
+        log.info("JWT key ring ready: {} signing with kid {}, {} verification key(s){}", algorithm,
+                snapshot.active().kid(), snapshot.byKid().size(),
+                directory.isBlank() ? " (in memory)" : " in " + directory);
+    }
+
+    public SignatureAlgorithm signatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    public SigningKey signingKey() {
+        Snapshot current = snapshot;
+        if (current.nextActivation() != null && !clock.instant().isBefore(current.nextActivation())) {
+            current = promote();
+        }
+        return current.active();
+    }
+
+    /** When a key returned by {@link #rotate()} starts signing. */
+    public Instant activatesAt(SigningKey key) {
+        return key.created().plus(activationDelay);
+    }
+
+    /** Returns the public key for the kid, or null if it is unknown or no longer retained. */
+    public PublicKey verificationKey(String kid) {
+        SigningKey key = kid == null ? null : snapshot.byKid().get(kid);
+        return key == null ? null : key.publicKey();
+    }
+
+    /** The JWK set of all verification keys, serialized once per rotation. */
+    public String jwks() {
+        return snapshot.jwks();
+    }
+
+    /** Changes whenever the published key set changes. */
+    public String jwksETag() {
+        return snapshot.etag();
+    }
+
+    /**
+     * Generates and publishes a new key, which takes over signing once the activation delay has passed.
+     * The previous keys stay valid for verification until more than {@code jwt.keys.retained} keys
+     * have signed, at which point the oldest is dropped.
+     */
+    public synchronized SigningKey rotate() {
+        List<SigningKey> keys = new ArrayList<>(snapshot.byKid().values());
+        SigningKey created = generate();
+        keys.add(created);
+        publish(keys);
+        log.info("Published JWT key {}, signing from {}; verifying with {}", created.kid(), activatesAt(created),
+                snapshot.byKid().keySet());
+        return created;
+    }
+
+    private synchronized Snapshot promote() {
+        Snapshot current = snapshot;
+        if (current.nextActivation() != null && !clock.instant().isBefore(current.nextActivation())) {
+            publish(new ArrayList<>(current.byKid().values()));
+            log.info("JWT signing key is now kid {}", snapshot.active().kid());
+        }
+        return snapshot;
+    }
+
+    private SigningKey generate() {
+        KeyPair keyPair = signatureAlgorithm.keyPair().build();
+        PrivateJwk<?, ?, ?> jwk = Jwks.builder().keyPair(keyPair).idFromThumbprint().build();
+        SigningKey key = new SigningKey(jwk.getId(), keyPair.getPrivate(), keyPair.getPublic(), clock.instant());
+        if (!directory.isBlank()) {
+            store(Path.of(directory), jwk, key.created());
+        }
+        return key;
+    }
+
+    private void publish(List<SigningKey> keys) {
+        keys.sort(Comparator.comparing(SigningKey::created).reversed());
+        // The newest key whose delay has passed signs; the oldest key signs if none has, e.g. the first one
+        Instant now = clock.instant();
+        int active = 0;
+        while (active < keys.size() - 1 && activatesAt(keys.get(active)).isAfter(now)) {
+            active++;
+        }
+        List<SigningKey> kept = keys.subList(0, Math.min(active + retained, keys.size()));
+        if (!directory.isBlank()) {
+            keys.subList(kept.size(), keys.size()).forEach(dropped -> delete(Path.of(directory), dropped.kid()));
+        }
+
+        Map<String, SigningKey> byKid = new LinkedHashMap<>();
+        kept.forEach(key -> byKid.put(key.kid(), key));
+        String jwks = kept.stream()
+                .map(key -> Jwks.json(publicJwk(key)))
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+        Instant nextActivation = active == 0 ? null : activatesAt(kept.get(active - 1));
+        snapshot = new Snapshot(kept.get(active), nextActivation, Map.copyOf(byKid), jwks, etag(jwks));
+    }
+
+    private static String etag(String jwks) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jwks.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private PublicJwk<?> publicJwk(SigningKey key) {
+        return Jwks.builder().key(key.publicKey())
+                .id(key.kid())
+                .algorithm(signatureAlgorithm.getId())
+                .publicKeyUse("sig")
+                .build();
+    }
+
+    private List<SigningKey> load(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            List<SigningKey> keys = new ArrayList<>();
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(KEY_FILE_SUFFIX)).toList()) {
+                Jwk<?> jwk = Jwks.parser().build().parse(Files.readString(file));
+                if (!(jwk instanceof PrivateJwk<?, ?, ?> privateJwk)) {
+                    throw new IllegalStateException("Not a private JWK: " + file);
+                }
+                io.jsonwebtoken.security.KeyPair<?, ?> keyPair = privateJwk.toKeyPair();
+                keys.add(new SigningKey(jwk.getId(), keyPair.getPrivate(), keyPair.getPublic(),
+                        Files.getLastModifiedTime(file).toInstant()));
+            }
+            return keys;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JWT keys from " + dir, e);
+        }
+    }
+
+    // Written to an owner-only temp file and moved into place, so the private key is never readable by
+    // others and a crash never leaves a partial key file behind
+    private static void store(Path dir, PrivateJwk<?, ?, ?> jwk, Instant created) {
+        Path file = dir.resolve(jwk.getId() + KEY_FILE_SUFFIX);
+        try {
+            Files.createDirectories(dir);
+            FileAttribute<?>[] ownerOnly = dir.getFileSystem().supportedFileAttributeViews().contains("posix")
+                    ? new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"))}
+                    : new FileAttribute<?>[0];
+            Path temp = Files.createTempFile(dir, jwk.getId(), ".tmp", ownerOnly);
+            try {
+                Files.writeString(temp, Jwks.UNSAFE_JSON(jwk));
+                Files.setLastModifiedTime(temp, FileTime.from(created));
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot store JWT key " + file, e);
+        }
+    }
+
+    private static void delete(Path dir, String kid) {
+        try {
+            Files.deleteIfExists(dir.resolve(kid + KEY_FILE_SUFFIX));
+        } catch (IOException e) {
+            log.warn("Could not delete retired JWT key {}: {}", kid, e.getMessage());
+        }
+    }
+}
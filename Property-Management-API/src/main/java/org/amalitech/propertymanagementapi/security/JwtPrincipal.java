@@ -0,0 +1,25 @@
+package org.amalitech.propertymanagementapi.security;
+
+import org.amalitech.propertymanagementapi.model.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal built from verified JWT claims when the filter runs in claims-only mode,
+ * so no {@link org.amalitech.propertymanagementapi.model.User} has to be loaded.
+ */
+public record JwtPrincipal(Long id, String email, Role role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -1,59 +1,124 @@
 package org.amalitech.propertymanagementapi.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.InvalidKeyException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.model.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies tokens signed with the asymmetric keys of {@link JwtKeyRing}. Every token carries
+ * the {@code kid} of its signing key, so other services can verify it against the published JWK set.
+ */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtTokenProvider {
     
-    @Value("${jwt.secret}")
-    private String secret;
+    private final JwtKeyRing keyRing;
     
     @Value("${jwt.expiration}")
     private Long expiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    // Immutable and thread-safe, so it is built once instead of per token
+    private JwtParser jwtParser;
+    
+    @PostConstruct
+    void init() {
+        jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        PublicKey key = keyRing.verificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new InvalidKeyException("Unknown signing key: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
     }
     
     public String generateToken(UserDetails userDetails, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
+        if (userDetails instanceof User user && user.getId() != null) {
+            claims.put("uid", user.getId());
+            claims.put("ep", user.getTokenEpoch());
+        }
         return createToken(claims, userDetails.getUsername());
     }
     
     private String createToken(Map<String, Object> claims, String subject) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
         
         return Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
                 .claims(claims)
                 .subject(subject)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey.privateKey(), keyRing.signatureAlgorithm())
                 .compact();
     }
     
+    /**
+     * Parses and verifies the token exactly once.
+     *
+     * @throws io.jsonwebtoken.JwtException if the signature is invalid, the token is malformed or expired
+     */
+    public VerifiedToken verify(String token) {
+        Jws<Claims> jws = jwtParser.parseSignedClaims(token);
+        Claims claims = jws.getPayload();
+        Long epoch = claims.get("ep", Long.class);
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.get("uid", Long.class),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                jws.getHeader().getKeyId(),
+                claims.getId(),
+                epoch == null ? 0 : epoch
+        );
+    }
+    
+    /** Whether tokens signed with the key are still accepted, i.e. the key has not been rotated out. */
+    public boolean isTrustedKey(String keyId) {
+        return keyRing.verificationKey(keyId) != null;
+    }
+    
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
     
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return verify(token).role();
+    }
+    
+    public Long extractUserId(String token) {
+        return verify(token).userId();
     }
     
     public Date extractExpiration(String token) {
@@ -66,24 +131,25 @@ public class JwtTokenProvider {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
     
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return token.subject() != null
+                && token.subject().equals(userDetails.getUsername())
+                && !token.isExpired(Instant.now());
     }
     
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return validateToken(verify(token), userDetails);
         } catch (Exception e) {
             log.error("JWT validation failed: {}", e.getMessage());
             return false;
         }
     }
+    
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
+    }
 }
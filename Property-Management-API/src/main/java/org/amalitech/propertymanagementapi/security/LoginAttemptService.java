@@ -0,0 +1,138 @@
+package org.amalitech.propertymanagementapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts failed logins per account and locks the account for a while once too many fail in a row.
+ * Counting happens in memory so a failed login costs no write; the state is flushed to the
+ * {@code users} table in the background, where {@link User#isAccountNonLocked()} enforces it across
+ * restarts and instances.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoginAttemptService {
+
+    private final UserRepository userRepository;
+    private final CachedUserDetailsService userDetailsCache;
+
+    @Value("${security.lockout.max-failures:5}")
+    private int maxFailures;
+
+    @Value("${security.lockout.duration:15m}")
+    private Duration lockoutDuration;
+
+    @Value("${security.lockout.maximum-accounts:100000}")
+    private long maximumAccounts;
+
+    // Keyed by normalized email; an entry without failures for a whole lockout period is dropped
+    private Cache<String, Attempts> attempts;
+
+    // Accounts whose state changed since the last flush
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        attempts = Caffeine.newBuilder()
+                .maximumSize(maximumAccounts)
+                .expireAfterWrite(lockoutDuration)
+                .build();
+        log.info("Account lockout after {} failed logins for {}", maxFailures, lockoutDuration);
+    }
+
+    /** Returns how long the account stays locked, or {@link Duration#ZERO} if it is not locked. */
+    public Duration lockRemaining(String email) {
+        Attempts entry = attempts.getIfPresent(User.normalizeEmail(email));
+        return entry == null ? Duration.ZERO : entry.lockRemaining(Instant.now());
+    }
+
+    public Duration lockoutDuration() {
+        return lockoutDuration;
+    }
+
+    public void recordFailure(String email) {
+        String key = User.normalizeEmail(email);
+        Instant now = Instant.now();
+        // Re-putting the entry restarts its expiry, so failures decay only after a quiet lockout period
+        Attempts entry = attempts.asMap().compute(key, (k, existing) -> existing == null ? new Attempts() : existing);
+        if (entry.fail(now, maxFailures, lockoutDuration)) {
+            log.warn("Account locked for {} after {} failed logins: {}", lockoutDuration, maxFailures, email);
+        }
+        dirty.add(key);
+    }
+
+    public void recordSuccess(String email) {
+        String key = User.normalizeEmail(email);
+        // Only accounts with failures on record need a reset; a clean login writes nothing
+        if (attempts.asMap().remove(key) != null) {
+            dirty.add(key);
+        }
+    }
+
+    /** Writes changed failure counts and locks to the database. */
+    @Scheduled(fixedDelayString = "${security.lockout.flush-interval:PT1S}")
+    public void flush() {
+        int flushed = 0;
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            String key = it.next();
+            it.remove();
+            Attempts entry = attempts.getIfPresent(key);
+            int failures = entry == null ? 0 : entry.failures();
+            Instant lockedUntil = entry == null ? null : entry.lockedUntil();
+            if (userRepository.updateLoginFailures(key, failures, lockedUntil) > 0) {
+                userDetailsCache.evict(key);
+                flushed++;
+            }
+        }
+        if (flushed > 0) {
+            log.debug("Flushed login failures of {} accounts", flushed);
+        }
+    }
+
+    static final class Attempts {
+
+        private int failures;
+        private Instant lockedUntil;
+
+        /** Records a failure and returns true if it locked the account. */
+        synchronized boolean fail(Instant now, int maxFailures, Duration lockoutDuration) {
+            if (lockedUntil != null && !lockedUntil.isAfter(now)) {
+                failures = 0;
+                lockedUntil = null;
+            }
+            failures++;
+            if (failures >= maxFailures && lockedUntil == null) {
+                lockedUntil = now.plus(lockoutDuration);
+                return true;
+            }
+            return false;
+        }
+
+        synchronized Duration lockRemaining(Instant now) {
+            return lockedUntil == null || !lockedUntil.isAfter(now) ? Duration.ZERO : Duration.between(now, lockedUntil);
+        }
+
+        synchronized int failures() {
+            return failures;
+        }
+
+        synchronized Instant lockedUntil() {
+            return lockedUntil;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.amalitech.propertymanagementapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.exception.LoginThrottledException;
+import org.amalitech.propertymanagementapi.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client-IP and per-email token buckets for login attempts, checked before any password hashing.
+ * Buckets live in bounded Caffeine caches and are evicted once idle, by which time they would have
+ * refilled completely anyway.
+ * <p>
+ * The size bound can also evict a bucket that is still partly drained, for instance while an attacker
+ * sprays distinct emails to push a victim's bucket out. So that this never grants extra attempts, a
+ * bucket created while its cache is full starts empty: under such a flood newcomers get one attempt per
+ * refill interval instead of a full burst.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoginRateLimiter {
+
+    private final AuthMetrics authMetrics;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.login-rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.login-rate-limit.per-ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${security.login-rate-limit.per-ip.period:1m}")
+    private Duration ipPeriod;
+
+    @Value("${security.login-rate-limit.per-email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${security.login-rate-limit.per-email.period:1m}")
+    private Duration emailPeriod;
+
+    @Value("${security.login-rate-limit.maximum-keys:100000}")
+    private long maximumKeys;
+
+    private Cache<String, RateLimitBucket> ipBuckets;
+    private Cache<String, RateLimitBucket> emailBuckets;
+
+    @PostConstruct
+    void init() {
+        ipBuckets = buckets(ipPeriod, "security.login-rate-limit.ip");
+        emailBuckets = buckets(emailPeriod, "security.login-rate-limit.email");
+        log.info("Login rate limit {}: {} per {} per IP, {} per {} per email", enabled ? "enabled" : "disabled",
+                ipCapacity, ipPeriod, emailCapacity, emailPeriod);
+    }
+
+    /**
+     * Takes one attempt from the client's and the email's bucket.
+     *
+     * @throws LoginThrottledException if either bucket is empty
+     */
+    public void acquire(String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long wait = bucket(ipBuckets, clientIp, ipCapacity, ipPeriod, now).tryAcquire(now);
+        if (wait > 0) {
+            authMetrics.recordLoginThrottled(AuthMetrics.ThrottleReason.IP);
+            throw new LoginThrottledException("Too many login attempts from this address", retryAfterSeconds(wait));
+        }
+        String emailKey = User.normalizeEmail(email);
+        wait = bucket(emailBuckets, emailKey, emailCapacity, emailPeriod, now).tryAcquire(now);
+        if (wait > 0) {
+            authMetrics.recordLoginThrottled(AuthMetrics.ThrottleReason.EMAIL);
+            throw new LoginThrottledException("Too many login attempts for this account", retryAfterSeconds(wait));
+        }
+    }
+
+    private RateLimitBucket bucket(Cache<String, RateLimitBucket> buckets, String key, int capacity, Duration period,
+                                   long now) {
+        return buckets.get(key, k -> new RateLimitBucket(capacity, period, now, buckets.estimatedSize() >= maximumKeys));
+    }
+
+    private Cache<String, RateLimitBucket> buckets(Duration period, String name) {
+        Cache<String, RateLimitBucket> cache = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(period)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
@@ -0,0 +1,180 @@
+package org.amalitech.propertymanagementapi.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.exception.PasswordHashingUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, CPU-sized pool that runs password hashing off the servlet threads. When the queue is
+ * full new work is rejected with {@link PasswordHashingUnavailableException} instead of piling up,
+ * so a login burst cannot occupy every request thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordHashingExecutor {
+
+    private static final String THREAD_PREFIX = "password-hash-";
+
+    // Set while a rejected task runs on the submitting thread, so nested encode calls also run inline
+    private static final ThreadLocal<Boolean> RUNNING_INLINE = ThreadLocal.withInitial(() -> false);
+
+    // Set by the pool's thread factory; thread names are not trusted, since any thread may take one
+    private static final ThreadLocal<Boolean> POOL_THREAD = ThreadLocal.withInitial(() -> false);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${security.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${security.password-hashing.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(() -> {
+                POOL_THREAD.set(true);
+                runnable.run();
+            }, THREAD_PREFIX + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hashing");
+        Gauge.builder("security.password.hash.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        log.info("Password hashing executor started with {} threads and queue capacity {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Runs the hashing task on the pool and waits for its result.
+     *
+     * @param operation low-cardinality name used as the timer tag, e.g. {@code encode} or {@code matches}
+     * @throws PasswordHashingUnavailableException if the queue is full
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        Timer timer = timer(operation);
+
+        if (isHashingThread()) {
+            // Already on a hashing thread; waiting on our own pool could deadlock
+            return timer.record(task);
+        }
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.record(task));
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("security.password.hash.rejected", "operation", operation).increment();
+            log.warn("Password hashing queue is full, rejecting {} request", operation);
+            throw new PasswordHashingUnavailableException(
+                    "Authentication service is busy, please retry shortly", retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Runs the hashing task on the pool without waiting, for callers that hash many passwords at once.
+     * When the queue is full the task runs on the calling thread instead of being rejected, which
+     * throttles the caller to the speed of the pool.
+     */
+    public <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+        Timer timer = timer(operation);
+
+        if (!isHashingThread()) {
+            try {
+                return CompletableFuture.supplyAsync(() -> timer.record(task), executor);
+            } catch (RejectedExecutionException e) {
+                meterRegistry.counter("security.password.hash.caller-runs", "operation", operation).increment();
+            }
+        }
+
+        boolean nested = RUNNING_INLINE.get();
+        RUNNING_INLINE.set(true);
+        try {
+            return CompletableFuture.completedFuture(timer.record(task));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            if (!nested) {
+                RUNNING_INLINE.remove();
+            }
+        }
+    }
+
+    public int getPoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    /**
+     * Queues low-priority work, such as re-hashing, without waiting for it.
+     *
+     * @return {@code false} if the queue is full and the task was dropped
+     */
+    public boolean submitInBackground(Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private Timer timer(String operation) {
+        return Timer.builder("security.password.hash")
+                .description("Time spent hashing or verifying passwords")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static boolean isHashingThread() {
+        return RUNNING_INLINE.get() || POOL_THREAD.get();
+    }
+}
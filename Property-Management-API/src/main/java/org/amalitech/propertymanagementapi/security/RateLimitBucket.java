@@ -0,0 +1,42 @@
+package org.amalitech.propertymanagementapi.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket implemented as GCRA: the whole state is one "theoretical arrival time", so taking a
+ * token is a single compare-and-set and buckets need no locks. Refills {@code capacity} tokens per
+ * {@code period}, and allows bursts of up to {@code capacity}.
+ */
+final class RateLimitBucket {
+
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final AtomicLong theoreticalArrival;
+
+    RateLimitBucket(int capacity, Duration period, long nowNanos) {
+        this(capacity, period, nowNanos, false);
+    }
+
+    /** A full bucket, or with {@code empty} one whose next token arrives after one refill interval. */
+    RateLimitBucket(int capacity, Duration period, long nowNanos, boolean empty) {
+        this.emissionInterval = period.toNanos() / capacity;
+        this.burstTolerance = emissionInterval * (capacity - 1);
+        this.theoreticalArrival = new AtomicLong(empty ? nowNanos + burstTolerance + emissionInterval : nowNanos);
+    }
+
+    /** Takes a token, returning 0, or returns the nanoseconds until one becomes available. */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long start = Math.max(current, nowNanos);
+            long wait = start - nowNanos - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, start + emissionInterval)) {
+                return 0;
+            }
+        }
+    }
+}
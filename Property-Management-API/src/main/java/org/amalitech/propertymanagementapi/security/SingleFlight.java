@@ -0,0 +1,44 @@
+package org.amalitech.propertymanagementapi.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache lookups that coalesce concurrent misses: the first caller for a key installs a future and runs
+ * the load on its own thread; concurrent callers for the same key wait on that future. The load
+ * deliberately runs outside Caffeine's compute(), so no monitor is held while blocking on JDBC, which
+ * would pin the carrier of a virtual thread.
+ */
+public final class SingleFlight {
+
+    private SingleFlight() {
+    }
+
+    /**
+     * Returns the cached value or loads it once. A load that throws is rethrown to every waiting caller
+     * and is not cached, since Caffeine removes failed futures.
+     */
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(loader.apply(key));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            }
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
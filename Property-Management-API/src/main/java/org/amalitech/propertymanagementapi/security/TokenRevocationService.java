@@ -0,0 +1,154 @@
+package org.amalitech.propertymanagementapi.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.exception.UserNotFoundException;
+import org.amalitech.propertymanagementapi.model.RevokedToken;
+import org.amalitech.propertymanagementapi.repository.RevokedTokenRepository;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides on every request whether a verified token has been revoked, without touching the database.
+ * Two mechanisms cover the two cases:
+ * <ul>
+ *   <li>Per-user epoch: role changes and "log out everywhere" bump the user's epoch, which revokes every
+ *   token carrying an older {@code ep} claim.</li>
+ *   <li>Denylist: a single logout revokes one {@code jti}. A Bloom filter answers most lookups; only its
+ *   positives are confirmed against the exact set.</li>
+ * </ul>
+ * Both are loaded from the database at startup and written through on every change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private final UserRepository userRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final CachedUserDetailsService userDetailsCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    @Value("${security.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // User id to current epoch; users whose tokens were never revoked are absent and at epoch 0
+    private final Map<Long, Long> epochs = new ConcurrentHashMap<>();
+
+    // Revoked jti to the token's expiry, the exact check behind the Bloom filter
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter denylist;
+
+    private Counter falsePositives;
+
+    @PostConstruct
+    void init() {
+        userRepository.findByTokenEpochGreaterThan(0).forEach(user -> epochs.put(user.getId(), user.getTokenEpoch()));
+        revokedTokenRepository.findByExpiresAtAfter(Instant.now())
+                .forEach(token -> revokedTokens.put(token.getJti(), token.getExpiresAt()));
+        rebuildDenylist();
+
+        Gauge.builder("security.revocation.denylist.size", revokedTokens, Map::size)
+                .description("Revoked token ids that have not expired yet")
+                .register(meterRegistry);
+        Gauge.builder("security.revocation.epochs", epochs, Map::size)
+                .description("Users with a bumped token epoch")
+                .register(meterRegistry);
+        falsePositives = Counter.builder("security.revocation.denylist.false-positives")
+                .description("Bloom filter hits that the exact set did not confirm")
+                .register(meterRegistry);
+        log.info("Token revocation loaded: {} user epochs, {} revoked tokens ({} byte Bloom filter)",
+                epochs.size(), revokedTokens.size(), denylist.sizeInBytes());
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        if (token.userId() != null && token.epoch() < epochs.getOrDefault(token.userId(), 0L)) {
+            return true;
+        }
+        if (token.tokenId() == null || !denylist.mightContain(token.tokenId())) {
+            return false;
+        }
+        if (revokedTokens.containsKey(token.tokenId())) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /** Revokes a single token until it expires. */
+    public synchronized void revoke(VerifiedToken token) {
+        if (token.tokenId() == null || token.expiration() == null) {
+            log.warn("Cannot revoke a token without jti or exp for user {}", token.subject());
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(token.tokenId())
+                .userId(token.userId())
+                .expiresAt(token.expiration())
+                .build());
+        revokedTokens.put(token.tokenId(), token.expiration());
+        denylist.add(token.tokenId());
+        log.debug("Revoked token {} of user {}", token.tokenId(), token.subject());
+    }
+
+    /**
+     * Revokes every token issued to the user so far by bumping the epoch. The cached user details are
+     * evicted so the next login embeds the new epoch; inside a transaction they are evicted again after
+     * commit, since a login in between would cache the uncommitted row's old state.
+     *
+     * @return the new epoch
+     */
+    public long revokeAllTokens(Long userId, String email) {
+        userRepository.incrementTokenEpoch(userId);
+        long epoch = userRepository.findTokenEpoch(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+        epochs.merge(userId, epoch, Math::max);
+        userDetailsCache.evict(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userDetailsCache.evict(email);
+                }
+            });
+        }
+        log.info("Revoked all tokens of user {} (epoch {})", email, epoch);
+        return epoch;
+    }
+
+    /**
+     * Drops expired entries. Bloom filters cannot remove entries, so the filter is rebuilt from the
+     * remaining set; it is also resized if revocations outgrew the configured capacity.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval:PT10M}",
+            initialDelayString = "${security.revocation.purge-interval:PT10M}")
+    public synchronized void purgeExpired() {
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        rebuildDenylist();
+        log.debug("Purged {} expired revoked tokens, {} remain", deleted, revokedTokens.size());
+    }
+
+    private synchronized void rebuildDenylist() {
+        BloomFilter filter = new BloomFilter(Math.max(expectedRevocations, 2L * revokedTokens.size()), falsePositiveRate);
+        revokedTokens.keySet().forEach(filter::add);
+        denylist = filter;
+    }
+}
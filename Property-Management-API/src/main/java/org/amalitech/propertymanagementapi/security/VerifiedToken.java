@@ -0,0 +1,15 @@
+package org.amalitech.propertymanagementapi.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature has already been verified. Produced once per token by
+ * {@link JwtTokenProvider#verify(String)} so callers never need to parse the token again.
+ */
+public record VerifiedToken(String subject, String role, Long userId, Instant issuedAt, Instant expiration,
+                            String keyId, String tokenId, long epoch) {
+
+    public boolean isExpired(Instant now) {
+        return expiration != null && expiration.isBefore(now);
+    }
+}
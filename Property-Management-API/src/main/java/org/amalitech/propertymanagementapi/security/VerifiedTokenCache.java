@@ -0,0 +1,120 @@
+package org.amalitech.propertymanagementapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Caches the result of {@link JwtTokenProvider#verify(String)} so a bearer token that is sent
+ * repeatedly is only signature-verified and decoded once. Entries are keyed by a SHA-256 digest of the
+ * raw token and expire no later than the token's own {@code exp}; tokens that fail verification
+ * are never cached.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final MeterRegistry meterRegistry;
+    private final AuthMetrics authMetrics;
+
+    @Value("${jwt.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    private Cache<String, VerifiedToken> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((String key, VerifiedToken token) -> timeToLive(token)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+        log.info("Verified token cache {} (maximum size {})", enabled ? "enabled" : "disabled", maximumSize);
+    }
+
+    /**
+     * Returns the verified claims for the token, verifying it only on a cache miss.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token does not verify
+     */
+    public VerifiedToken verify(String token) {
+        if (!enabled) {
+            return timedVerify(token);
+        }
+        String digest = digest(token);
+        VerifiedToken verified = cache.get(digest, key -> timedVerify(token));
+        // A cached result must not outlive its signing key once rotation has dropped it
+        if (!jwtTokenProvider.isTrustedKey(verified.keyId())) {
+            cache.invalidate(digest);
+            return timedVerify(token);
+        }
+        return verified;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private VerifiedToken timedVerify(String token) {
+        long start = System.nanoTime();
+        try {
+            VerifiedToken verified = jwtTokenProvider.verify(token);
+            authMetrics.recordVerify(AuthMetrics.VerifyOutcome.VALID, start);
+            return verified;
+        } catch (ExpiredJwtException e) {
+            authMetrics.recordVerify(AuthMetrics.VerifyOutcome.EXPIRED, start);
+            throw e;
+        } catch (JwtException | IllegalArgumentException e) {
+            authMetrics.recordVerify(AuthMetrics.VerifyOutcome.INVALID, start);
+            throw e;
+        }
+    }
+
+    private static Duration timeToLive(VerifiedToken token) {
+        if (token.expiration() == null) {
+            return Duration.ZERO;
+        }
+        Duration remaining = Duration.between(Instant.now(), token.expiration());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.amalitech.propertymanagementapi.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.dto.AgentDashboard;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.amalitech.propertymanagementapi.security.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Per-agent dashboard figures from a single aggregate query, cached briefly because agents poll the
+ * dashboard. Any write to an agent's listings must call {@link #evict(Long)}; the TTL only bounds
+ * staleness from writes that bypass the service layer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AgentDashboardService {
+
+    private final PropertyRepository propertyRepository;
+    private final MeterRegistry meterRegistry;
+    private final ResourceVersions resourceVersions;
+
+    @Value("${agent-dashboard.cache.ttl:30s}")
+    private Duration ttl;
+
+    @Value("${agent-dashboard.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    private AsyncCache<Long, AgentDashboard> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "agent.dashboard");
+    }
+
+    public AgentDashboard dashboard(Long agentId) {
+        // One query per agent however many refreshes race
+        return SingleFlight.get(cache, agentId, this::load);
+    }
+
+    /**
+     * Drops the agent's cached figures, again after commit when called inside a transaction, and moves the
+     * dashboard's ETag on.
+     */
+    public void evict(Long agentId) {
+        cache.synchronous().invalidate(agentId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.synchronous().invalidate(agentId);
+                }
+            });
+        }
+        // After the invalidation above, so a poll that sees the new version also loads fresh figures
+        resourceVersions.bump(ResourceVersions.AGENT_DASHBOARD, agentId);
+    }
+
+    private AgentDashboard load(Long agentId) {
+        PropertyRepository.AgentTotals totals = propertyRepository.findAgentTotals(agentId);
+        log.debug("Computed dashboard for agent {}: {} listings", agentId, totals.getTotal());
+        return AgentDashboard.builder()
+                .myProperties(totals.getTotal())
+                .pendingApprovals(orZero(totals.getPendingApproval()))
+                .available(orZero(totals.getAvailable()))
+                .underOffer(orZero(totals.getUnderOffer()))
+                .sold(orZero(totals.getSold()))
+                .availableValue(totals.getAvailableValue() == null ? BigDecimal.ZERO : totals.getAvailableValue())
+                .computedAt(Instant.now())
+                .build();
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
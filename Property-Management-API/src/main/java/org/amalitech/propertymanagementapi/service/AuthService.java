@@ -4,15 +4,24 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.amalitech.propertymanagementapi.dto.AuthResponse;
 import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.exception.LoginThrottledException;
 import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.security.AuthMetrics;
 import org.amalitech.propertymanagementapi.security.JwtTokenProvider;
+import org.amalitech.propertymanagementapi.security.LoginAttemptService;
+import org.amalitech.propertymanagementapi.security.LoginRateLimiter;
+import org.amalitech.propertymanagementapi.security.TokenRevocationService;
+import org.amalitech.propertymanagementapi.security.VerifiedToken;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -20,8 +29,24 @@ public class AuthService {
     
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final PasswordUpgradeService passwordUpgradeService;
+    private final AuthMetrics authMetrics;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final LoginAttemptService loginAttemptService;
     
-    public AuthResponse login(LoginRequest request) {
+    /**
+     * Authenticates the credentials and issues a token. Rate limits and account locks are checked
+     * first, so throttled attempts are rejected without hashing the password.
+     */
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        loginRateLimiter.acquire(clientIp, request.getEmail());
+        Duration locked = loginAttemptService.lockRemaining(request.getEmail());
+        if (!locked.isZero()) {
+            throw accountLocked(locked);
+        }
+        
+        long start = System.nanoTime();
         try {
             log.info("Attempting login for user: {}", request.getEmail());
             
@@ -33,8 +58,11 @@ public class AuthService {
             );
             
             User user = (User) authentication.getPrincipal();
+            loginAttemptService.recordSuccess(request.getEmail());
+            passwordUpgradeService.upgradeIfNeeded(user, request.getPassword());
             String token = jwtTokenProvider.generateToken(user, user.getRole().name());
             
+            authMetrics.recordLogin(true, start);
             log.info("User logged in successfully: {}", request.getEmail());
             
             return AuthResponse.builder()
@@ -43,9 +71,36 @@ public class AuthService {
                     .role(user.getRole().name())
                     .build();
                     
+        } catch (LockedException e) {
+            // Locked in the database, e.g. by another instance or before a restart
+            throw accountLocked(loginAttemptService.lockoutDuration());
         } catch (AuthenticationException e) {
+            loginAttemptService.recordFailure(request.getEmail());
+            authMetrics.recordLogin(false, start);
             log.warn("Authentication failed for user: {}", request.getEmail());
             throw new BadCredentialsException("Invalid email or password");
         }
     }
+    
+    private LoginThrottledException accountLocked(Duration remaining) {
+        authMetrics.recordLoginThrottled(AuthMetrics.ThrottleReason.LOCKED);
+        return new LoginThrottledException("Account temporarily locked after repeated failed logins",
+                Math.max(1, remaining.plusMillis(999).toSeconds()));
+    }
+    
+    /**
+     * Revokes the token the request was authenticated with, or with {@code allDevices} every token
+     * issued to the user so far.
+     */
+    public void logout(Authentication authentication, boolean allDevices) {
+        if (!(authentication.getCredentials() instanceof VerifiedToken token)) {
+            throw new BadCredentialsException("Logout requires a bearer token");
+        }
+        if (allDevices && token.userId() != null) {
+            tokenRevocationService.revokeAllTokens(token.userId(), token.subject());
+        } else {
+            tokenRevocationService.revoke(token);
+        }
+        log.info("User logged out: {}{}", token.subject(), allDevices ? " (all devices)" : "");
+    }
 }
@@ -0,0 +1,45 @@
+package org.amalitech.propertymanagementapi.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.security.CachedUserDetailsService;
+import org.amalitech.propertymanagementapi.security.PasswordHashingExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Re-hashes passwords stored with an outdated algorithm or cost after a successful login.
+ * The work runs on the password hashing pool so the login response does not wait for it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordUpgradeService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final UserRepository userRepository;
+    private final CachedUserDetailsService userDetailsCache;
+
+    public void upgradeIfNeeded(User user, String rawPassword) {
+        String currentHash = user.getPassword();
+        if (!passwordEncoder.upgradeEncoding(currentHash)) {
+            return;
+        }
+
+        boolean queued = hashingExecutor.submitInBackground(() -> {
+            String newHash = passwordEncoder.encode(rawPassword);
+            // Only replace the hash we verified, so a concurrent password change is never overwritten
+            if (userRepository.updatePasswordIfUnchanged(user.getId(), currentHash, newHash) == 1) {
+                userDetailsCache.evict(user.getEmail());
+                log.info("Upgraded password hash for user id: {}", user.getId());
+            }
+        });
+
+        if (!queued) {
+            log.debug("Hashing queue full, password upgrade for user id {} deferred to next login", user.getId());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.amalitech.propertymanagementapi.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.amalitech.propertymanagementapi.exception.PhotoNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Serves stored photos and their variants straight from disk. Files never change under their name, so
+ * the name is a strong ETag and responses may be cached for a year. On Tomcat the kernel copies the
+ * file to the socket ({@code sendfile}); elsewhere {@link FileChannel#transferTo} avoids copying through
+ * a heap buffer.
+ */
+@Service
+@RequiredArgsConstructor
+public class PhotoDownloadService {
+
+    static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+
+    // Tomcat's request attributes for handing a file to the connector after the servlet returns
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final PhotoStore photoStore;
+    private final PhotoThumbnailPipeline thumbnails;
+
+    @Value("${photos.sendfile:true}")
+    private boolean sendfile;
+
+    /**
+     * Writes the photo, or its variant of the given width, or the single byte range asked for, honouring
+     * If-None-Match and If-Range. A variant that has not been generated yet is not found.
+     */
+    public void serve(String hash, Integer width, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (width != null && !thumbnails.isVariantWidth(width)) {
+            throw new PhotoNotFoundException("Photo not found: " + hash + "-" + width);
+        }
+        Path file = width == null ? photoStore.path(hash) : photoStore.variantPath(hash, width);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            String contentType = photoStore.contentType(channel);
+            if (contentType == null) {
+                throw new PhotoNotFoundException("Photo not found: " + hash);
+            }
+            String etag = "\"" + file.getFileName() + "\"";
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+
+            long size = channel.size();
+            ByteRange range = null;
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (ifRange == null || ifRange.trim().equals(etag)) {
+                range = ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size);
+            }
+            if (range == ByteRange.UNSATISFIABLE) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            long start = range != null ? range.start() : 0;
+            long length = range != null ? range.length() : size;
+            if (range != null) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + (start + length - 1) + "/" + size);
+            }
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            if ("HEAD".equals(request.getMethod()) || length == 0) {
+                return;
+            }
+
+            if (sendfile && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, start + length);
+                return;
+            }
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long position = start, end = start + length; position < end; ) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        } catch (NoSuchFileException e) {
+            throw new PhotoNotFoundException("Photo not found: " + file.getFileName());
+        }
+    }
+
+    // If-None-Match uses weak comparison, so a W/ prefix on the client's copy still matches
+    private static boolean matchesAny(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One {@code bytes=} range resolved against the file size. Parsing returns null when the header is
+     * absent, malformed or asks for several ranges; the whole file is then sent with 200.
+     */
+    record ByteRange(long start, long length) {
+
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, 0);
+
+        static ByteRange parse(String header, long size) {
+            if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+                return null;
+            }
+            String spec = header.substring("bytes=".length()).trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            try {
+                if (dash == 0) {
+                    long suffix = Long.parseLong(spec.substring(1));
+                    if (suffix <= 0 || size == 0) {
+                        return UNSATISFIABLE;
+                    }
+                    long length = Math.min(suffix, size);
+                    return new ByteRange(size - length, length);
+                }
+                long first = Long.parseLong(spec.substring(0, dash));
+                // An open end is bounded by the size below; using size - 1 here would make "bytes=<size>-"
+                // look malformed rather than unsatisfiable
+                long last = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+                if (first < 0 || last < first) {
+                    return null;
+                }
+                if (first >= size) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(first, Math.min(last, size - 1) - first + 1);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.amalitech.propertymanagementapi.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.dto.PhotoResponse;
+import org.amalitech.propertymanagementapi.exception.PhotoNotFoundException;
+import org.amalitech.propertymanagementapi.exception.PhotoTooLargeException;
+import org.amalitech.propertymanagementapi.exception.PropertyNotFoundException;
+import org.amalitech.propertymanagementapi.model.Property;
+import org.amalitech.propertymanagementapi.model.PropertyPhoto;
+import org.amalitech.propertymanagementapi.repository.PropertyPhotoRepository;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Listing photos. Rows link listings to files in the {@link PhotoStore}; a file is only removed by the
+ * orphan sweep, once no row has referred to it for the grace period.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PhotoService {
+
+    private final PhotoStore photoStore;
+    private final PropertyPhotoRepository photoRepository;
+    private final PropertyRepository propertyRepository;
+    private final PhotoThumbnailPipeline thumbnails;
+
+    @Value("${photos.orphan-grace:PT1H}")
+    private Duration orphanGrace;
+
+    /**
+     * Streams an upload into the store and attaches it to the listing. No transaction is open while the
+     * bytes arrive, so a slow client never holds a database connection.
+     */
+    public PhotoResponse upload(Long propertyId, InputStream body, long declaredLength, Authentication authentication)
+            throws IOException {
+        Property property = findProperty(propertyId);
+        PropertyService.checkOwner(property, authentication);
+        if (declaredLength > photoStore.getMaxSize()) {
+            throw new PhotoTooLargeException("Photos are limited to " + photoStore.getMaxSize() / (1024 * 1024) + " MB");
+        }
+
+        PhotoStore.Stored stored = photoStore.store(body);
+        PropertyPhoto photo = photoRepository.findByPropertyIdAndContentHash(propertyId, stored.hash())
+                .orElseGet(() -> save(property, stored));
+        // Resizing takes far longer than the upload's own work, so the response lists the variants as pending
+        thumbnails.submit(stored.hash(), stored.contentType());
+        log.info("Photo {} ({} bytes{}) attached to property {} by {}", stored.hash(), stored.size(),
+                stored.duplicate() ? ", already stored" : "", propertyId, authentication.getName());
+        return response(photo);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PhotoResponse> list(Long propertyId) {
+        if (!propertyRepository.existsById(propertyId)) {
+            throw new PropertyNotFoundException("Property not found with id: " + propertyId);
+        }
+        return photos(propertyId);
+    }
+
+    /** The listing's photos with the state of their variants, without checking that the listing exists. */
+    @Transactional(readOnly = true)
+    public List<PhotoResponse> photos(Long propertyId) {
+        return photoRepository.findByPropertyIdOrderById(propertyId).stream().map(this::response).toList();
+    }
+
+    @Transactional
+    public void delete(Long propertyId, Long photoId, Authentication authentication) {
+        PropertyService.checkOwner(findProperty(propertyId), authentication);
+        PropertyPhoto photo = photoRepository.findByIdAndPropertyId(photoId, propertyId)
+                .orElseThrow(() -> new PhotoNotFoundException("Photo not found with id: " + photoId));
+        photoRepository.delete(photo);
+        log.info("Photo {} removed from property {} by {}", photoId, propertyId, authentication.getName());
+    }
+
+    /**
+     * Deletes files no listing refers to. The grace period covers an upload that found its file already
+     * stored but has not saved its row yet: storing refreshes the file's modification time.
+     */
+    @Scheduled(fixedDelayString = "${photos.sweep-interval:PT6H}", initialDelayString = "${photos.sweep-interval:PT6H}")
+    public int sweepOrphans() {
+        Instant cutoff = Instant.now().minus(orphanGrace);
+        int removed = 0;
+        try {
+            for (String hash : photoStore.hashesModifiedBefore(cutoff)) {
+                if (!photoRepository.existsByContentHash(hash) && photoStore.isModifiedBefore(hash, cutoff)
+                        && photoStore.delete(hash)) {
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Photo sweep stopped early: {}", e.getMessage());
+        }
+        if (removed > 0) {
+            log.info("Removed {} unreferenced photo files", removed);
+        }
+        return removed;
+    }
+
+    private PropertyPhoto save(Property property, PhotoStore.Stored stored) {
+        try {
+            return photoRepository.save(PropertyPhoto.builder()
+                    .property(property)
+                    .contentHash(stored.hash())
+                    .contentType(stored.contentType())
+                    .size(stored.size())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // The same image attached concurrently, or the listing deleted meanwhile
+            return photoRepository.findByPropertyIdAndContentHash(property.getId(), stored.hash())
+                    .orElseThrow(() -> new PropertyNotFoundException("Property not found with id: " + property.getId()));
+        }
+    }
+
+    private PhotoResponse response(PropertyPhoto photo) {
+        return PhotoResponse.of(photo, thumbnails.variants(photo.getContentHash(), photo.getContentType()));
+    }
+
+    private Property findProperty(Long id) {
+        return propertyRepository.findWithAgentById(id)
+                .orElseThrow(() -> new PropertyNotFoundException("Property not found with id: " + id));
+    }
+}
@@ -0,0 +1,251 @@
+package org.amalitech.propertymanagementapi.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.exception.InvalidPhotoException;
+import org.amalitech.propertymanagementapi.exception.PhotoNotFoundException;
+import org.amalitech.propertymanagementapi.exception.PhotoTooLargeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed photo files: each image is stored once under {@code <dir>/ab/cd/<sha256>}, however
+ * many listings use it. Uploads are streamed to a temporary file through a fixed buffer while being
+ * hashed and sniffed, so no image is ever held on the heap.
+ */
+@Component
+@Slf4j
+public class PhotoStore {
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SNIFF_LENGTH = 12;
+
+    @Value("${photos.storage.directory:./data/photos}")
+    private Path directory;
+
+    @Value("${photos.max-size:20MB}")
+    private DataSize maxSize;
+
+    private Path incoming;
+
+    /** A stored upload; {@code duplicate} is set when the same bytes were already in the store. */
+    public record Stored(String hash, String contentType, long size, boolean duplicate) {
+    }
+
+    /** Writes a derived image, such as a thumbnail, to the stream it is given. */
+    @FunctionalInterface
+    public interface VariantWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        incoming = Files.createDirectories(directory.resolve("incoming"));
+        log.info("Photo store at {}, uploads limited to {}", directory.toAbsolutePath(), maxSize);
+    }
+
+    public long getMaxSize() {
+        return maxSize.toBytes();
+    }
+
+    /**
+     * Copies the stream into the store. Fails with {@link PhotoTooLargeException} as soon as the limit is
+     * passed and with {@link InvalidPhotoException} unless the bytes start like a JPEG, PNG, GIF or WebP.
+     */
+    public Stored store(InputStream body) throws IOException {
+        Path temp = Files.createTempFile(incoming, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            byte[] header = new byte[SNIFF_LENGTH];
+            int headerLength = 0;
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                for (int read; (read = body.read(buffer)) != -1; ) {
+                    size += read;
+                    if (size > maxSize.toBytes()) {
+                        throw new PhotoTooLargeException("Photos are limited to " + maxSize.toMegabytes() + " MB");
+                    }
+                    if (headerLength < SNIFF_LENGTH) {
+                        int copied = Math.min(read, SNIFF_LENGTH - headerLength);
+                        System.arraycopy(buffer, 0, header, headerLength, copied);
+                        headerLength += copied;
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            String contentType = contentType(header, headerLength);
+            if (contentType == null) {
+                throw new InvalidPhotoException("Photos must be JPEG, PNG, GIF or WebP images");
+            }
+
+            String hash = HEX.formatHex(digest.digest());
+            Path target = path(hash);
+            boolean duplicate = touch(target);
+            if (!duplicate) {
+                Files.createDirectories(target.getParent());
+                // Same name means same bytes, so a concurrent upload of the same image may win the rename
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new Stored(hash, contentType, size, duplicate);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Location of a photo; anything but a lower-case hex SHA-256 is rejected so paths cannot escape the store. */
+    public Path path(String hash) {
+        if (!isHash(hash)) {
+            throw new PhotoNotFoundException("Photo not found: " + hash);
+        }
+        return directory.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    /** Location of a resized copy, kept beside the original as {@code <sha256>-<width>}. */
+    public Path variantPath(String hash, int width) {
+        if (width <= 0) {
+            throw new PhotoNotFoundException("Photo not found: " + hash + "-" + width);
+        }
+        return path(hash).resolveSibling(hash + "-" + width);
+    }
+
+    /**
+     * Stores a resized copy of a photo. It is written to a temporary file and renamed into place, so a
+     * variant is either absent or complete.
+     */
+    public void storeVariant(String hash, int width, VariantWriter writer) throws IOException {
+        Path target = variantPath(hash, width);
+        Path temp = Files.createTempFile(incoming, "variant-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Content type of a stored photo, or null if it is missing or not a supported image. */
+    public String contentType(String hash) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(hash), StandardOpenOption.READ)) {
+            return contentType(channel);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /** Content type read from the file's leading bytes, or null if it is not a supported image. */
+    public String contentType(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SNIFF_LENGTH);
+        int read;
+        do {
+            read = channel.read(header, header.position());
+        } while (read > 0 && header.hasRemaining());
+        return contentType(header.array(), header.position());
+    }
+
+    /** Removes a photo's file and its variants; callers first make sure no listing refers to it. */
+    public boolean delete(String hash) throws IOException {
+        Path file = path(hash);
+        if (Files.isDirectory(file.getParent())) {
+            try (DirectoryStream<Path> variants = Files.newDirectoryStream(file.getParent(), hash + "-*")) {
+                for (Path variant : variants) {
+                    Files.deleteIfExists(variant);
+                }
+            }
+        }
+        return Files.deleteIfExists(file);
+    }
+
+    /** Hashes of the stored photos last written or re-uploaded before the cutoff. */
+    public List<String> hashesModifiedBefore(Instant cutoff) throws IOException {
+        try (Stream<Path> files = Files.find(directory, 3, (file, attributes) -> attributes.isRegularFile()
+                && isHash(file.getFileName().toString())
+                && attributes.lastModifiedTime().toInstant().isBefore(cutoff))) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        }
+    }
+
+    /** Whether the file is still unused since the cutoff; re-checked just before an orphan is deleted. */
+    public boolean isModifiedBefore(String hash, Instant cutoff) throws IOException {
+        try {
+            return Files.getLastModifiedTime(path(hash)).toInstant().isBefore(cutoff);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    // Marks an existing file as in use so the orphan sweep keeps it while the new reference is saved
+    private static boolean touch(Path file) throws IOException {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    static String contentType(byte[] header, int length) {
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G'
+                && header[4] == '\r' && header[5] == '\n' && header[6] == 0x1A && header[7] == '\n') {
+            return "image/png";
+        }
+        if (length >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8'
+                && (header[4] == '7' || header[4] == '9') && header[5] == 'a') {
+            return "image/gif";
+        }
+        if (length >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    private static boolean isHash(String hash) {
+        if (hash == null || hash.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
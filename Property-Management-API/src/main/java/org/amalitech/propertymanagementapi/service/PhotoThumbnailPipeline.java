@@ -0,0 +1,340 @@
+package org.amalitech.propertymanagementapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.dto.PhotoVariant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates resized copies of uploaded photos on a bounded, CPU-sized pool, using only the JDK's
+ * ImageIO and Java2D. Uploads queue a job and return at once; a job for an image already queued or
+ * running is merged into it. When the queue is full the job is dropped and the backfill, which also
+ * covers restarts and new widths, picks the image up later.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PhotoThumbnailPipeline {
+
+    private static final String THREAD_PREFIX = "photo-thumbnail-";
+
+    private final PhotoStore photoStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${photos.thumbnails.widths:160,480,1024}")
+    private int[] widths;
+
+    @Value("${photos.thumbnails.threads:0}")
+    private int threads;
+
+    @Value("${photos.thumbnails.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${photos.thumbnails.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${photos.thumbnails.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    @Value("${photos.thumbnails.failures.retry-after:P1D}")
+    private Duration failureRetryAfter;
+
+    @Value("${photos.thumbnails.failures.maximum-size:10000}")
+    private long failureMaximumSize;
+
+    private ThreadPoolExecutor executor;
+    // Hashes with a job queued or running
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // Hashes whose job failed, e.g. an image the decoder rejected. Bounded, so a stream of broken uploads
+    // cannot grow it without limit; a forgotten hash is simply retried by the next backfill
+    private Cache<String, Boolean> failed;
+    private Timer succeeded;
+    private Timer failedJobs;
+    private Counter rejected;
+    private Counter deduplicated;
+
+    @PostConstruct
+    void init() {
+        widths = Arrays.stream(widths).filter(width -> width > 0).distinct().sorted().toArray();
+        failed = Caffeine.newBuilder()
+                .maximumSize(failureMaximumSize)
+                .expireAfterWrite(failureRetryAfter)
+                .build();
+        // Encode straight to the output stream rather than through ImageIO's temporary cache files
+        ImageIO.setUseCache(false);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, THREAD_PREFIX + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "photo-thumbnails");
+        Gauge.builder("photos.thumbnail.queue.depth", executor, e -> e.getQueue().size())
+                .description("Thumbnail jobs waiting for a thread")
+                .register(meterRegistry);
+        succeeded = jobTimer("success");
+        failedJobs = jobTimer("failure");
+        rejected = Counter.builder("photos.thumbnail.rejected")
+                .description("Thumbnail jobs dropped because the queue was full")
+                .register(meterRegistry);
+        deduplicated = Counter.builder("photos.thumbnail.deduplicated")
+                .description("Thumbnail requests merged into a job already queued or running")
+                .register(meterRegistry);
+        log.info("Thumbnail pipeline started with {} threads, queue capacity {}, widths {}",
+                poolSize, queueCapacity, Arrays.toString(widths));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues variant generation for a stored photo.
+     *
+     * @return {@code false} if the queue was full and the job was dropped
+     */
+    public boolean submit(String hash, String contentType) {
+        if (!isResizable(contentType) || hasFailed(hash) || allVariantsExist(hash)) {
+            return true;
+        }
+        if (!inFlight.add(hash)) {
+            deduplicated.increment();
+            return true;
+        }
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> run(hash, queuedAt));
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(hash);
+            rejected.increment();
+            log.warn("Thumbnail queue is full, deferring {} to the backfill", hash);
+            return false;
+        }
+    }
+
+    /**
+     * The configured variants of a photo and whether each can be fetched yet, judged by the files on disk:
+     * a job that failed part way still reports the widths it stored as ready.
+     */
+    public List<PhotoVariant> variants(String hash, String contentType) {
+        boolean resizable = isResizable(contentType) && !hasFailed(hash);
+        List<PhotoVariant> variants = new ArrayList<>(widths.length);
+        for (int width : widths) {
+            boolean ready = Files.exists(photoStore.variantPath(hash, width));
+            variants.add(PhotoVariant.builder()
+                    .width(width)
+                    .status(ready ? PhotoVariant.Status.READY
+                            : resizable ? PhotoVariant.Status.PENDING : PhotoVariant.Status.UNAVAILABLE)
+                    .url(ready ? "/api/photos/" + hash + "?width=" + width : null)
+                    .build());
+        }
+        return variants;
+    }
+
+    public boolean isVariantWidth(int width) {
+        return Arrays.binarySearch(widths, width) >= 0;
+    }
+
+    /**
+     * Queues photos whose variants are missing, stopping while the queue is full rather than counting
+     * rejections; the next run continues where this one left off.
+     */
+    @Scheduled(fixedDelayString = "${photos.thumbnails.backfill-interval:PT10M}",
+            initialDelayString = "${photos.thumbnails.backfill-initial-delay:PT1M}")
+    public int backfill() {
+        int queued = 0;
+        try {
+            for (String hash : photoStore.hashesModifiedBefore(Instant.now())) {
+                if (executor.getQueue().remainingCapacity() == 0) {
+                    break;
+                }
+                if (inFlight.contains(hash) || hasFailed(hash) || allVariantsExist(hash)) {
+                    continue;
+                }
+                String contentType = photoStore.contentType(hash);
+                if (isResizable(contentType) && submit(hash, contentType)) {
+                    queued++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Thumbnail backfill stopped early: {}", e.getMessage());
+        }
+        if (queued > 0) {
+            log.info("Queued {} photos with missing thumbnails", queued);
+        }
+        return queued;
+    }
+
+    private void run(String hash, long queuedAt) {
+        try {
+            generate(hash);
+            succeeded.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        } catch (IOException | RuntimeException e) {
+            failed.put(hash, Boolean.TRUE);
+            failedJobs.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            log.warn("Could not generate thumbnails for {}: {}", hash, e.getMessage());
+        } finally {
+            inFlight.remove(hash);
+        }
+    }
+
+    private void generate(String hash) throws IOException {
+        BufferedImage source = read(hash);
+        boolean alpha = source.getColorModel().hasAlpha();
+        // Largest first, each variant scaled down from the previous one, so the full image is halved only once
+        BufferedImage current = source;
+        for (int i = widths.length - 1; i >= 0; i--) {
+            int width = widths[i];
+            current = resize(current, width, alpha);
+            BufferedImage variant = current;
+            photoStore.storeVariant(hash, width, out -> write(variant, alpha, out));
+        }
+    }
+
+    // Refuses images over max-pixels before decoding, and subsamples while decoding when the image is far
+    // larger than the widest variant, so a huge upload never decodes into a huge heap allocation
+    private BufferedImage read(String hash) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(photoStore.path(hash).toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("no decoder for image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("image is " + width + "x" + height + ", over the " + maxPixels + " pixel limit");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / (widths[widths.length - 1] * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales the image to the width, keeping its aspect ratio and never scaling up. Halving repeatedly
+     * with bilinear filtering approaches area averaging at a fraction of its cost.
+     */
+    static BufferedImage resize(BufferedImage source, int targetWidth, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int finalWidth = Math.min(targetWidth, width);
+        int finalHeight = Math.max(1, (int) Math.round((double) height * finalWidth / width));
+
+        BufferedImage current = source;
+        do {
+            int nextWidth = Math.max(finalWidth, width / 2);
+            int nextHeight = nextWidth == finalWidth ? finalHeight : Math.max(finalHeight, height / 2);
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+            width = nextWidth;
+            height = nextHeight;
+        } while (width > finalWidth);
+        return current;
+    }
+
+    // PNG keeps transparency; everything else becomes a JPEG, which is far smaller for photos
+    private void write(BufferedImage image, boolean alpha, OutputStream out) throws IOException {
+        if (alpha) {
+            ImageIO.write(image, "png", out);
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private boolean hasFailed(String hash) {
+        return failed.getIfPresent(hash) != null;
+    }
+
+    private boolean allVariantsExist(String hash) {
+        for (int width : widths) {
+            if (!Files.exists(photoStore.variantPath(hash, width))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The JDK decodes JPEG, PNG and GIF but not WebP
+    private static boolean isResizable(String contentType) {
+        return contentType != null && ImageIO.getImageReadersByMIMEType(contentType).hasNext();
+    }
+
+    private Timer jobTimer(String outcome) {
+        return Timer.builder("photos.thumbnail.job")
+                .description("Time from queueing a thumbnail job to its variants being stored")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
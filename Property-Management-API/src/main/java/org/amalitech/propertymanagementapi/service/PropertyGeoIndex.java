@@ -0,0 +1,346 @@
+package org.amalitech.propertymanagementapi.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory spatial index of listing coordinates, so radius and bounding-box searches never scan the
+ * properties table. Points are bucketed into fixed latitude/longitude grid cells; a query visits only the
+ * cells overlapping its bounding box and checks exact distances there.
+ * <p>
+ * Each cell is an immutable set of parallel arrays that writers replace, so queries take no locks. The
+ * index is loaded from the database at startup and every write is applied after its transaction commits.
+ * Writers find a listing's current cell through the index's own id-to-cell map rather than the caller's
+ * view of the old coordinates, which may be stale when two updates of one listing commit concurrently.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyGeoIndex {
+
+    static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE = Math.toRadians(EARTH_RADIUS_METERS);
+
+    private final PropertyRepository propertyRepository;
+    private final MeterRegistry meterRegistry;
+
+    // About 5.5 km of latitude: a 5 km radius search visits 3 to 4 cells in each direction
+    @Value("${properties.geo.cell-size-degrees:0.05}")
+    private double cellSizeDegrees;
+
+    @Value("${properties.geo.load-batch-size:10000}")
+    private int loadBatchSize;
+
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+    // Listing id to the key of the one cell holding it; updated under its own entry lock
+    private final Map<Long, Long> locations = new ConcurrentHashMap<>();
+
+    private int latCells;
+    private int lonCells;
+
+    /** A listing found by a query, with its distance from the query point or box center. */
+    public record Hit(long id, double latitude, double longitude, double distanceMeters) {
+    }
+
+    /** The nearest hits, up to the requested limit, and how many listings matched in total. */
+    public record Result(List<Hit> hits, int matches) {
+    }
+
+    @PostConstruct
+    void init() {
+        // Snap to a divisor of 180 degrees so the columns wrap cleanly at the antimeridian
+        latCells = (int) Math.ceil(180 / cellSizeDegrees);
+        cellSizeDegrees = 180.0 / latCells;
+        lonCells = 2 * latCells;
+        load();
+        Gauge.builder("properties.geo.indexed", locations, Map::size)
+                .description("Listings with coordinates held in the spatial index")
+                .register(meterRegistry);
+    }
+
+    /** Adds or moves a listing, after commit when called inside a transaction. Null coordinates remove it. */
+    public void put(long id, Double latitude, Double longitude, PropertyStatus status) {
+        TransactionHooks.afterCommit(() -> {
+            if (latitude != null && longitude != null) {
+                putNow(id, latitude, longitude, status);
+            } else {
+                removeNow(id);
+            }
+        });
+    }
+
+    /** Removes a listing, after commit when called inside a transaction. */
+    public void remove(long id) {
+        TransactionHooks.afterCommit(() -> removeNow(id));
+    }
+
+    public int size() {
+        return locations.size();
+    }
+
+    /** Listings of the given status within {@code radiusMeters} of the point, nearest first. */
+    public Result nearby(double latitude, double longitude, double radiusMeters, PropertyStatus status, int limit) {
+        double dLat = radiusMeters / METERS_PER_DEGREE;
+        double minLat = Math.max(-90, latitude - dLat);
+        double maxLat = Math.min(90, latitude + dLat);
+        // A degree of longitude shrinks with cos(latitude); widen for the box edge nearest a pole
+        double cosEdge = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+        double dLon = cosEdge > 1e-9 ? dLat / cosEdge : 360;
+        // Compare the haversine term instead of the distance to skip asin() for points that do not match
+        double maxHav = hav(Math.min(Math.PI, radiusMeters / EARTH_RADIUS_METERS));
+        return query(minLat, maxLat, longitude - dLon, longitude + dLon, latitude, longitude, status, limit, maxHav,
+                false);
+    }
+
+    /**
+     * Listings of the given status inside the box, nearest to its center first. A box whose west edge is
+     * east of its east edge crosses the antimeridian.
+     */
+    public Result within(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                         PropertyStatus status, int limit) {
+        double east = maxLongitude >= minLongitude ? maxLongitude : maxLongitude + 360;
+        double centerLon = normalizeLongitude((minLongitude + east) / 2);
+        return query(minLatitude, maxLatitude, minLongitude, east, (minLatitude + maxLatitude) / 2, centerLon,
+                status, limit, Double.NaN, true);
+    }
+
+    private Result query(double minLat, double maxLat, double west, double east, double originLat, double originLon,
+                         PropertyStatus status, int limit, double maxHav, boolean boxOnly) {
+        byte wanted = (byte) status.ordinal();
+        double cosOrigin = Math.cos(Math.toRadians(originLat));
+        boolean allLongitudes = east - west >= 360;
+        PriorityQueue<Candidate> nearest = new PriorityQueue<>(limit + 1, Candidate.FARTHEST_FIRST);
+        int matches = 0;
+
+        int firstRow = latIndex(minLat);
+        int lastRow = latIndex(maxLat);
+        int firstColumn = allLongitudes ? 0 : (int) Math.floor((west + 180) / cellSizeDegrees);
+        int lastColumn = allLongitudes ? lonCells - 1 : (int) Math.floor((east + 180) / cellSizeDegrees);
+        if (lastColumn - firstColumn >= lonCells) {
+            lastColumn = firstColumn + lonCells - 1;
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                Cell cell = cells.get((long) row * lonCells + Math.floorMod(column, lonCells));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.ids.length; i++) {
+                    double lat = cell.lats[i];
+                    if (cell.statuses[i] != wanted || lat < minLat || lat > maxLat
+                            || !allLongitudes && !withinLongitudes(cell.lons[i], west, east)) {
+                        continue;
+                    }
+                    double h = hav(Math.toRadians(lat - originLat))
+                            + cosOrigin * Math.cos(Math.toRadians(lat)) * hav(Math.toRadians(cell.lons[i] - originLon));
+                    if (!boxOnly && h > maxHav) {
+                        continue;
+                    }
+                    matches++;
+                    if (nearest.size() < limit) {
+                        nearest.add(new Candidate(cell.ids[i], lat, cell.lons[i], h));
+                    } else if (limit > 0 && nearest.peek().isFartherThan(h, cell.ids[i])) {
+                        nearest.poll();
+                        nearest.add(new Candidate(cell.ids[i], lat, cell.lons[i], h));
+                    }
+                }
+            }
+        }
+
+        Hit[] hits = new Hit[nearest.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            Candidate candidate = nearest.poll();
+            double distance = 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(Math.min(1, candidate.hav)));
+            hits[i] = new Hit(candidate.id, candidate.latitude, candidate.longitude, distance);
+        }
+        return new Result(List.of(hits), matches);
+    }
+
+    // Writes of one listing serialize on its locations entry, so it is never left in two cells
+    private void putNow(long id, double latitude, double longitude, PropertyStatus status) {
+        long target = cellKey(latitude, longitude);
+        locations.compute(id, (key, current) -> {
+            if (current != null && current != target) {
+                removeFromCell(current, id);
+            }
+            cells.compute(target, (cellKey, cell) ->
+                    (cell == null ? Cell.EMPTY : cell).with(id, latitude, longitude, (byte) status.ordinal()));
+            return target;
+        });
+    }
+
+    private void removeNow(long id) {
+        locations.computeIfPresent(id, (key, current) -> {
+            removeFromCell(current, id);
+            return null;
+        });
+    }
+
+    private void removeFromCell(long cellKey, long id) {
+        cells.computeIfPresent(cellKey, (key, cell) -> {
+            Cell updated = cell.without(id);
+            return updated.ids.length == 0 ? null : updated;
+        });
+    }
+
+    // Streams coordinates in id order and builds each cell once; per-point copy-on-write would be quadratic
+    private void load() {
+        Map<Long, CellBuilder> builders = new HashMap<>();
+        long afterId = 0;
+        int loaded = 0;
+        List<PropertyRepository.GeoPoint> batch;
+        do {
+            batch = propertyRepository.findGeoPointsAfter(afterId, Limit.of(loadBatchSize));
+            for (PropertyRepository.GeoPoint point : batch) {
+                long cellKey = cellKey(point.getLatitude(), point.getLongitude());
+                builders.computeIfAbsent(cellKey, key -> new CellBuilder())
+                        .add(point.getId(), point.getLatitude(), point.getLongitude(), (byte) point.getStatus().ordinal());
+                locations.put(point.getId(), cellKey);
+                afterId = point.getId();
+            }
+            loaded += batch.size();
+        } while (batch.size() == loadBatchSize);
+
+        builders.forEach((key, builder) -> cells.put(key, builder.build()));
+        log.info("Spatial index loaded {} listings into {} cells of {} degrees", loaded, cells.size(), cellSizeDegrees);
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        int column = Math.floorMod((int) Math.floor((longitude + 180) / cellSizeDegrees), lonCells);
+        return (long) latIndex(latitude) * lonCells + column;
+    }
+
+    private int latIndex(double latitude) {
+        return Math.min(latCells - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellSizeDegrees)));
+    }
+
+    // East may exceed 180 when the range crosses the antimeridian
+    private static boolean withinLongitudes(double longitude, double west, double east) {
+        return longitude >= west && longitude <= east
+                || longitude + 360 >= west && longitude + 360 <= east
+                || longitude - 360 >= west && longitude - 360 <= east;
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        return longitude > 180 ? longitude - 360 : longitude;
+    }
+
+    private static double hav(double radians) {
+        double s = Math.sin(radians / 2);
+        return s * s;
+    }
+
+    private record Candidate(long id, double latitude, double longitude, double hav) {
+
+        // Max-heap on distance so the head is the first to drop; ties keep the lower id
+        static final Comparator<Candidate> FARTHEST_FIRST =
+                Comparator.comparingDouble(Candidate::hav).thenComparingLong(Candidate::id).reversed();
+
+        boolean isFartherThan(double otherHav, long otherId) {
+            return hav > otherHav || hav == otherHav && id > otherId;
+        }
+    }
+
+    /** Listings of one cell as parallel arrays. Never mutated; writers swap in a copy. */
+    private static final class Cell {
+
+        static final Cell EMPTY = new Cell(new long[0], new double[0], new double[0], new byte[0]);
+
+        final long[] ids;
+        final double[] lats;
+        final double[] lons;
+        final byte[] statuses;
+
+        Cell(long[] ids, double[] lats, double[] lons, byte[] statuses) {
+            this.ids = ids;
+            this.lats = lats;
+            this.lons = lons;
+            this.statuses = statuses;
+        }
+
+        Cell with(long id, double lat, double lon, byte status) {
+            int index = indexOf(id);
+            int length = index >= 0 ? ids.length : ids.length + 1;
+            int slot = index >= 0 ? index : ids.length;
+            Cell copy = new Cell(Arrays.copyOf(ids, length), Arrays.copyOf(lats, length),
+                    Arrays.copyOf(lons, length), Arrays.copyOf(statuses, length));
+            copy.ids[slot] = id;
+            copy.lats[slot] = lat;
+            copy.lons[slot] = lon;
+            copy.statuses[slot] = status;
+            return copy;
+        }
+
+        Cell without(long id) {
+            int index = indexOf(id);
+            if (index < 0) {
+                return this;
+            }
+            // Move the last entry into the gap; order inside a cell does not matter
+            int last = ids.length - 1;
+            Cell copy = new Cell(Arrays.copyOf(ids, last), Arrays.copyOf(lats, last),
+                    Arrays.copyOf(lons, last), Arrays.copyOf(statuses, last));
+            if (index < last) {
+                copy.ids[index] = ids[last];
+                copy.lats[index] = lats[last];
+                copy.lons[index] = lons[last];
+                copy.statuses[index] = statuses[last];
+            }
+            return copy;
+        }
+
+        private int indexOf(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class CellBuilder {
+
+        private long[] ids = new long[8];
+        private double[] lats = new double[8];
+        private double[] lons = new double[8];
+        private byte[] statuses = new byte[8];
+        private int count;
+
+        void add(long id, double lat, double lon, byte status) {
+            if (count == ids.length) {
+                int grown = count * 2;
+                ids = Arrays.copyOf(ids, grown);
+                lats = Arrays.copyOf(lats, grown);
+                lons = Arrays.copyOf(lons, grown);
+                statuses = Arrays.copyOf(statuses, grown);
+            }
+            ids[count] = id;
+            lats[count] = lat;
+            lons[count] = lon;
+            statuses[count] = status;
+            count++;
+        }
+
+        Cell build() {
+            return new Cell(Arrays.copyOf(ids, count), Arrays.copyOf(lats, count),
+                    Arrays.copyOf(lons, count), Arrays.copyOf(statuses, count));
+        }
+    }
+}
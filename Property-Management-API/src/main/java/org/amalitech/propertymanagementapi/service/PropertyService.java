@@ -0,0 +1,312 @@
+package org.amalitech.propertymanagementapi.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.dto.NearbyPage;
+import org.amalitech.propertymanagementapi.dto.NearbyProperty;
+import org.amalitech.propertymanagementapi.dto.NearbySearchRequest;
+import org.amalitech.propertymanagementapi.dto.PropertyPage;
+import org.amalitech.propertymanagementapi.dto.PropertyRequest;
+import org.amalitech.propertymanagementapi.dto.PropertyResponse;
+import org.amalitech.propertymanagementapi.dto.PropertySearchRequest;
+import org.amalitech.propertymanagementapi.dto.PropertySummary;
+import org.amalitech.propertymanagementapi.dto.PropertyTextHit;
+import org.amalitech.propertymanagementapi.dto.PropertyTextPage;
+import org.amalitech.propertymanagementapi.dto.PropertyTextSearchRequest;
+import org.amalitech.propertymanagementapi.exception.InvalidCursorException;
+import org.amalitech.propertymanagementapi.exception.PropertyNotFoundException;
+import org.amalitech.propertymanagementapi.model.Property;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.amalitech.propertymanagementapi.repository.PropertyPhotoRepository;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.amalitech.propertymanagementapi.repository.PropertySearchRepository;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.security.CurrentUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyService {
+    
+    private final PropertyRepository propertyRepository;
+    private final PropertyPhotoRepository photoRepository;
+    private final PhotoService photoService;
+    private final UserRepository userRepository;
+    private final AgentDashboardService agentDashboardService;
+    private final StatisticsService statisticsService;
+    private final PropertyGeoIndex geoIndex;
+    private final PropertyTextIndex textIndex;
+    
+    @Value("${properties.search.default-page-size:20}")
+    private int defaultPageSize;
+    
+    @Value("${properties.geo.default-radius-km:5}")
+    private double defaultRadiusKm;
+    
+    @Transactional
+    public PropertyResponse create(PropertyRequest request, Authentication authentication) {
+        Long agentId = CurrentUser.id(authentication);
+        Property property = Property.builder()
+                .agent(userRepository.getReferenceById(agentId))
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .city(request.getCity().trim())
+                .price(request.getPrice())
+                .bedrooms(request.getBedrooms())
+                .latitude(request.getLatitude())
+                .longitude(request.getLongitude())
+                .status(PropertyStatus.PENDING_APPROVAL)
+                .build();
+        Property saved = propertyRepository.save(property);
+        
+        agentDashboardService.evict(agentId);
+        geoIndex.put(saved.getId(), saved.getLatitude(), saved.getLongitude(), saved.getStatus());
+        textIndex.put(PropertyTextIndex.Document.of(saved));
+        statisticsService.propertyCreated();
+        log.info("Property {} created by {}", saved.getId(), authentication.getName());
+        return PropertyResponse.of(saved, authentication.getName());
+    }
+    
+    /**
+     * A listing by id. Pending listings are reported as missing to everyone but their agent and admins,
+     * and the agent's login email is left out for anonymous callers.
+     */
+    @Transactional(readOnly = true)
+    public PropertyResponse get(Long id, Authentication authentication) {
+        Property property = find(id);
+        if (!property.getStatus().isPublic() && (authentication == null || !isOwnerOrAdmin(property, authentication))) {
+            throw new PropertyNotFoundException("Property not found with id: " + id);
+        }
+        String ownerEmail = authentication != null ? property.getAgent().getEmail() : null;
+        return withPhotos(PropertyResponse.of(property, ownerEmail));
+    }
+    
+    /**
+     * Updates a listing. Only its agent or an admin may do so, and only an admin can move a listing
+     * out of {@link PropertyStatus#PENDING_APPROVAL}.
+     */
+    @Transactional
+    public PropertyResponse update(Long id, PropertyRequest request, Authentication authentication) {
+        Property property = find(id);
+        checkOwner(property, authentication);
+        if (request.getStatus() != null && request.getStatus() != property.getStatus()) {
+            if (property.getStatus() == PropertyStatus.PENDING_APPROVAL && !isAdmin(authentication)) {
+                throw new AccessDeniedException("Only an admin can approve a listing");
+            }
+            property.setStatus(request.getStatus());
+        }
+        property.setTitle(request.getTitle());
+        property.setDescription(request.getDescription());
+        property.setCity(request.getCity().trim());
+        property.setPrice(request.getPrice());
+        property.setBedrooms(request.getBedrooms());
+        property.setLatitude(request.getLatitude());
+        property.setLongitude(request.getLongitude());
+        Property saved = propertyRepository.saveAndFlush(property);
+        
+        agentDashboardService.evict(property.getAgent().getId());
+        geoIndex.put(id, saved.getLatitude(), saved.getLongitude(), saved.getStatus());
+        textIndex.put(PropertyTextIndex.Document.of(saved));
+        log.info("Property {} updated by {}", id, authentication.getName());
+        return withPhotos(PropertyResponse.of(saved, property.getAgent().getEmail()));
+    }
+    
+    @Transactional
+    public void delete(Long id, Authentication authentication) {
+        Property property = find(id);
+        checkOwner(property, authentication);
+        // Photo files stay in the store until the orphan sweep finds them unreferenced
+        photoRepository.deleteByPropertyId(id);
+        propertyRepository.delete(property);
+        
+        agentDashboardService.evict(property.getAgent().getId());
+        geoIndex.remove(id);
+        textIndex.remove(id);
+        statisticsService.propertyDeleted();
+        log.info("Property {} deleted by {}", id, authentication.getName());
+    }
+    
+    /** Public search; unless a status is given only available listings are shown. */
+    public PropertyPage search(PropertySearchRequest request, Authentication authentication) {
+        return search(request, publicStatus(request.getStatus(), authentication), null);
+    }
+    
+    /** The caller's own listings in any status, or the requested one. */
+    public PropertyPage searchOwn(PropertySearchRequest request, Authentication authentication) {
+        return search(request, request.getStatus(), CurrentUser.id(authentication));
+    }
+    
+    /**
+     * Listings within a radius of a point or inside a box, nearest first. The spatial index finds and
+     * orders the hits; the database only loads the rows of the returned page.
+     */
+    public NearbyPage nearby(NearbySearchRequest request, Authentication authentication) {
+        PropertyStatus status = publicStatus(request.getStatus(), authentication);
+        int limit = request.getLimit() != null ? request.getLimit() : defaultPageSize;
+        PropertyGeoIndex.Result result;
+        if (request.isBox()) {
+            result = geoIndex.within(request.getMinLat(), request.getMinLon(), request.getMaxLat(), request.getMaxLon(),
+                    status, limit);
+        } else {
+            double radiusKm = request.getRadiusKm() != null ? request.getRadiusKm() : defaultRadiusKm;
+            result = geoIndex.nearby(request.getLat(), request.getLon(), radiusKm * 1000, status, limit);
+        }
+        if (result.hits().isEmpty()) {
+            return new NearbyPage(List.of(), result.matches());
+        }
+        
+        Map<Long, PropertySummary> rows = new HashMap<>();
+        List<Long> ids = result.hits().stream().map(PropertyGeoIndex.Hit::id).toList();
+        propertyRepository.findSummariesByIdIn(ids).forEach(row -> rows.put(row.getId(), row));
+        List<NearbyProperty> items = new ArrayList<>(ids.size());
+        for (PropertyGeoIndex.Hit hit : result.hits()) {
+            PropertySummary row = rows.get(hit.id());
+            // Skip listings deleted or changed since the index was read
+            if (row == null || row.getStatus() != status) {
+                continue;
+            }
+            items.add(NearbyProperty.builder()
+                    .id(row.getId())
+                    .title(row.getTitle())
+                    .city(row.getCity())
+                    .price(row.getPrice())
+                    .bedrooms(row.getBedrooms())
+                    .status(row.getStatus())
+                    .latitude(hit.latitude())
+                    .longitude(hit.longitude())
+                    .distanceMeters(Math.round(hit.distanceMeters()))
+                    .build());
+        }
+        return new NearbyPage(items, result.matches());
+    }
+    
+    /**
+     * Full-text search ranked by relevance, narrowed by the same filters as {@link #search}. The text
+     * index ranks and filters; the database only loads the rows of the returned page.
+     */
+    public PropertyTextPage textSearch(PropertyTextSearchRequest request, Authentication authentication) {
+        long started = System.nanoTime();
+        PropertyStatus status = publicStatus(request.getStatus(), authentication);
+        int size = request.getSize() != null ? request.getSize() : defaultPageSize;
+        int page = request.getPage() != null ? request.getPage() : 0;
+        // Validation bounds the depth for the default size only; keep the ranked window within MAX_DEPTH
+        // whatever default-page-size is configured
+        int offset = (int) Math.min((long) page * size, PropertyTextSearchRequest.MAX_DEPTH);
+        int limit = Math.min(size, PropertyTextSearchRequest.MAX_DEPTH - offset);
+        String city = request.getCity() != null && !request.getCity().isBlank() ? request.getCity().trim() : null;
+        PropertyTextIndex.Result result = textIndex.search(new PropertyTextIndex.Query(request.getQ(), status, city,
+                request.getMinPrice(), request.getMaxPrice(), request.getMinBedrooms(), offset, limit));
+        
+        List<PropertyTextHit> items = new ArrayList<>(result.hits().size());
+        if (!result.hits().isEmpty()) {
+            Map<Long, PropertySummary> rows = new HashMap<>();
+            propertyRepository.findSummariesByIdIn(result.hits().stream().map(PropertyTextIndex.Hit::id).toList())
+                    .forEach(row -> rows.put(row.getId(), row));
+            for (PropertyTextIndex.Hit hit : result.hits()) {
+                PropertySummary row = rows.get(hit.id());
+                // Skip listings deleted since the index was read
+                if (row != null) {
+                    items.add(PropertyTextHit.builder()
+                            .id(row.getId())
+                            .title(row.getTitle())
+                            .city(row.getCity())
+                            .price(row.getPrice())
+                            .bedrooms(row.getBedrooms())
+                            .status(row.getStatus())
+                            .score(hit.score())
+                            .build());
+                }
+            }
+        }
+        return new PropertyTextPage(items, result.matches(), (System.nanoTime() - started) / 1_000);
+    }
+    
+    private PropertyPage search(PropertySearchRequest request, PropertyStatus status, Long agentId) {
+        int size = request.getSize() != null ? request.getSize() : defaultPageSize;
+        Cursor after = request.getCursor() != null ? Cursor.decode(request.getCursor()) : null;
+        String city = request.getCity() != null && !request.getCity().isBlank() ? request.getCity().trim() : null;
+        PropertySearchRepository.Filter filter = new PropertySearchRepository.Filter(status, city,
+                request.getMinPrice(), request.getMaxPrice(), request.getMinBedrooms(), agentId,
+                after != null ? after.price() : null, after != null ? after.id() : null);
+        
+        // One extra row tells whether another page follows without a count query
+        List<PropertySummary> rows = propertyRepository.search(filter, size + 1);
+        if (rows.size() <= size) {
+            return new PropertyPage(rows, null);
+        }
+        List<PropertySummary> page = rows.subList(0, size);
+        PropertySummary last = page.get(size - 1);
+        return new PropertyPage(List.copyOf(page), new Cursor(last.getPrice(), last.getId()).encode());
+    }
+    
+    private Property find(Long id) {
+        return propertyRepository.findWithAgentById(id)
+                .orElseThrow(() -> new PropertyNotFoundException("Property not found with id: " + id));
+    }
+    
+    private PropertyResponse withPhotos(PropertyResponse response) {
+        response.setPhotos(photoService.photos(response.getId()));
+        return response;
+    }
+    
+    static void checkOwner(Property property, Authentication authentication) {
+        if (!isOwnerOrAdmin(property, authentication)) {
+            throw new AccessDeniedException("Not the owner of property " + property.getId());
+        }
+    }
+    
+    private static boolean isOwnerOrAdmin(Property property, Authentication authentication) {
+        return isAdmin(authentication) || property.getAgent().getId().equals(CurrentUser.id(authentication));
+    }
+    
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+    
+    /**
+     * The status a public search filters on, available by default. Pending listings are only listed to
+     * admins here; agents find their own under my-properties.
+     */
+    private static PropertyStatus publicStatus(PropertyStatus requested, Authentication authentication) {
+        if (requested == null) {
+            return PropertyStatus.AVAILABLE;
+        }
+        if (!requested.isPublic() && !isAdmin(authentication)) {
+            throw new AccessDeniedException("Listings in status " + requested + " are not public");
+        }
+        return requested;
+    }
+    
+    /** Position after the last row of a page: its (price, id) sort key, sent to clients as base64url. */
+    record Cursor(BigDecimal price, Long id) {
+        
+        String encode() {
+            String raw = price.toPlainString() + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                return new Cursor(new BigDecimal(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+        }
+    }
+}
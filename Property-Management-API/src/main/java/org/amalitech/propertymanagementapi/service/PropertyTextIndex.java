@@ -0,0 +1,686 @@
+package org.amalitech.propertymanagementapi.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.model.Property;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over listing titles, descriptions and cities, ranked with BM25. Every query
+ * word must match; the last one also matches as a prefix, so results follow the user's typing.
+ * <p>
+ * Listings get an internal ordinal in insertion order, and each term's postings are the delta-encoded
+ * ordinals and term frequencies as varints, about 2 bytes per posting. Updates append the new version
+ * under a fresh ordinal and tombstone the old one; a scheduled compaction drops tombstoned postings once
+ * they pass {@code properties.text.compact-ratio}. The structured search filters are held per ordinal so
+ * a query never touches the database until the page is hydrated.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyTextIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // Title words count twice towards term frequency and document length
+    private static final int TITLE_WEIGHT = 2;
+    // Longer words that merely start with the typed prefix rank below the exact word
+    private static final float PREFIX_WEIGHT = 0.5f;
+    private static final int MAX_TOKEN_LENGTH = 40;
+    private static final int MAX_QUERY_TERMS = 16;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "at", "by", "for", "in", "is", "of", "on", "or", "the", "to", "with");
+
+    private final PropertyRepository propertyRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${properties.text.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    @Value("${properties.text.max-prefix-terms:64}")
+    private int maxPrefixTerms;
+
+    @Value("${properties.text.min-prefix-length:2}")
+    private int minPrefixLength;
+
+    @Value("${properties.text.compact-ratio:0.2}")
+    private double compactRatio;
+
+    // Queries share the read lock; writes are short appends under the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final BitSet deleted = new BitSet();
+    private final Map<String, String> cityNames = new HashMap<>();
+    private LongIntHashMap ordinals = new LongIntHashMap(1024);
+
+    // Per ordinal
+    private long[] ids = new long[1024];
+    private int[] lengths = new int[1024];
+    private long[] pricesInCents = new long[1024];
+    private int[] bedrooms = new int[1024];
+    private byte[] statuses = new byte[1024];
+    private String[] cities = new String[1024];
+
+    private int docCount;
+    private int liveCount;
+    private long totalLength;
+
+    private Timer searchTimer;
+
+    /** The indexed fields of one listing. */
+    public record Document(long id, String title, String description, String city, BigDecimal price, int bedrooms,
+                           PropertyStatus status) {
+
+        public static Document of(Property property) {
+            return new Document(property.getId(), property.getTitle(), property.getDescription(), property.getCity(),
+                    property.getPrice(), property.getBedrooms(), property.getStatus());
+        }
+
+        static Document of(PropertyRepository.TextDocument row) {
+            return new Document(row.getId(), row.getTitle(), row.getDescription(), row.getCity(), row.getPrice(),
+                    row.getBedrooms(), row.getStatus());
+        }
+    }
+
+    /** Free text plus the structured filters of the listing search; null filters match everything. */
+    public record Query(String text, PropertyStatus status, String city, BigDecimal minPrice, BigDecimal maxPrice,
+                        Integer minBedrooms, int offset, int limit) {
+    }
+
+    public record Hit(long id, float score) {
+    }
+
+    /** One page of hits, best first, and how many listings matched in total. */
+    public record Result(List<Hit> hits, int matches) {
+    }
+
+    @PostConstruct
+    void init() {
+        load();
+        searchTimer = Timer.builder("properties.text.search")
+                .description("Full-text listing queries against the in-memory index")
+                .register(meterRegistry);
+        Gauge.builder("properties.text.indexed", this, index -> index.liveCount)
+                .description("Listings held in the full-text index")
+                .register(meterRegistry);
+        Gauge.builder("properties.text.terms", terms, TreeMap::size)
+                .description("Distinct terms in the full-text index")
+                .register(meterRegistry);
+    }
+
+    /** Indexes a new or changed listing, after commit when called inside a transaction. */
+    public void put(Document document) {
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeNow(document.id());
+                addNow(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /** Drops a listing, after commit when called inside a transaction. */
+    public void remove(long id) {
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeNow(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    public Result search(Query query) {
+        return searchTimer.record(() -> {
+            List<String> words = queryTerms(query.text());
+            lock.readLock().lock();
+            try {
+                return words.isEmpty() || liveCount == 0 ? new Result(List.of(), 0) : searchLocked(words, query);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    /** Lower-cased, accent-folded words of the text, without stop words. */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = text.toLowerCase(Locale.ROOT);
+        if (!folded.chars().allMatch(c -> c < 128)) {
+            folded = Normalizer.normalize(folded, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        }
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = folded.substring(start, i);
+                if (token.length() <= MAX_TOKEN_LENGTH && !STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Distinct query words in order; the last is marked as a prefix with a trailing '*' unless the
+    // text ends in whitespace, i.e. the user finished typing it
+    private List<String> queryTerms(String text) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokenize(text)));
+        if (words.size() > MAX_QUERY_TERMS) {
+            words = words.subList(0, MAX_QUERY_TERMS);
+        }
+        if (!words.isEmpty() && !Character.isWhitespace(text.charAt(text.length() - 1))
+                && words.get(words.size() - 1).length() >= minPrefixLength) {
+            words.set(words.size() - 1, words.get(words.size() - 1) + "*");
+        }
+        return words;
+    }
+
+    private Result searchLocked(List<String> words, Query query) {
+        float avgLength = (float) totalLength / liveCount;
+        List<Group> groups = new ArrayList<>(words.size());
+        for (String word : words) {
+            Group group = word.endsWith("*") ? prefixGroup(word.substring(0, word.length() - 1)) : exactGroup(word);
+            if (group == null) {
+                return new Result(List.of(), 0);
+            }
+            groups.add(group);
+        }
+        // Start from the rarest word so every later merge walks the smallest candidate set
+        groups.sort(Comparator.comparingLong(Group::cost));
+
+        Candidates candidates = union(groups.get(0), avgLength, new Filter(query));
+        for (int i = 1; i < groups.size() && candidates.size > 0; i++) {
+            candidates = intersect(candidates, groups.get(i), avgLength);
+        }
+        return topHits(candidates, query.offset(), query.limit());
+    }
+
+    private Group exactGroup(String word) {
+        Postings postings = terms.get(word);
+        return postings == null ? null : new Group(List.of(postings), new float[]{idf(postings)});
+    }
+
+    private Group prefixGroup(String prefix) {
+        SortedMap<String, Postings> matching = terms.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (matching.isEmpty()) {
+            return null;
+        }
+        List<Map.Entry<String, Postings>> expansions = new ArrayList<>(matching.entrySet());
+        if (expansions.size() > maxPrefixTerms) {
+            // Keep the exact word and the most common completions
+            expansions.sort(Comparator.<Map.Entry<String, Postings>>comparingInt(entry -> entry.getKey().equals(prefix) ? 0 : 1)
+                    .thenComparing(entry -> -entry.getValue().docCount));
+            expansions = expansions.subList(0, maxPrefixTerms);
+        }
+        List<Postings> postings = new ArrayList<>(expansions.size());
+        float[] weights = new float[expansions.size()];
+        for (int i = 0; i < expansions.size(); i++) {
+            Postings term = expansions.get(i).getValue();
+            postings.add(term);
+            weights[i] = idf(term) * (expansions.get(i).getKey().equals(prefix) ? 1 : PREFIX_WEIGHT);
+        }
+        return new Group(postings, weights);
+    }
+
+    private float idf(Postings postings) {
+        // docCount still includes tombstoned listings until the next compaction; capping it keeps idf positive
+        int documentFrequency = Math.min(postings.docCount, liveCount);
+        return (float) Math.log(1 + (liveCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private float score(float weight, int tf, int doc, float avgLength) {
+        return weight * tf * (K1 + 1) / (tf + K1 * (1 - B + B * lengths[doc] / avgLength));
+    }
+
+    // Live listings that pass the filters and match any term of the group, in ordinal order with summed scores
+    private Candidates union(Group group, float avgLength, Filter filter) {
+        PostingsReader reader = new PostingsReader();
+        if (group.postings.size() == 1) {
+            Candidates candidates = new Candidates(group.postings.get(0).docCount);
+            reader.reset(group.postings.get(0));
+            while (reader.next()) {
+                if (!deleted.get(reader.doc) && filter.accepts(reader.doc)) {
+                    candidates.docs[candidates.size] = reader.doc;
+                    candidates.scores[candidates.size++] = score(group.weights[0], reader.tf, reader.doc, avgLength);
+                }
+            }
+            return candidates;
+        }
+
+        // Several completions of a prefix: collect (ordinal, score) pairs packed into longs, sort, and sum
+        long[] packed = new long[(int) Math.min(Integer.MAX_VALUE - 8, group.cost())];
+        int count = 0;
+        for (int t = 0; t < group.postings.size(); t++) {
+            reader.reset(group.postings.get(t));
+            while (reader.next()) {
+                if (!deleted.get(reader.doc) && filter.accepts(reader.doc)) {
+                    float score = score(group.weights[t], reader.tf, reader.doc, avgLength);
+                    packed[count++] = (long) reader.doc << 32 | Float.floatToRawIntBits(score) & 0xffffffffL;
+                }
+            }
+        }
+        Arrays.sort(packed, 0, count);
+        Candidates candidates = new Candidates(count);
+        for (int i = 0; i < count; i++) {
+            int doc = (int) (packed[i] >>> 32);
+            float score = Float.intBitsToFloat((int) packed[i]);
+            if (candidates.size > 0 && candidates.docs[candidates.size - 1] == doc) {
+                candidates.scores[candidates.size - 1] += score;
+            } else {
+                candidates.docs[candidates.size] = doc;
+                candidates.scores[candidates.size++] = score;
+            }
+        }
+        return candidates;
+    }
+
+    // Keeps the candidates that also match the group. Each posting list is walked once, jumping over
+    // blocks with no candidates, so a rare word paired with a common one reads only a few blocks.
+    private Candidates intersect(Candidates candidates, Group group, float avgLength) {
+        float[] added = new float[candidates.size];
+        BitSet matched = new BitSet(candidates.size);
+        PostingsReader reader = new PostingsReader();
+        for (int t = 0; t < group.postings.size(); t++) {
+            reader.reset(group.postings.get(t));
+            for (int i = 0; i < candidates.size; i++) {
+                int doc = candidates.docs[i];
+                if (reader.doc < doc && !reader.advance(doc)) {
+                    break;
+                }
+                if (reader.doc == doc) {
+                    added[i] += score(group.weights[t], reader.tf, doc, avgLength);
+                    matched.set(i);
+                }
+            }
+        }
+        Candidates kept = new Candidates(matched.cardinality());
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            kept.docs[kept.size] = candidates.docs[i];
+            kept.scores[kept.size++] = candidates.scores[i] + added[i];
+        }
+        return kept;
+    }
+
+    private Result topHits(Candidates candidates, int offset, int limit) {
+        int wanted = offset + limit;
+        // Min-heap of candidate positions: the head is the weakest hit kept so far
+        Comparator<Integer> weakestFirst = (a, b) -> {
+            int byScore = Float.compare(candidates.scores[a], candidates.scores[b]);
+            return byScore != 0 ? byScore : Long.compare(ids[candidates.docs[b]], ids[candidates.docs[a]]);
+        };
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(wanted, candidates.size) + 1, weakestFirst);
+        for (int i = 0; i < candidates.size; i++) {
+            if (best.size() < wanted) {
+                best.add(i);
+            } else if (weakestFirst.compare(i, best.peek()) > 0) {
+                best.poll();
+                best.add(i);
+            }
+        }
+
+        Hit[] ranked = new Hit[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            int position = best.poll();
+            ranked[i] = new Hit(ids[candidates.docs[position]], candidates.scores[position]);
+        }
+        List<Hit> page = offset >= ranked.length ? List.of() : List.of(ranked).subList(offset, ranked.length);
+        return new Result(page, candidates.size);
+    }
+
+    /**
+     * Rewrites the postings without tombstoned listings once they exceed the configured share of the
+     * index. Queries wait for the rewrite, which takes a few hundred milliseconds per million listings.
+     */
+    @Scheduled(fixedDelayString = "${properties.text.compact-interval:PT1M}",
+            initialDelayString = "${properties.text.compact-interval:PT1M}")
+    public void compactIfNeeded() {
+        lock.writeLock().lock();
+        try {
+            int dead = docCount - liveCount;
+            if (dead > 0 && dead > compactRatio * docCount) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compact() {
+        long started = System.nanoTime();
+        int[] remap = new int[docCount];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            remap[doc] = deleted.get(doc) ? -1 : live++;
+        }
+
+        PostingsReader reader = new PostingsReader();
+        Iterator<Map.Entry<String, Postings>> entries = terms.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Postings> entry = entries.next();
+            Postings rewritten = new Postings();
+            reader.reset(entry.getValue());
+            while (reader.next()) {
+                if (remap[reader.doc] >= 0) {
+                    rewritten.add(remap[reader.doc], reader.tf);
+                }
+            }
+            if (rewritten.docCount == 0) {
+                entries.remove();
+            } else {
+                rewritten.trim();
+                entry.setValue(rewritten);
+            }
+        }
+
+        int dropped = docCount - live;
+        LongIntHashMap compacted = new LongIntHashMap(live);
+        for (int doc = 0; doc < docCount; doc++) {
+            int target = remap[doc];
+            if (target >= 0) {
+                ids[target] = ids[doc];
+                lengths[target] = lengths[doc];
+                pricesInCents[target] = pricesInCents[doc];
+                bedrooms[target] = bedrooms[doc];
+                statuses[target] = statuses[doc];
+                cities[target] = cities[doc];
+                compacted.put(ids[target], target);
+            }
+        }
+        Arrays.fill(cities, live, docCount, null);
+        ordinals = compacted;
+        deleted.clear();
+        docCount = live;
+        log.info("Compacted full-text index: dropped {} stale listings in {} ms", dropped,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void addNow(Document document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = count(frequencies, document.title(), TITLE_WEIGHT)
+                + count(frequencies, document.description(), 1)
+                + count(frequencies, document.city(), 1);
+        int doc = docCount++;
+        ensureCapacity(docCount);
+        ids[doc] = document.id();
+        lengths[doc] = length;
+        pricesInCents[doc] = document.price() == null ? 0 : cents(document.price(), RoundingMode.HALF_UP);
+        bedrooms[doc] = document.bedrooms();
+        statuses[doc] = (byte) document.status().ordinal();
+        cities[doc] = document.city() == null ? null : cityNames.computeIfAbsent(document.city(), city -> city);
+        frequencies.forEach((term, tf) -> terms.computeIfAbsent(term, key -> new Postings()).add(doc, tf));
+        ordinals.put(document.id(), doc);
+        liveCount++;
+        totalLength += length;
+    }
+
+    private void removeNow(long id) {
+        int doc = ordinals.remove(id);
+        if (doc != LongIntHashMap.MISSING) {
+            deleted.set(doc);
+            cities[doc] = null;
+            liveCount--;
+            totalLength -= lengths[doc];
+        }
+    }
+
+    private static int count(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> tokens = tokenize(text);
+        tokens.forEach(token -> frequencies.merge(token, weight, Integer::sum));
+        return tokens.size() * weight;
+    }
+
+    private static long cents(BigDecimal price, RoundingMode rounding) {
+        return price.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+            ids = Arrays.copyOf(ids, grown);
+            lengths = Arrays.copyOf(lengths, grown);
+            pricesInCents = Arrays.copyOf(pricesInCents, grown);
+            bedrooms = Arrays.copyOf(bedrooms, grown);
+            statuses = Arrays.copyOf(statuses, grown);
+            cities = Arrays.copyOf(cities, grown);
+        }
+    }
+
+    private void load() {
+        long started = System.nanoTime();
+        long afterId = 0;
+        List<PropertyRepository.TextDocument> batch;
+        lock.writeLock().lock();
+        try {
+            do {
+                batch = propertyRepository.findTextDocumentsAfter(afterId, Limit.of(loadBatchSize));
+                for (PropertyRepository.TextDocument row : batch) {
+                    addNow(Document.of(row));
+                    afterId = row.getId();
+                }
+            } while (batch.size() == loadBatchSize);
+            long postingBytes = 0;
+            for (Postings postings : terms.values()) {
+                postings.trim();
+                postingBytes += postings.data.length;
+            }
+            log.info("Full-text index loaded {} listings, {} terms, {} KB of postings in {} ms", liveCount,
+                    terms.size(), postingBytes / 1024, (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** The structured filters of a query, checked against the per-ordinal columns. */
+    private final class Filter {
+
+        private final byte status;
+        private final String city;
+        private final long minCents;
+        private final long maxCents;
+        private final int minBedrooms;
+
+        Filter(Query query) {
+            status = query.status() == null ? -1 : (byte) query.status().ordinal();
+            city = query.city();
+            minCents = query.minPrice() == null ? Long.MIN_VALUE : cents(query.minPrice(), RoundingMode.CEILING);
+            maxCents = query.maxPrice() == null ? Long.MAX_VALUE : cents(query.maxPrice(), RoundingMode.FLOOR);
+            minBedrooms = query.minBedrooms() == null ? Integer.MIN_VALUE : query.minBedrooms();
+        }
+
+        boolean accepts(int doc) {
+            return (status < 0 || statuses[doc] == status)
+                    && (city == null || city.equals(cities[doc]))
+                    && pricesInCents[doc] >= minCents && pricesInCents[doc] <= maxCents
+                    && bedrooms[doc] >= minBedrooms;
+        }
+    }
+
+    private record Group(List<Postings> postings, float[] weights) {
+
+        long cost() {
+            long cost = 0;
+            for (Postings term : postings) {
+                cost += term.docCount;
+            }
+            return cost;
+        }
+    }
+
+    private static final class Candidates {
+
+        final int[] docs;
+        final float[] scores;
+        int size;
+
+        Candidates(int capacity) {
+            docs = new int[capacity];
+            scores = new float[capacity];
+        }
+    }
+
+    /**
+     * Ascending ordinals of one term as varint deltas, each followed by the varint term frequency. Every
+     * {@value #SKIP_INTERVAL} postings a skip entry records the byte offset and the ordinal before it, so
+     * readers can jump ahead without decoding the postings in between.
+     */
+    private static final class Postings {
+
+        static final int SKIP_INTERVAL = 64;
+
+        private byte[] data = new byte[8];
+        private int length;
+        private int lastDoc = -1;
+        private int docCount;
+        private int[] skipDocs;
+        private int[] skipOffsets;
+        private int skipCount;
+
+        void add(int doc, int tf) {
+            if (length + 10 > data.length) {
+                data = Arrays.copyOf(data, Math.max(length + 10, data.length + (data.length >> 1)));
+            }
+            if (docCount > 0 && docCount % SKIP_INTERVAL == 0) {
+                if (skipDocs == null || skipCount == skipDocs.length) {
+                    int grown = skipDocs == null ? 4 : skipCount * 2;
+                    skipDocs = skipDocs == null ? new int[grown] : Arrays.copyOf(skipDocs, grown);
+                    skipOffsets = skipOffsets == null ? new int[grown] : Arrays.copyOf(skipOffsets, grown);
+                }
+                skipDocs[skipCount] = lastDoc;
+                skipOffsets[skipCount++] = length;
+            }
+            writeVarint(doc - lastDoc);
+            writeVarint(tf);
+            lastDoc = doc;
+            docCount++;
+        }
+
+        void trim() {
+            if (data.length > length) {
+                data = Arrays.copyOf(data, length);
+            }
+            if (skipDocs != null && skipDocs.length > skipCount) {
+                skipDocs = Arrays.copyOf(skipDocs, skipCount);
+                skipOffsets = Arrays.copyOf(skipOffsets, skipCount);
+            }
+        }
+
+        private void writeVarint(int value) {
+            while ((value & ~0x7f) != 0) {
+                data[length++] = (byte) (value & 0x7f | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+
+    private static final class PostingsReader {
+
+        private Postings postings;
+        private byte[] data;
+        private int end;
+        private int position;
+        private int nextSkip;
+        int doc;
+        int tf;
+
+        void reset(Postings postings) {
+            this.postings = postings;
+            data = postings.data;
+            end = postings.length;
+            position = 0;
+            nextSkip = 0;
+            doc = -1;
+        }
+
+        /** Moves to the first posting at or after the target ordinal; false when there is none. */
+        boolean advance(int target) {
+            // Only search the skip entries when the target lies beyond the next one; nearby targets are
+            // cheaper to reach by decoding forward
+            if (nextSkip < postings.skipCount && postings.skipDocs[nextSkip] < target) {
+                int low = nextSkip;
+                int high = postings.skipCount - 1;
+                while (low < high) {
+                    int middle = (low + high + 1) >>> 1;
+                    if (postings.skipDocs[middle] < target) {
+                        low = middle;
+                    } else {
+                        high = middle - 1;
+                    }
+                }
+                if (postings.skipOffsets[low] > position) {
+                    position = postings.skipOffsets[low];
+                    doc = postings.skipDocs[low];
+                }
+                nextSkip = low + 1;
+            }
+            while (next()) {
+                if (doc >= target) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean next() {
+            if (position >= end) {
+                return false;
+            }
+            doc += readVarint();
+            tf = readVarint();
+            return true;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[position++];
+                value |= (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
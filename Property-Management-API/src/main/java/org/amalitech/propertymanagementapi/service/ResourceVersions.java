@@ -0,0 +1,75 @@
+package org.amalitech.propertymanagementapi.service;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version numbers for read-heavy resources, bumped by their write paths once the change has committed.
+ * An ETag built from the version lets a poll be answered with 304 before any query runs or any body is
+ * serialized. Versions are drawn from one process-wide sequence and ETags carry a per-start epoch, so a
+ * tag issued before a restart never matches again.
+ * <p>
+ * Readers must take the ETag before loading the resource: a change that lands in between then only
+ * costs one extra full response, never a stale body under a new tag.
+ */
+@Component
+public class ResourceVersions {
+
+    public static final String AGENT_DASHBOARD = "agent-dashboard";
+    public static final String ADMIN_STATS = "admin-stats";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    // One entry per resource instance that has changed since startup, e.g. one per agent
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    /** Marks a singleton resource as changed, after commit when called inside a transaction. */
+    public void bump(String resource) {
+        bump(resource, null);
+    }
+
+    /** Marks one instance of a resource, such as an agent's dashboard, as changed. */
+    public void bump(String resource, Object id) {
+        String key = key(resource, id);
+        TransactionHooks.afterCommit(() -> versions.put(key, sequence.incrementAndGet()));
+    }
+
+    public long version(String resource, Object id) {
+        return versions.getOrDefault(key(resource, id), 0L);
+    }
+
+    /**
+     * Weak ETag for the resource's current version. Bodies of one version are equivalent rather than
+     * byte-identical (timestamps such as {@code computedAt} may differ), hence {@code W/}.
+     *
+     * @param variant anything else the body depends on, such as the caller's name; null if nothing
+     */
+    public String etag(String resource, Object id, String variant) {
+        String tag = epoch + "-" + Long.toString(version(resource, id), 36);
+        if (variant != null) {
+            tag += "-" + digest(variant);
+        }
+        return "W/\"" + tag + "\"";
+    }
+
+    // 96 bits of SHA-256, so two callers' variants never share a tag by accident, unlike String.hashCode()
+    private static String digest(String variant) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(variant.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String key(String resource, Object id) {
+        return id == null ? resource : resource + ":" + id;
+    }
+}
@@ -0,0 +1,143 @@
+package org.amalitech.propertymanagementapi.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live entity counts for the admin dashboard. The write paths report each change here, so reading
+ * the counts never queries the database. The counters are reconciled against {@code COUNT(*)} at
+ * startup and periodically, which corrects any drift from writes that bypass the services.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatisticsService {
+
+    private final UserRepository userRepository;
+    private final PropertyRepository propertyRepository;
+    private final MeterRegistry meterRegistry;
+    private final ResourceVersions resourceVersions;
+
+    private final Map<Role, LongAdder> usersByRole = new EnumMap<>(Role.class);
+    private final LongAdder properties = new LongAdder();
+
+    private volatile Instant reconciledAt;
+
+    @PostConstruct
+    void init() {
+        for (Role role : Role.values()) {
+            LongAdder counter = new LongAdder();
+            usersByRole.put(role, counter);
+            Gauge.builder("app.users", counter, LongAdder::sum)
+                    .description("Registered users")
+                    .tag("role", role.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        Gauge.builder("app.properties", properties, LongAdder::sum)
+                .description("Property listings")
+                .register(meterRegistry);
+        reconcile();
+    }
+
+    /** Counts a new user once the surrounding transaction, if any, has committed. */
+    public void userCreated(Role role) {
+        TransactionHooks.afterCommit(() -> usersByRole.get(role).increment());
+        resourceVersions.bump(ResourceVersions.ADMIN_STATS);
+    }
+
+    public void roleChanged(Role from, Role to) {
+        if (from != to) {
+            TransactionHooks.afterCommit(() -> {
+                usersByRole.get(from).decrement();
+                usersByRole.get(to).increment();
+            });
+            resourceVersions.bump(ResourceVersions.ADMIN_STATS);
+        }
+    }
+
+    public void propertyCreated() {
+        TransactionHooks.afterCommit(properties::increment);
+        resourceVersions.bump(ResourceVersions.ADMIN_STATS);
+    }
+
+    public void propertyDeleted() {
+        TransactionHooks.afterCommit(properties::decrement);
+        resourceVersions.bump(ResourceVersions.ADMIN_STATS);
+    }
+
+    public long userCount(Role role) {
+        return usersByRole.get(role).sum();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Long> byRole = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<Role, LongAdder> entry : usersByRole.entrySet()) {
+            long count = entry.getValue().sum();
+            byRole.put(entry.getKey().name(), count);
+            total += count;
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalUsers", total);
+        stats.put("totalAgents", byRole.get(Role.AGENT.name()));
+        stats.put("totalAdmins", byRole.get(Role.ADMIN.name()));
+        stats.put("usersByRole", byRole);
+        stats.put("totalProperties", properties.sum());
+        stats.put("reconciledAt", reconciledAt);
+        return stats;
+    }
+
+    /**
+     * Brings the counters in line with the database. A counter that changes while its count is being
+     * queried is left alone, since the query may or may not have seen that write; the next run fixes it.
+     */
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval:PT5M}",
+            initialDelayString = "${stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        Map<Role, Long> before = new EnumMap<>(Role.class);
+        usersByRole.forEach((role, counter) -> before.put(role, counter.sum()));
+        Map<Role, Long> actual = new EnumMap<>(Role.class);
+        userRepository.countByRole().forEach(count -> actual.put(count.getRole(), count.getCount()));
+
+        for (Role role : Role.values()) {
+            LongAdder counter = usersByRole.get(role);
+            adjust(role.name(), counter, before.get(role), actual.getOrDefault(role, 0L));
+        }
+
+        long propertiesBefore = properties.sum();
+        adjust("property", properties, propertiesBefore, propertyRepository.count());
+        reconciledAt = Instant.now();
+        // reconciledAt is part of the body, so every run moves the ETag on
+        resourceVersions.bump(ResourceVersions.ADMIN_STATS);
+    }
+
+    private void adjust(String name, LongAdder counter, long before, long actual) {
+        long current = counter.sum();
+        if (current != before) {
+            log.debug("Skipped reconciling {} count, it changed during the query", name);
+            return;
+        }
+        if (current != actual) {
+            counter.add(actual - current);
+            // Expected once at startup; later drift means a write path is not reporting its changes
+            if (reconciledAt != null) {
+                log.warn("Reconciled {} count from {} to {}", name, current, actual);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.amalitech.propertymanagementapi.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Defers in-memory bookkeeping until the surrounding transaction commits, so rolled-back writes leave no trace. */
+final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /** Runs the action after commit, or immediately when no transaction is active. */
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
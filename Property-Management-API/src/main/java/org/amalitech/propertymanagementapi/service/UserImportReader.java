@@ -0,0 +1,115 @@
+package org.amalitech.propertymanagementapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.propertymanagementapi.dto.UserImportRow;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads import rows one line at a time, so only the current line is held in memory.
+ * CSV rows are {@code email,password[,role]} with an optional header line and RFC 4180 quoting;
+ * NDJSON rows are objects with the same field names. A malformed line yields a row with an error
+ * instead of aborting the import.
+ */
+class UserImportReader {
+
+    static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    enum Format {
+        CSV, NDJSON;
+
+        static Format of(MediaType contentType) {
+            return TEXT_CSV.isCompatibleWith(contentType) ? CSV : NDJSON;
+        }
+    }
+
+    record ParsedRow(int line, UserImportRow row, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private int lineNumber;
+
+    UserImportReader(BufferedReader reader, Format format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the next non-blank row, or {@code null} at the end of the input.
+     */
+    ParsedRow read() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && isHeader(line))) {
+                continue;
+            }
+            try {
+                return new ParsedRow(lineNumber, format == Format.CSV ? parseCsv(line) : parseJson(line), null);
+            } catch (IllegalArgumentException e) {
+                return new ParsedRow(lineNumber, null, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private UserImportRow parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, UserImportRow.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON row");
+        }
+    }
+
+    private static UserImportRow parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() < 2 || fields.size() > 3) {
+            throw new IllegalArgumentException("Expected email,password[,role]");
+        }
+        return new UserImportRow(fields.get(0).trim(), fields.get(1), fields.size() == 3 ? fields.get(2).trim() : null);
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static boolean isHeader(String line) {
+        return line.trim().toLowerCase(Locale.ROOT).startsWith("email,");
+    }
+}
@@ -0,0 +1,244 @@
+package org.amalitech.propertymanagementapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.propertymanagementapi.dto.UserImportResult;
+import org.amalitech.propertymanagementapi.dto.UserImportRow;
+import org.amalitech.propertymanagementapi.dto.UserImportSummary;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.security.PasswordHashingExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bulk user import. The input is read and processed in fixed-size chunks: each chunk is checked
+ * against existing emails with one query, its passwords are hashed in parallel on the hashing pool,
+ * and its users are inserted as JDBC batches in one transaction. One NDJSON result line per row is
+ * written and flushed after every chunk, followed by a summary line.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserImportService {
+    
+    private static final byte[] NEWLINE = {'\n'};
+    
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final StatisticsService statisticsService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${security.user-import.chunk-size:500}")
+    private int chunkSize;
+    
+    public UserImportSummary importUsers(InputStream body, MediaType contentType, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        UserImportReader reader = new UserImportReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+                UserImportReader.Format.of(contentType),
+                objectMapper);
+        
+        long[] counts = new long[UserImportResult.Status.values().length];
+        List<UserImportReader.ParsedRow> chunk = new ArrayList<>(chunkSize);
+        UserImportReader.ParsedRow row;
+        while ((row = reader.read()) != null) {
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                write(importChunk(chunk), counts, out);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(importChunk(chunk), counts, out);
+        }
+        
+        long elapsedNanos = System.nanoTime() - start;
+        long rows = Arrays.stream(counts).sum();
+        UserImportSummary summary = UserImportSummary.builder()
+                .summary(true)
+                .rows(rows)
+                .created(counts[UserImportResult.Status.CREATED.ordinal()])
+                .duplicates(counts[UserImportResult.Status.DUPLICATE.ordinal()])
+                .invalid(counts[UserImportResult.Status.INVALID.ordinal()])
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .rowsPerSecond(elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos)
+                .build();
+        out.write(objectMapper.writeValueAsBytes(summary));
+        out.write(NEWLINE);
+        out.flush();
+        
+        log.info("Imported {} of {} users ({} duplicates, {} invalid) in {} ms",
+                summary.getCreated(), rows, summary.getDuplicates(), summary.getInvalid(), summary.getElapsedMillis());
+        return summary;
+    }
+    
+    private UserImportResult[] importChunk(List<UserImportReader.ParsedRow> chunk) {
+        UserImportResult[] results = new UserImportResult[chunk.size()];
+        Role[] roles = new Role[chunk.size()];
+        
+        // Validation and duplicates within the chunk
+        Set<String> emailKeys = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            UserImportReader.ParsedRow parsed = chunk.get(i);
+            String error = parsed.error() != null ? parsed.error() : validate(parsed.row());
+            if (error == null) {
+                roles[i] = parseRole(parsed.row().getRole());
+                if (roles[i] == null) {
+                    error = "Unknown role: " + parsed.row().getRole();
+                }
+            }
+            if (error != null) {
+                results[i] = result(parsed, UserImportResult.Status.INVALID, null, error);
+            } else if (!emailKeys.add(User.normalizeEmail(parsed.row().getEmail()))) {
+                results[i] = result(parsed, UserImportResult.Status.DUPLICATE, null, "Duplicate email in import");
+            }
+        }
+        
+        // Emails that already exist, with one query per chunk
+        Set<String> existing = emailKeys.isEmpty() ? Set.of() : userRepository.findExistingEmailKeys(emailKeys);
+        
+        // Hash the remaining rows in parallel, at most a few tasks per hashing thread so logins keep their share
+        Semaphore inFlight = new Semaphore(hashingExecutor.getPoolSize() * 2);
+        List<CompletableFuture<String>> hashes = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            UserImportReader.ParsedRow parsed = chunk.get(i);
+            if (results[i] == null && existing.contains(User.normalizeEmail(parsed.row().getEmail()))) {
+                results[i] = result(parsed, UserImportResult.Status.DUPLICATE, null, "Email is already registered");
+            }
+            if (results[i] != null) {
+                hashes.add(null);
+                continue;
+            }
+            inFlight.acquireUninterruptibly();
+            String rawPassword = parsed.row().getPassword();
+            hashes.add(hashingExecutor.submit("import", () -> passwordEncoder.encode(rawPassword))
+                    .whenComplete((hash, e) -> inFlight.release()));
+        }
+        
+        List<Integer> pending = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] == null) {
+                pending.add(i);
+                users.add(newUser(chunk.get(i).row(), hashes.get(i), roles[i]));
+            }
+        }
+        if (!users.isEmpty()) {
+            insert(chunk, pending, users, results);
+        }
+        return results;
+    }
+    
+    private void insert(List<UserImportReader.ParsedRow> chunk, List<Integer> pending, List<User> users,
+                        UserImportResult[] results) {
+        try {
+            userRepository.saveAll(users);
+            users.forEach(user -> statisticsService.userCreated(user.getRole()));
+            for (int p = 0; p < pending.size(); p++) {
+                results[pending.get(p)] = result(chunk.get(pending.get(p)), UserImportResult.Status.CREATED,
+                        users.get(p).getId(), null);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration took one of the emails; retry row by row to find out which
+            log.warn("Batch insert failed, retrying {} rows individually: {}", users.size(), e.getMostSpecificCause().getMessage());
+            for (int p = 0; p < pending.size(); p++) {
+                UserImportReader.ParsedRow parsed = chunk.get(pending.get(p));
+                User user = users.get(p);
+                user.setId(null);
+                try {
+                    User saved = userRepository.saveAndFlush(user);
+                    statisticsService.userCreated(saved.getRole());
+                    results[pending.get(p)] = result(parsed, UserImportResult.Status.CREATED, saved.getId(), null);
+                } catch (DataIntegrityViolationException rowException) {
+                    results[pending.get(p)] = UserService.isDuplicateEmail(rowException)
+                            ? result(parsed, UserImportResult.Status.DUPLICATE, null, "Email is already registered")
+                            : result(parsed, UserImportResult.Status.INVALID, null, "Row violates a database constraint");
+                }
+            }
+        } finally {
+            // Inserted users must not accumulate in a request-scoped persistence context
+            entityManager.clear();
+        }
+    }
+    
+    private void write(UserImportResult[] results, long[] counts, OutputStream out) throws IOException {
+        for (UserImportResult result : results) {
+            counts[result.getStatus().ordinal()]++;
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write(NEWLINE);
+        }
+        out.flush();
+    }
+    
+    private String validate(UserImportRow row) {
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+    
+    private static Role parseRole(String role) {
+        if (role == null || role.isBlank()) {
+            return Role.USER;
+        }
+        try {
+            return Role.valueOf(role.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private static User newUser(UserImportRow row, CompletableFuture<String> hash, Role role) {
+        String password;
+        try {
+            password = hash.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return User.builder()
+                .email(row.getEmail())
+                .password(password)
+                .role(role)
+                .build();
+    }
+    
+    private static UserImportResult result(UserImportReader.ParsedRow parsed, UserImportResult.Status status,
+                                           Long id, String message) {
+        return UserImportResult.builder()
+                .line(parsed.line())
+                .email(parsed.row() != null ? parsed.row().getEmail() : null)
+                .status(status)
+                .id(id)
+                .message(message)
+                .build();
+    }
+}
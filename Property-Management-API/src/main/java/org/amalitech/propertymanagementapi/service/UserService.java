@@ -4,13 +4,21 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.amalitech.propertymanagementapi.dto.RegisterRequest;
 import org.amalitech.propertymanagementapi.exception.DuplicateEmailException;
+import org.amalitech.propertymanagementapi.exception.UserNotFoundException;
 import org.amalitech.propertymanagementapi.model.Role;
 import org.amalitech.propertymanagementapi.model.User;
 import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.security.AuthMetrics;
+import org.amalitech.propertymanagementapi.security.CachedUserDetailsService;
+import org.amalitech.propertymanagementapi.security.TokenRevocationService;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Locale;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -18,17 +26,16 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CachedUserDetailsService userDetailsCache;
+    private final AuthMetrics authMetrics;
+    private final TokenRevocationService tokenRevocationService;
+    private final StatisticsService statisticsService;
     
     @Transactional
     public User register(RegisterRequest request) {
+        long start = System.nanoTime();
         log.info("Attempting to register user with email: {}", request.getEmail());
         
-        // Check if email already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            log.warn("Registration failed: email already exists - {}", request.getEmail());
-            throw new DuplicateEmailException("Email is already registered");
-        }
-        
         // Create new user with default role
         User user = User.builder()
                 .email(request.getEmail())
@@ -36,9 +43,53 @@ public class UserService {
                 .role(Role.USER)
                 .build();
         
-        User savedUser = userRepository.save(user);
+        // Single insert; the unique constraint on email rejects duplicates, including concurrent ones
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateEmail(e)) {
+                throw e;
+            }
+            authMetrics.recordRegistration(true, start);
+            log.warn("Registration failed: email already exists - {}", request.getEmail());
+            throw new DuplicateEmailException("Email is already registered");
+        }
+        userDetailsCache.evict(savedUser.getEmail());
+        statisticsService.userCreated(savedUser.getRole());
+        authMetrics.recordRegistration(false, start);
         log.info("User registered successfully with id: {} and role: {}", savedUser.getId(), savedUser.getRole());
         
         return savedUser;
     }
+    
+    /**
+     * Changes the user's role and revokes all their tokens, so the old role stops working immediately
+     * instead of when the tokens expire. The role and the epoch commit together, and the row lock keeps
+     * a concurrent change from counting against a role that is already gone.
+     */
+    @Transactional
+    public User changeRole(Long userId, Role role) {
+        User user = userRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+        Role previous = user.getRole();
+        user.setRole(role);
+        userRepository.save(user);
+        user.setTokenEpoch(tokenRevocationService.revokeAllTokens(user.getId(), user.getEmail()));
+        // Counted after commit, so a change rolled back with a failed revocation leaves the figures alone
+        statisticsService.roleChanged(previous, role);
+        
+        log.info("Changed role of user {} from {} to {}", user.getEmail(), previous, role);
+        return user;
+    }
+    
+    static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraint = violation.getConstraintName();
+                return constraint != null && constraint.toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,143 @@
+package org.amalitech.propertymanagementapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.dto.RegisterRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Compares requests/sec and p99 latency of /api/test/secure with and without the per-request user lookup.
+ * Run with: mvn test -Pbenchmark -Dtest=ClaimsOnlyAuthenticationBenchmarkTest
+ */
+@Tag("benchmark")
+class ClaimsOnlyAuthenticationBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int WARMUP_REQUESTS_PER_THREAD = 500;
+    private static final int MEASURED_REQUESTS_PER_THREAD = 2_500;
+
+    @Nested
+    @SpringBootTest
+    @AutoConfigureMockMvc
+    @TestPropertySource(properties = {
+            "jwt.claims-only-authentication=false",
+            "spring.jpa.show-sql=false",
+            "logging.level.org.springframework.security=INFO"
+    })
+    class WithUserLookup extends SecureEndpointBenchmark {
+        WithUserLookup() {
+            super("database lookup");
+        }
+    }
+
+    @Nested
+    @SpringBootTest
+    @AutoConfigureMockMvc
+    @TestPropertySource(properties = {
+            "jwt.claims-only-authentication=true",
+            "spring.jpa.show-sql=false",
+            "logging.level.org.springframework.security=INFO"
+    })
+    class ClaimsOnly extends SecureEndpointBenchmark {
+        ClaimsOnly() {
+            super("claims only");
+        }
+    }
+
+    abstract static class SecureEndpointBenchmark {
+
+        private final String mode;
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        SecureEndpointBenchmark(String mode) {
+            this.mode = mode;
+        }
+
+        @Test
+        @DisplayName("Measure /api/test/secure throughput and p99 latency")
+        void benchmarkSecureEndpoint() throws Exception {
+            String token = obtainToken("benchmark-secure@example.com", "password123");
+
+            runRequests(token, WARMUP_REQUESTS_PER_THREAD);
+
+            long start = System.nanoTime();
+            long[] latencies = runRequests(token, MEASURED_REQUESTS_PER_THREAD);
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            double requestsPerSecond = latencies.length / (elapsed / 1_000_000_000.0);
+            long p50 = latencies[(int) (latencies.length * 0.50)];
+            long p99 = latencies[(int) (latencies.length * 0.99)];
+
+            System.out.printf("[%s] requests=%d throughput=%.0f req/s p50=%.3f ms p99=%.3f ms%n",
+                    mode, latencies.length, requestsPerSecond, p50 / 1_000_000.0, p99 / 1_000_000.0);
+        }
+
+        private long[] runRequests(String token, int requestsPerThread) throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<long[]>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    futures.add(executor.submit(() -> {
+                        long[] samples = new long[requestsPerThread];
+                        for (int i = 0; i < requestsPerThread; i++) {
+                            long begin = System.nanoTime();
+                            int status = mockMvc.perform(get("/api/test/secure")
+                                            .header("Authorization", "Bearer " + token))
+                                    .andReturn().getResponse().getStatus();
+                            samples[i] = System.nanoTime() - begin;
+                            assertEquals(200, status);
+                        }
+                        return samples;
+                    }));
+                }
+
+                long[] all = new long[THREADS * requestsPerThread];
+                for (int t = 0; t < THREADS; t++) {
+                    System.arraycopy(futures.get(t).get(), 0, all, t * requestsPerThread, requestsPerThread);
+                }
+                return all;
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        private String obtainToken(String email, String password) throws Exception {
+            mockMvc.perform(post("/api/auth/register")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new RegisterRequest(email, password))));
+
+            MvcResult result = mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new LoginRequest(email, password))))
+                    .andReturn();
+            return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+        }
+    }
+}
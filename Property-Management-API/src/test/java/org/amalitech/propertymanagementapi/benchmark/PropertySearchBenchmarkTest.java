@@ -0,0 +1,136 @@
+package org.amalitech.propertymanagementapi.benchmark;
+
+import org.amalitech.propertymanagementapi.dto.PropertySummary;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.amalitech.propertymanagementapi.repository.PropertySearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Times the listing search at page 1 and page 10,000 (20 rows per page) over a seeded table of 5M
+ * listings, with OFFSET pagination alongside for comparison. The table is kept in a file database
+ * under target/, so only the first run pays for seeding.
+ * Run with: mvn test -Pbenchmark -Dtest=PropertySearchBenchmarkTest [-Dbenchmark.properties.rows=5000000]
+ */
+@Tag("benchmark")
+@SpringBootTest
+@TestPropertySource(properties = {
+        // Result reuse would answer repeated identical queries from memory and hide the real cost
+        "spring.datasource.url=jdbc:h2:file:./target/property-search/propertydb;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=INFO"
+})
+class PropertySearchBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.properties.rows", 5_000_000);
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 10_000;
+    private static final long FIRST_ID = 1_000_000_000L;
+    private static final long AGENT_ID = 900_000_000L;
+    private static final String CITY = "City 3";
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("select count(*) from properties where id >= ?", Long.class, FIRST_ID) >= ROWS) {
+            return;
+        }
+        long start = System.nanoTime();
+        jdbcTemplate.update("delete from properties where id >= ?", FIRST_ID);
+        jdbcTemplate.update("""
+                merge into users (id, email, email_key, password, role, created_at)
+                key (id) values (?, 'search-bench@example.com', 'search-bench@example.com', 'not-used', 'AGENT',
+                current_timestamp)""", AGENT_ID);
+        // 10 cities, 70% available, prices spread over 50k-1M with many duplicates
+        jdbcTemplate.update("""
+                insert into properties (id, agent_id, title, city, price, bedrooms, status, created_at, updated_at)
+                select ? + x, ?, 'Listing ' || x, 'City ' || mod(x, 10),
+                       50000 + mod(x * 7919, 950) * 1000, mod(x, 6),
+                       case when mod(x, 10) < 7 then 'AVAILABLE' when mod(x, 10) < 9 then 'SOLD' else 'PENDING_APPROVAL' end,
+                       current_timestamp, current_timestamp
+                from system_range(1, ?)""", FIRST_ID, AGENT_ID, ROWS);
+        jdbcTemplate.execute("analyze");
+        System.out.printf("[property search] seeded %d listings in %d s%n", ROWS, (System.nanoTime() - start) / 1_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("Keyset page latency should stay flat from page 1 to page 10,000")
+    void testDeepPageLatency() {
+        for (String city : new String[]{CITY, null}) {
+            String cityClause = city == null ? "" : " and city = '" + city + "'";
+            String offsetSql = "select id, price from properties where status = 'AVAILABLE'" + cityClause
+                    + " order by price, id limit " + PAGE_SIZE + " offset ";
+            // Smaller seeds (benchmark.properties.rows) may not reach page 10,000
+            long matching = jdbcTemplate.queryForObject(
+                    "select count(*) from properties where status = 'AVAILABLE'" + cityClause, Long.class);
+            long deepPageNumber = Math.min(DEEP_PAGE, matching / PAGE_SIZE);
+            long deepOffset = (deepPageNumber - 1) * PAGE_SIZE;
+
+            // The last row of the previous page is the cursor a client would hold when asking for the deep page
+            long offsetStart = System.nanoTime();
+            Map<String, Object> last = jdbcTemplate.queryForMap(
+                    offsetSql.replace("limit " + PAGE_SIZE, "limit 1") + (deepOffset - 1));
+            double firstOffsetMillis = (System.nanoTime() - offsetStart) / 1e6;
+            BigDecimal afterPrice = (BigDecimal) last.get("PRICE");
+            Long afterId = ((Number) last.get("ID")).longValue();
+
+            double firstPage = medianMillis(() -> search(city, null, null), 200, 51);
+            double deepPage = medianMillis(() -> search(city, afterPrice, afterId), 200, 51);
+            // A deep OFFSET page takes seconds, so it gets only a few samples
+            double offsetDeepPage = medianMillis(() -> jdbcTemplate.queryForList(offsetSql + deepOffset), 1, 5);
+
+            List<PropertySummary> page = search(city, afterPrice, afterId);
+            assertEquals(PAGE_SIZE, page.size());
+            assertEquals(((Number) jdbcTemplate.queryForList(offsetSql + deepOffset).get(0).get("ID")).longValue(),
+                    page.get(0).getId());
+
+            System.out.printf("[property search, %s] keyset page 1: %.2f ms, keyset page %d: %.2f ms, "
+                            + "offset page %d: %.2f ms (first run %.0f ms)%n",
+                    city == null ? "all cities" : city, firstPage, deepPageNumber, deepPage, deepPageNumber, offsetDeepPage,
+                    firstOffsetMillis);
+            assertTrue(deepPage < firstPage * 3 + 2,
+                    () -> "Deep keyset page took " + deepPage + " ms vs " + firstPage + " ms for page 1");
+        }
+    }
+
+    private List<PropertySummary> search(String city, BigDecimal afterPrice, Long afterId) {
+        return propertyRepository.search(new PropertySearchRepository.Filter(PropertyStatus.AVAILABLE, city,
+                null, null, null, null, afterPrice, afterId), PAGE_SIZE);
+    }
+
+    private static double medianMillis(Supplier<?> query, int warmups, int runs) {
+        for (int i = 0; i < warmups; i++) {
+            query.get();
+        }
+        double[] samples = new double[runs];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            query.get();
+            samples[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+}
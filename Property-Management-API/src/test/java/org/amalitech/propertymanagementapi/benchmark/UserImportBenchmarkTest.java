@@ -0,0 +1,241 @@
+package org.amalitech.propertymanagementapi.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.security.JwtTokenProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.convention.TestBean;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Streams a generated 100k-row NDJSON file into /api/admin/users/import and reports rows/sec, once with
+ * BCrypt at its minimum cost and once with hashing stubbed out to isolate parsing, batching and inserts.
+ * With a production cost the import is bounded by hashing (roughly hashing threads / hash time).
+ * Run with: mvn test -Pbenchmark -Dtest=UserImportBenchmarkTest [-Dbenchmark.import.rows=100000]
+ */
+@Tag("benchmark")
+class UserImportBenchmarkTest {
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:importbench-bcrypt;DB_CLOSE_DELAY=-1",
+            "security.password-hashing.strength=4",
+            "spring.jpa.show-sql=false",
+            "logging.level.org.springframework.security=INFO"
+    })
+    class WithBcrypt extends ImportBenchmark {
+        WithBcrypt() {
+            super("bcrypt cost 4");
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:importbench-nohash;DB_CLOSE_DELAY=-1",
+            "spring.jpa.show-sql=false",
+            "logging.level.org.springframework.security=INFO"
+    })
+    class WithoutHashing extends ImportBenchmark {
+
+        @TestBean
+        private PasswordEncoder passwordEncoder;
+
+        WithoutHashing() {
+            super("no hashing");
+        }
+
+        // Keeps the raw password, so the run measures everything but the hash
+        static PasswordEncoder passwordEncoder() {
+            return new PasswordEncoder() {
+                @Override
+                public String encode(CharSequence rawPassword) {
+                    return rawPassword.toString();
+                }
+
+                @Override
+                public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                    return rawPassword.toString().equals(encodedPassword);
+                }
+            };
+        }
+    }
+
+    abstract static class ImportBenchmark {
+
+        private final String mode;
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private JwtTokenProvider jwtTokenProvider;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        ImportBenchmark(String mode) {
+            this.mode = mode;
+        }
+
+        @Test
+        @DisplayName("Measure rows/sec for a streamed NDJSON import")
+        void benchmarkImport() throws Exception {
+            int rows = Integer.getInteger("benchmark.import.rows", 100_000);
+            User admin = userRepository.save(User.builder()
+                    .email("import-bench-admin-" + System.nanoTime() + "@example.com")
+                    .password("not-used")
+                    .role(Role.ADMIN)
+                    .build());
+            String token = jwtTokenProvider.generateToken(admin, admin.getRole().name());
+
+            // Warm up with a small import so the measured run is not dominated by JIT compilation
+            runImport(token, "warmup", 5_000);
+            JsonNode summary = runImport(token, "measured", rows);
+
+            assertEquals(rows, summary.get("created").asLong());
+            System.out.printf("[user import, %s] rows=%d elapsed=%d ms throughput=%.0f rows/s%n",
+                    mode, rows, summary.get("elapsedMillis").asLong(), summary.get("rowsPerSecond").asDouble());
+        }
+
+        // The JDK HttpClient only reads the response after sending the whole body, which stalls once the
+        // server's per-row results fill the socket buffers. A raw socket lets us upload and read concurrently.
+        private JsonNode runImport(String token, String prefix, int rows) throws Exception {
+            try (Socket socket = new Socket("localhost", port);
+                 ExecutorService uploader = Executors.newSingleThreadExecutor()) {
+                OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+                long start = System.nanoTime();
+
+                Future<?> upload = uploader.submit(() -> {
+                    out.write(("POST /api/admin/users/import HTTP/1.1\r\n"
+                            + "Host: localhost\r\n"
+                            + "Authorization: Bearer " + token + "\r\n"
+                            + "Content-Type: application/x-ndjson\r\n"
+                            + "Transfer-Encoding: chunked\r\n"
+                            + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                    StringBuilder chunk = new StringBuilder();
+                    for (int i = 0; i < rows; i++) {
+                        chunk.append("{\"email\":\"").append(prefix).append('-').append(i)
+                                .append("@import.example.com\",\"password\":\"password123\"}\n");
+                        if (chunk.length() > 16 * 1024 || i == rows - 1) {
+                            byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+                            out.write((Integer.toHexString(bytes.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                            out.write(bytes);
+                            out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+                            chunk.setLength(0);
+                        }
+                    }
+                    out.write("0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                    return null;
+                });
+
+                JsonNode summary = null;
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        new ChunkedInputStream(socket.getInputStream()), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.startsWith("{\"summary\"")) {
+                            summary = objectMapper.readTree(line);
+                        }
+                    }
+                }
+                upload.get();
+
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                System.out.printf("[user import, %s, %s] rows=%d client throughput=%.0f rows/s%n", mode, prefix, rows, rows / seconds);
+                return summary;
+            }
+        }
+
+        /**
+         * Skips the response head, checks for 200 and decodes a chunked body.
+         */
+        private static final class ChunkedInputStream extends InputStream {
+
+            private final InputStream in;
+            private int remaining;
+            private boolean finished;
+
+            ChunkedInputStream(InputStream in) throws IOException {
+                this.in = new BufferedInputStream(in);
+                String status = readLine();
+                assertTrue(status.startsWith("HTTP/1.1 200"), status);
+                while (!readLine().isEmpty()) {
+                    // Response headers
+                }
+            }
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (finished) {
+                    return -1;
+                }
+                if (remaining == 0) {
+                    remaining = Integer.parseInt(readLine().trim(), 16);
+                    if (remaining == 0) {
+                        finished = true;
+                        return -1;
+                    }
+                }
+                int read = in.read(buffer, offset, Math.min(length, remaining));
+                if (read == -1) {
+                    throw new EOFException("Connection closed inside a chunk");
+                }
+                remaining -= read;
+                if (remaining == 0) {
+                    readLine();
+                }
+                return read;
+            }
+
+            private String readLine() throws IOException {
+                StringBuilder line = new StringBuilder();
+                int c;
+                while ((c = in.read()) != -1 && c != '\n') {
+                    if (c != '\r') {
+                        line.append((char) c);
+                    }
+                }
+                return line.toString();
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.amalitech.propertymanagementapi.benchmark;
+
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.security.JwtTokenProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the platform-thread Tomcat pool with the virtual-threads profile under 1k and 10k concurrent
+ * connections. Each request to /api/test/secure performs a blocking findByEmail because the user cache
+ * is disabled. Client and server share one JVM, so memory figures are relative, not absolute.
+ * Run with: mvn test -Pbenchmark -Dtest=VirtualThreadComparisonBenchmarkTest [-Dbenchmark.concurrency=1000,10000]
+ */
+@Tag("benchmark")
+class VirtualThreadComparisonBenchmarkTest {
+
+    private static final int REQUESTS_PER_CONNECTION = 10;
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @TestPropertySource(properties = {
+            "spring.threads.virtual.enabled=false",
+            "server.tomcat.max-connections=10000",
+            "server.tomcat.accept-count=10000",
+            "security.user-cache.enabled=false",
+            "spring.jpa.show-sql=false",
+            "logging.level.org.springframework.security=INFO"
+    })
+    class PlatformThreads extends ConcurrentConnectionsBenchmark {
+        PlatformThreads() {
+            super("platform threads");
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @TestPropertySource(properties = {
+            "spring.threads.virtual.enabled=true",
+            "server.tomcat.max-connections=10000",
+            "server.tomcat.accept-count=10000",
+            "security.user-cache.enabled=false",
+            "spring.jpa.show-sql=false",
+            "logging.level.org.springframework.security=INFO"
+    })
+    class VirtualThreads extends ConcurrentConnectionsBenchmark {
+        VirtualThreads() {
+            super("virtual threads");
+        }
+    }
+
+    abstract static class ConcurrentConnectionsBenchmark {
+
+        private final String mode;
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private JwtTokenProvider jwtTokenProvider;
+
+        ConcurrentConnectionsBenchmark(String mode) {
+            this.mode = mode;
+        }
+
+        @Test
+        @DisplayName("Measure throughput and memory at 1k and 10k concurrent connections")
+        void benchmarkConcurrentConnections() throws Exception {
+            User user = userRepository.findByEmail("benchmark-vt@example.com")
+                    .orElseGet(() -> userRepository.save(User.builder()
+                            .email("benchmark-vt@example.com")
+                            .password("not-used")
+                            .role(Role.USER)
+                            .build()));
+            String token = jwtTokenProvider.generateToken(user, user.getRole().name());
+
+            // Warm up JIT and connection setup so the first measured level is not penalised
+            run(token, 200, false);
+            for (String level : System.getProperty("benchmark.concurrency", "1000,10000").split(",")) {
+                run(token, Integer.parseInt(level.trim()), true);
+            }
+        }
+
+        private void run(String token, int connections, boolean report) throws Exception {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            System.gc();
+            threads.resetPeakThreadCount();
+            long heapBefore = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/test/secure"))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            AtomicInteger errors = new AtomicInteger();
+            long[] latencies = new long[connections * REQUESTS_PER_CONNECTION];
+            long maxHeap = 0;
+
+            long start = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+                 HttpClient client = HttpClient.newBuilder()
+                         .version(HttpClient.Version.HTTP_1_1)
+                         .executor(clients)
+                         .connectTimeout(Duration.ofSeconds(30))
+                         .build()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int c = 0; c < connections; c++) {
+                    int offset = c * REQUESTS_PER_CONNECTION;
+                    futures.add(clients.submit(() -> {
+                        for (int i = 0; i < REQUESTS_PER_CONNECTION; i++) {
+                            long begin = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                                if (response.statusCode() != 200) {
+                                    errors.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                errors.incrementAndGet();
+                            }
+                            latencies[offset + i] = System.nanoTime() - begin;
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                    maxHeap = Math.max(maxHeap, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            if (!report) {
+                return;
+            }
+
+            Arrays.sort(latencies);
+            System.out.printf("[%s] connections=%d requests=%d errors=%d throughput=%.0f req/s p50=%.1f ms p99=%.1f ms "
+                            + "peakThreads=%d heapGrowth=%d MB%n",
+                    mode, connections, latencies.length, errors.get(),
+                    latencies.length / (elapsed / 1_000_000_000.0),
+                    latencies[(int) (latencies.length * 0.50)] / 1_000_000.0,
+                    latencies[(int) (latencies.length * 0.99)] / 1_000_000.0,
+                    threads.getPeakThreadCount(),
+                    (maxHeap - heapBefore) / (1024 * 1024));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.model.Property;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.service.AgentDashboardService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AgentDashboardIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AgentDashboardService agentDashboardService;
+
+    private User createAgent(String email) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .password(passwordEncoder.encode("password123"))
+                .role(Role.AGENT)
+                .build());
+    }
+
+    private void createProperty(User agent, PropertyStatus status, String price) {
+        propertyRepository.save(Property.builder()
+                .agent(agent)
+                .title("Listing")
+                .city("Accra")
+                .price(new BigDecimal(price))
+                .bedrooms(2)
+                .status(status)
+                .build());
+    }
+
+    private String login(String email) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email, "password123"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    @Test
+    @DisplayName("Should show the agent's own listing figures and refresh them after eviction")
+    void testDashboardFigures() throws Exception {
+        User agent = createAgent("dashboard-agent@test.com");
+        User otherAgent = createAgent("dashboard-other@test.com");
+        createProperty(agent, PropertyStatus.PENDING_APPROVAL, "120000.00");
+        createProperty(agent, PropertyStatus.AVAILABLE, "250000.00");
+        createProperty(agent, PropertyStatus.AVAILABLE, "300000.00");
+        createProperty(agent, PropertyStatus.SOLD, "90000.00");
+        createProperty(otherAgent, PropertyStatus.AVAILABLE, "999999.00");
+        String token = login("dashboard-agent@test.com");
+
+        mockMvc.perform(get("/api/agent/dashboard").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.myProperties").value(4))
+                .andExpect(jsonPath("$.pendingApprovals").value(1))
+                .andExpect(jsonPath("$.available").value(2))
+                .andExpect(jsonPath("$.sold").value(1))
+                .andExpect(jsonPath("$.availableValue").value(550000.00));
+
+        // Written behind the service's back: served from the cache until the agent is evicted
+        createProperty(agent, PropertyStatus.PENDING_APPROVAL, "80000.00");
+        mockMvc.perform(get("/api/agent/dashboard").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.myProperties").value(4));
+
+        agentDashboardService.evict(agent.getId());
+        mockMvc.perform(get("/api/agent/dashboard").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.myProperties").value(5))
+                .andExpect(jsonPath("$.pendingApprovals").value(2));
+    }
+}
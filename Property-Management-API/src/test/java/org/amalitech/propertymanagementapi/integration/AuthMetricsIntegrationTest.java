@@ -0,0 +1,159 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.dto.RegisterRequest;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class AuthMetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private long timerCount(String name, String outcome) {
+        return meterRegistry.get(name).tag("outcome", outcome).timer().count();
+    }
+
+    private double filterCount(String outcome) {
+        return meterRegistry.get("jwt.filter.requests").tag("outcome", outcome).counter().count();
+    }
+
+    private void register(String email) throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RegisterRequest(email, "password123"))));
+    }
+
+    private void login(String email, String password) throws Exception {
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest(email, password))));
+    }
+
+    private String adminToken() throws Exception {
+        String email = "metrics-admin@test.com";
+        if (!userRepository.existsByEmail(email)) {
+            userRepository.save(User.builder()
+                    .email(email)
+                    .password(passwordEncoder.encode("password123"))
+                    .role(Role.ADMIN)
+                    .build());
+        }
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email, "password123"))))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    @Test
+    @DisplayName("Should time login and registration by outcome")
+    void testLoginAndRegistrationMetrics() throws Exception {
+        long registered = timerCount("auth.register", "success");
+        long duplicates = timerCount("auth.register", "duplicate");
+        long successes = timerCount("auth.login", "success");
+        long failures = timerCount("auth.login", "failure");
+
+        register("metrics-login@test.com");
+        register("metrics-login@test.com");
+        login("metrics-login@test.com", "password123");
+        login("metrics-login@test.com", "wrongpassword");
+
+        assertEquals(registered + 1, timerCount("auth.register", "success"));
+        assertEquals(duplicates + 1, timerCount("auth.register", "duplicate"));
+        assertEquals(successes + 1, timerCount("auth.login", "success"));
+        assertEquals(failures + 1, timerCount("auth.login", "failure"));
+    }
+
+    @Test
+    @DisplayName("Should count JWT filter outcomes")
+    void testFilterOutcomeMetrics() throws Exception {
+        double noHeader = filterCount("no_header");
+        double invalid = filterCount("invalid");
+        long invalidVerifications = timerCount("jwt.verify", "invalid");
+
+        mockMvc.perform(get("/api/test/secure"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/test/secure")
+                        .header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().isForbidden());
+
+        assertEquals(noHeader + 1, filterCount("no_header"));
+        assertEquals(invalid + 1, filterCount("invalid"));
+        assertEquals(invalidVerifications + 1, timerCount("jwt.verify", "invalid"));
+    }
+
+    @Test
+    @DisplayName("Should expose auth metrics on the Prometheus endpoint")
+    void testPrometheusEndpoint() throws Exception {
+        login("metrics-unknown@test.com", "password123");
+        String adminToken = adminToken();
+
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("auth_login_seconds_count{application=\"Property-Management-API\",outcome=\"failure\"}")))
+                .andExpect(content().string(containsString("auth_login_seconds_bucket")))
+                .andExpect(content().string(containsString("jwt_filter_requests_total")))
+                .andExpect(content().string(containsString("security_user_lookup_seconds_count")));
+    }
+
+    @Test
+    @DisplayName("Should keep metrics admin-only while health stays public")
+    void testActuatorAccess() throws Exception {
+        register("metrics-user@test.com");
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("metrics-user@test.com", "password123"))))
+                .andReturn();
+        String userToken = objectMapper.readTree(login.getResponse().getContentAsString()).get("token").asText();
+
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.components").doesNotExist());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics/auth.login")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics/auth.login")
+                        .header("Authorization", "Bearer " + adminToken()))
+                .andExpect(status().isOk());
+    }
+}
@@ -47,6 +47,34 @@ class AuthenticationIntegrationTest {
                 .andExpect(jsonPath("$.role").value("USER"));
     }
     
+    @Test
+    @DisplayName("Should reject a registration that differs from an existing email only by case")
+    void testRegisterDuplicateEmailIgnoresCase() throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RegisterRequest("casetest@example.com", "password123"))))
+                .andExpect(status().isCreated());
+        
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RegisterRequest("CaseTest@Example.COM", "password123"))))
+                .andExpect(status().isConflict());
+    }
+    
+    @Test
+    @DisplayName("Should login with a differently capitalized email and return the stored address")
+    void testLoginIgnoresEmailCase() throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RegisterRequest("MixedCase@example.com", "password123"))));
+        
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("mixedcase@EXAMPLE.com", "password123"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("MixedCase@example.com"));
+    }
+    
     @Test
     @DisplayName("Should return 401 for invalid credentials")
     void testLoginInvalidCredentials() throws Exception {
@@ -0,0 +1,91 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "jwt.claims-only-authentication=true")
+class ClaimsOnlyAuthenticationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String loginAs(String email, Role role) throws Exception {
+        User user = userRepository.findByEmail(email).orElseGet(() -> userRepository.save(User.builder()
+                .email(email)
+                .password(passwordEncoder.encode("password123"))
+                .role(role)
+                .build()));
+
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(user.getEmail(), "password123"))))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    @Test
+    @DisplayName("Should authenticate from token claims without the user row")
+    void testAuthenticatesWithoutUserLookup() throws Exception {
+        String token = loginAs("claims-only@test.com", Role.USER);
+        userRepository.delete(userRepository.findByEmail("claims-only@test.com").orElseThrow());
+
+        mockMvc.perform(get("/api/test/secure")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user").value("claims-only@test.com"));
+    }
+
+    @Test
+    @DisplayName("Should enforce role rules using the role claim")
+    void testRoleClaimIsEnforced() throws Exception {
+        String agentToken = loginAs("claims-agent@test.com", Role.AGENT);
+
+        mockMvc.perform(get("/api/agent/dashboard")
+                        .header("Authorization", "Bearer " + agentToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/admin/stats")
+                        .header("Authorization", "Bearer " + agentToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Should reject tampered tokens in claims-only mode")
+    void testTamperedTokenRejected() throws Exception {
+        String token = loginAs("claims-tampered@test.com", Role.USER);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        mockMvc.perform(get("/api/test/secure")
+                        .header("Authorization", "Bearer " + tampered))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,111 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.propertymanagementapi.dto.RegisterRequest;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Fires parallel registrations and checks that the unique constraint, not a pre-check, decides the
+ * outcome. BCrypt is pinned to its minimum cost so the database round trips dominate the timings, which
+ * are logged rather than asserted.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "security.password-hashing.strength=4",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=INFO"
+})
+class ConcurrentRegistrationIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrentRegistrationIntegrationTest.class);
+
+    private static final int THREADS = 16;
+    private static final int REQUESTS = 400;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Should create exactly one user when the same email is registered concurrently")
+    void testConcurrentDuplicateRegistrations() throws Exception {
+        Map<Integer, Long> statuses = register(i -> "concurrent-same@test.com", "same email");
+
+        assertEquals(1L, statuses.get(201));
+        assertEquals(REQUESTS - 1L, statuses.get(409));
+        assertEquals(2, statuses.size());
+        assertTrue(userRepository.findByEmail("concurrent-same@test.com").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should create every user when distinct emails are registered concurrently")
+    void testConcurrentDistinctRegistrations() throws Exception {
+        Map<Integer, Long> statuses = register(i -> "concurrent-" + i + "@test.com", "distinct emails");
+
+        assertEquals(Map.of(201, (long) REQUESTS), statuses);
+    }
+
+    private Map<Integer, Long> register(IntFunction<String> email, String scenario) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                String body = objectMapper.writeValueAsString(new RegisterRequest(email.apply(i), "password123"));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/api/auth/register")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get());
+            }
+            long elapsed = System.nanoTime() - begin;
+
+            Map<Integer, Long> statuses = results.stream()
+                    .collect(Collectors.groupingBy(status -> status, Collectors.counting()));
+            log.info("[registration, {}] requests={} threads={} throughput={} req/s statuses={}",
+                    scenario, REQUESTS, THREADS, Math.round(REQUESTS / (elapsed / 1_000_000_000.0)), statuses);
+            return statuses;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.dto.PropertyRequest;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.service.StatisticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String agentToken;
+    private String adminToken;
+    private String otherAdminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        createUser("etag-agent@test.com", Role.AGENT);
+        createUser("etag-admin@test.com", Role.ADMIN);
+        createUser("etag-other-admin@test.com", Role.ADMIN);
+        agentToken = login("etag-agent@test.com");
+        adminToken = login("etag-admin@test.com");
+        otherAdminToken = login("etag-other-admin@test.com");
+    }
+
+    private void createUser(String email, Role role) {
+        if (userRepository.findByEmail(email).isEmpty()) {
+            userRepository.save(User.builder()
+                    .email(email)
+                    .password(passwordEncoder.encode("password123"))
+                    .role(role)
+                    .build());
+        }
+    }
+
+    private String login(String email) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email, "password123"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private MvcResult poll(String url, String token, String etag, int expectedStatus) throws Exception {
+        MockHttpServletRequestBuilder request = get(url).header("Authorization", "Bearer " + token);
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().is(expectedStatus))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andReturn();
+    }
+
+    private double dashboardCacheLookups() {
+        return meterRegistry.find("cache.gets").tag("cache", "agent.dashboard").functionCounters().stream()
+                .mapToDouble(FunctionCounter::count)
+                .sum();
+    }
+
+    private double notModified(String resource) {
+        var counter = meterRegistry.find("http.conditional.requests")
+                .tags("resource", resource, "outcome", "not_modified").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    @DisplayName("Should answer an unchanged dashboard poll with an empty 304 without loading the figures")
+    void testDashboardNotModified() throws Exception {
+        MvcResult first = poll("/api/agent/dashboard", agentToken, null, 200);
+        String etag = first.getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        assertTrue(etag.startsWith("W/\""));
+        assertTrue(first.getResponse().getContentAsByteArray().length > 0);
+
+        double lookups = dashboardCacheLookups();
+        double answered = notModified("agent-dashboard");
+        MvcResult second = poll("/api/agent/dashboard", agentToken, etag, 304);
+        assertEquals(etag, second.getResponse().getHeader("ETag"));
+        assertEquals(0, second.getResponse().getContentAsByteArray().length);
+        assertEquals(lookups, dashboardCacheLookups());
+        assertEquals(answered + 1, notModified("agent-dashboard"));
+
+        mockMvc.perform(post("/api/properties")
+                        .header("Authorization", "Bearer " + agentToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(PropertyRequest.builder()
+                                .title("ETag House")
+                                .city("Kumasi")
+                                .price(new BigDecimal("150000.00"))
+                                .bedrooms(3)
+                                .build())))
+                .andExpect(status().isCreated());
+
+        MvcResult changed = poll("/api/agent/dashboard", agentToken, etag, 200);
+        assertNotEquals(etag, changed.getResponse().getHeader("ETag"));
+        assertEquals(objectMapper.readTree(first.getResponse().getContentAsString()).get("myProperties").asLong() + 1,
+                objectMapper.readTree(changed.getResponse().getContentAsString()).get("myProperties").asLong());
+        poll("/api/agent/dashboard", agentToken, changed.getResponse().getHeader("ETag"), 304);
+    }
+
+    @Test
+    @DisplayName("Should tie the stats ETag to the counters' version and to the admin asking")
+    void testStatsNotModified() throws Exception {
+        MvcResult first = poll("/api/admin/stats", adminToken, null, 200);
+        String etag = first.getResponse().getHeader("ETag");
+
+        poll("/api/admin/stats", adminToken, etag, 304);
+        poll("/api/admin/stats", adminToken, "\"other\", " + etag, 304);
+        // Another admin's body names them, so it never matches this admin's copy
+        poll("/api/admin/stats", otherAdminToken, etag, 200);
+
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new LoginRequest("etag-new-" + System.nanoTime() + "@test.com", "password123"))))
+                .andExpect(status().isCreated());
+        poll("/api/admin/stats", adminToken, etag, 200);
+
+        String current = poll("/api/admin/stats", adminToken, null, 200).getResponse().getHeader("ETag");
+        statisticsService.reconcile();
+        mockMvc.perform(get("/api/admin/stats")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("If-None-Match", current))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reconciledAt").exists());
+    }
+}
@@ -0,0 +1,20 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The email index plan checks against one million users. Seeding takes most of a minute, so the table
+ * lives in a file database under target/ and is reused by later runs.
+ */
+@Tag("benchmark")
+@Import(EmailKeyIndexIntegrationTest.CaptureStatements.class)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:file:./target/email-key-index/propertydb")
+class EmailKeyIndexBenchmarkTest extends EmailKeyIndexIntegrationTest {
+
+    @Override
+    int rows() {
+        return 1_000_000;
+    }
+}
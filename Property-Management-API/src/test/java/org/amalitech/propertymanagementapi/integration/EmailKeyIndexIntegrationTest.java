@@ -0,0 +1,108 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the query plans of the email lookups against a seeded users table. The SQL is captured from
+ * Hibernate, so the test follows whatever the repository methods actually generate. H2 picks the unique
+ * index regardless of table size, so ten thousand rows are enough here; {@link EmailKeyIndexBenchmarkTest}
+ * repeats the checks against a million.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:email-key-index",
+        "spring.jpa.show-sql=false"
+})
+class EmailKeyIndexIntegrationTest {
+
+    private static final long FIRST_ID = 1_000_000_000L;
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class CaptureStatements {
+        @Bean
+        HibernatePropertiesCustomizer statementCapture() {
+            StatementInspector inspector = sql -> {
+                statements.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    int rows() {
+        return 10_000;
+    }
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("select count(*) from users where id >= ?", Long.class, FIRST_ID) < rows()) {
+            jdbcTemplate.update("""
+                    insert into users (id, email, email_key, password, role, created_at)
+                    select ? + x, 'Index-User-' || x || '@Example.com', 'index-user-' || x || '@example.com',
+                           'not-used', 'USER', current_timestamp
+                    from system_range(1, ?)""", FIRST_ID, rows());
+        }
+        statements.clear();
+    }
+
+    @Test
+    @DisplayName("Should resolve login, registration and import lookups through the email key index")
+    void testLookupsUseEmailKeyIndex() {
+        int middle = rows() / 2;
+        String email = "INDEX-USER-" + middle + "@example.COM";
+        String key = User.normalizeEmail(email);
+
+        assertEquals("Index-User-" + middle + "@Example.com", userRepository.findByEmail(email).orElseThrow().getEmail());
+        assertTrue(userRepository.existsByEmail(email));
+        assertEquals(Set.of(key), userRepository.findExistingEmailKeys(Set.of(key, "index-user-missing@example.com")));
+
+        assertEquals(3, statements.size());
+        for (String sql : statements) {
+            String plan = explain(sql, key);
+            assertTrue(plan.contains(User.EMAIL_CONSTRAINT.toUpperCase(Locale.ROOT)), () -> "Expected index lookup:\n" + plan);
+            assertFalse(plan.contains("tableScan"), () -> "Unexpected table scan:\n" + plan);
+        }
+    }
+
+    @Test
+    @DisplayName("Should need a full scan for a case-insensitive match on the raw email column")
+    void testLowerEmailScansTable() {
+        String plan = explain("select id from users where lower(email) = ?", "index-user-" + rows() / 2 + "@example.com");
+
+        assertTrue(plan.contains("tableScan"), () -> "Expected a table scan:\n" + plan);
+    }
+
+    private String explain(String sql, String parameter) {
+        Object[] parameters = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        Arrays.fill(parameters, parameter);
+        return jdbcTemplate.queryForObject("explain " + sql, String.class, parameters);
+    }
+}
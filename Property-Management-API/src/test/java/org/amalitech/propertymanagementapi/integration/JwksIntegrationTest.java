@@ -0,0 +1,140 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.security.Key;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "jwt.keys.jwks-max-age=10m")
+class JwksIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String loginAs(String email, Role role) throws Exception {
+        if (!userRepository.existsByEmail(email)) {
+            userRepository.save(User.builder()
+                    .email(email)
+                    .password(passwordEncoder.encode("password123"))
+                    .role(role)
+                    .build());
+        }
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email, "password123"))))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private MvcResult fetchJwks() throws Exception {
+        return mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=600, public"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+    }
+
+    /** Verifies the token the way a downstream service would: with nothing but the published JWK set. */
+    private Claims verifyWithJwks(String jwks, String token) {
+        JwkSet set = Jwks.setParser().build().parse(jwks);
+        Map<String, Key> keys = set.getKeys().stream().collect(Collectors.toMap(Jwk::getId, Jwk::toKey));
+        return Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return keys.get(header.getKeyId());
+                    }
+                })
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Test
+    @DisplayName("Should publish a cacheable JWK set that verifies issued tokens without the API")
+    void testJwksVerifiesTokens() throws Exception {
+        String token = loginAs("jwks-user@test.com", Role.USER);
+        MvcResult jwks = fetchJwks();
+
+        assertEquals("jwks-user@test.com", verifyWithJwks(jwks.getResponse().getContentAsString(), token).getSubject());
+        assertFalse(jwks.getResponse().getContentAsString().contains("\"d\""));
+
+        mockMvc.perform(get("/.well-known/jwks.json")
+                        .header(HttpHeaders.IF_NONE_MATCH, jwks.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("Should rotate the signing key while keeping earlier tokens valid")
+    void testRotationKeepsPreviousKey() throws Exception {
+        String adminToken = loginAs("jwks-admin@test.com", Role.ADMIN);
+        String etag = fetchJwks().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/api/admin/jwt/rotate")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.kid").exists())
+                .andExpect(jsonPath("$.algorithm").value("ES256"));
+
+        MvcResult jwks = fetchJwks();
+        assertNotEquals(etag, jwks.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(2, Jwks.setParser().build().parse(jwks.getResponse().getContentAsString()).getKeys().size());
+
+        mockMvc.perform(get("/api/test/secure")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+        String rotatedToken = loginAs("jwks-admin@test.com", Role.ADMIN);
+        assertEquals("jwks-admin@test.com", verifyWithJwks(jwks.getResponse().getContentAsString(), rotatedToken).getSubject());
+    }
+
+    @Test
+    @DisplayName("Should only let admins rotate the signing key")
+    void testRotationRequiresAdmin() throws Exception {
+        String userToken = loginAs("jwks-rotate-user@test.com", Role.USER);
+
+        mockMvc.perform(post("/api/admin/jwt/rotate")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,129 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.security.LoginAttemptService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "security.login-rate-limit.enabled=true",
+        "security.login-rate-limit.per-ip.capacity=5",
+        "security.login-rate-limit.per-email.capacity=4",
+        "security.lockout.max-failures=3",
+        "security.lockout.flush-interval=PT1H"
+})
+class LoginRateLimitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private LoginAttemptService loginAttemptService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private void createUser(String email) {
+        if (!userRepository.existsByEmail(email)) {
+            userRepository.save(User.builder()
+                    .email(email)
+                    .password(passwordEncoder.encode("password123"))
+                    .role(Role.USER)
+                    .build());
+        }
+    }
+
+    private ResultActions login(String clientIp, String email, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(clientIp);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest(email, password))));
+    }
+
+    private double passwordChecks() {
+        return meterRegistry.get("auth.login").timers().stream().mapToLong(timer -> timer.count()).sum();
+    }
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After once an address exceeds its limit, without checking the password")
+    void testPerIpLimit() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            login("10.1.0.1", "ip-limit-" + i + "@test.com", "password123").andExpect(status().isUnauthorized());
+        }
+        double checksBefore = passwordChecks();
+
+        login("10.1.0.1", "ip-limit-5@test.com", "password123")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        assertEquals(checksBefore, passwordChecks());
+        assertEquals(1.0, meterRegistry.get("auth.login.throttled").tag("reason", "ip").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should lock the account after repeated failures, even for the right password")
+    void testLockout() throws Exception {
+        createUser("lockout@test.com");
+        for (int i = 0; i < 3; i++) {
+            login("10.2.0." + i, "lockout@test.com", "wrong-password").andExpect(status().isUnauthorized());
+        }
+
+        login("10.2.0.9", "lockout@test.com", "password123")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "900"));
+
+        loginAttemptService.flush();
+        User user = userRepository.findByEmail("lockout@test.com").orElseThrow();
+        assertEquals(3, user.getFailedLoginAttempts());
+        assertTrue(user.getLockedUntil().isAfter(Instant.now()));
+        assertFalse(user.isAccountNonLocked());
+    }
+
+    @Test
+    @DisplayName("Should clear the failure count after a successful login")
+    void testSuccessResetsFailures() throws Exception {
+        createUser("lockout-reset@test.com");
+        login("10.3.0.1", "lockout-reset@test.com", "wrong-password").andExpect(status().isUnauthorized());
+        login("10.3.0.2", "lockout-reset@test.com", "wrong-password").andExpect(status().isUnauthorized());
+        loginAttemptService.flush();
+        assertEquals(2, userRepository.findByEmail("lockout-reset@test.com").orElseThrow().getFailedLoginAttempts());
+
+        login("10.3.0.3", "lockout-reset@test.com", "password123").andExpect(status().isOk());
+        loginAttemptService.flush();
+        assertEquals(0, userRepository.findByEmail("lockout-reset@test.com").orElseThrow().getFailedLoginAttempts());
+    }
+}
@@ -0,0 +1,66 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PasswordRehashIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Should upgrade a legacy hash in the background after a successful login")
+    void testLegacyHashIsUpgradedOnLogin() throws Exception {
+        // Unprefixed hash at a low cost, as stored before calibration was introduced
+        userRepository.save(User.builder()
+                .email("legacy-hash@test.com")
+                .password(new BCryptPasswordEncoder(4).encode("password123"))
+                .role(Role.USER)
+                .build());
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("legacy-hash@test.com", "password123"))))
+                .andExpect(status().isOk());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String storedHash;
+        do {
+            Thread.sleep(50);
+            storedHash = userRepository.findByEmail("legacy-hash@test.com").orElseThrow().getPassword();
+        } while (!storedHash.startsWith("{bcrypt}") && System.nanoTime() < deadline);
+
+        assertTrue(storedHash.startsWith("{bcrypt}$2a$"), "hash was not upgraded: " + storedHash);
+
+        // The user can still log in with the upgraded hash
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("legacy-hash@test.com", "password123"))))
+                .andExpect(status().isOk());
+    }
+}
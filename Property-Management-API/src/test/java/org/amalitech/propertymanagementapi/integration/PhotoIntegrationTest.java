@@ -0,0 +1,295 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.model.Property;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.service.PhotoService;
+import org.amalitech.propertymanagementapi.service.PhotoStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PhotoIntegrationTest {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    @Autowired
+    private PhotoService photoService;
+
+    private long propertyId;
+    private String agentToken;
+    private String otherAgentToken;
+    private String userToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        User agent = createUser("photo-agent@test.com", Role.AGENT);
+        createUser("photo-other-agent@test.com", Role.AGENT);
+        createUser("photo-user@test.com", Role.USER);
+        agentToken = login("photo-agent@test.com");
+        otherAgentToken = login("photo-other-agent@test.com");
+        userToken = login("photo-user@test.com");
+
+        propertyId = propertyRepository.save(Property.builder()
+                .agent(agent)
+                .title("Photo House")
+                .city("Accra")
+                .price(new BigDecimal("120000.00"))
+                .bedrooms(2)
+                .status(PropertyStatus.AVAILABLE)
+                .build()).getId();
+    }
+
+    private User createUser(String email, Role role) {
+        return userRepository.findByEmail(email).orElseGet(() -> userRepository.save(User.builder()
+                .email(email)
+                .password(passwordEncoder.encode("password123"))
+                .role(role)
+                .build()));
+    }
+
+    private String login(String email) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email, "password123"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    // A PNG signature followed by random bytes, so every test uploads an image no earlier run has stored
+    private static byte[] randomPng(int size) {
+        byte[] bytes = new byte[size];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        System.arraycopy(PNG_SIGNATURE, 0, bytes, 0, PNG_SIGNATURE.length);
+        return bytes;
+    }
+
+    private JsonNode upload(byte[] bytes, String token, int expectedStatus) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/properties/" + propertyId + "/photos")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.IMAGE_PNG)
+                        .content(bytes))
+                .andExpect(status().is(expectedStatus))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Should store an upload under its SHA-256 and attach a re-upload to the same photo")
+    void testUploadDeduplicates() throws Exception {
+        byte[] image = randomPng(100_000);
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(image));
+
+        JsonNode first = upload(image, agentToken, 201);
+        assertEquals(hash, first.get("hash").asText());
+        assertEquals("image/png", first.get("contentType").asText());
+        assertEquals(image.length, first.get("size").asLong());
+        assertEquals("/api/photos/" + hash, first.get("url").asText());
+        assertArrayEquals(image, Files.readAllBytes(photoStore.path(hash)));
+
+        JsonNode second = upload(image, agentToken, 201);
+        assertEquals(first.get("id").asLong(), second.get("id").asLong());
+
+        mockMvc.perform(get("/api/properties/" + propertyId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.photos.length()").value(1))
+                .andExpect(jsonPath("$.photos[0].hash").value(hash));
+    }
+
+    @Test
+    @DisplayName("Should only let the owning agent or an admin add photos, and reject non-images")
+    void testUploadChecks() throws Exception {
+        byte[] image = randomPng(1_000);
+        upload(image, otherAgentToken, 403);
+        upload(image, userToken, 403);
+        mockMvc.perform(post("/api/properties/" + propertyId + "/photos")
+                        .contentType(MediaType.IMAGE_PNG)
+                        .content(image))
+                .andExpect(status().isForbidden());
+
+        upload("plain text, not an image".getBytes(), agentToken, 400);
+        upload(new byte[0], agentToken, 400);
+        upload(image, agentToken, 201);
+    }
+
+    @Test
+    @DisplayName("Should serve photos to signed-in users with a strong ETag, ranges and long-lived caching")
+    void testDownload() throws Exception {
+        byte[] image = randomPng(50_000);
+        String url = upload(image, agentToken, 201).get("url").asText();
+        String etag = "\"" + url.substring(url.lastIndexOf('/') + 1) + "\"";
+
+        mockMvc.perform(get(url)).andExpect(status().isForbidden());
+
+        MvcResult full = mockMvc.perform(get(url).header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", "private, max-age=31536000, immutable"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("Content-Type", "image/png"))
+                .andReturn();
+        assertArrayEquals(image, full.getResponse().getContentAsByteArray());
+
+        MvcResult partial = mockMvc.perform(get(url)
+                        .header("Authorization", "Bearer " + userToken)
+                        .header("Range", "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 100-199/" + image.length))
+                .andReturn();
+        assertArrayEquals(Arrays.copyOfRange(image, 100, 200), partial.getResponse().getContentAsByteArray());
+
+        MvcResult suffix = mockMvc.perform(get(url)
+                        .header("Authorization", "Bearer " + userToken)
+                        .header("Range", "bytes=-10"))
+                .andExpect(status().isPartialContent())
+                .andReturn();
+        assertArrayEquals(Arrays.copyOfRange(image, image.length - 10, image.length),
+                suffix.getResponse().getContentAsByteArray());
+
+        mockMvc.perform(get(url)
+                        .header("Authorization", "Bearer " + userToken)
+                        .header("Range", "bytes=" + image.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */" + image.length));
+
+        // A stale If-Range validator gets the whole photo rather than a piece of something else
+        mockMvc.perform(get(url)
+                        .header("Authorization", "Bearer " + userToken)
+                        .header("Range", "bytes=0-9")
+                        .header("If-Range", "\"stale\""))
+                .andExpect(status().isOk());
+
+        MvcResult notModified = mockMvc.perform(get(url)
+                        .header("Authorization", "Bearer " + userToken)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertEquals(0, notModified.getResponse().getContentAsByteArray().length);
+
+        mockMvc.perform(get("/api/photos/" + "0".repeat(64)).header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/photos/not-a-hash").header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should list variants as pending until the pipeline has stored them, then serve them")
+    void testThumbnailVariants() throws Exception {
+        BufferedImage picture = new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB);
+        picture.setRGB(0, 0, ThreadLocalRandom.current().nextInt());
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(picture, "png", png);
+
+        JsonNode photo = upload(png.toByteArray(), agentToken, 201);
+        assertEquals(3, photo.get("variants").size());
+        for (JsonNode variant : photo.get("variants")) {
+            assertNotEquals("UNAVAILABLE", variant.get("status").asText());
+        }
+
+        JsonNode variants = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            MvcResult listed = mockMvc.perform(get("/api/properties/" + propertyId + "/photos")
+                            .header("Authorization", "Bearer " + userToken))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            variants = objectMapper.readTree(listed.getResponse().getContentAsString()).get(0).get("variants");
+            if (variants.get(0).get("status").asText().equals("READY")
+                    && variants.get(2).get("status").asText().equals("READY")) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        assertEquals(160, variants.get(0).get("width").asInt());
+        assertEquals("READY", variants.get(0).get("status").asText());
+
+        MvcResult thumbnail = mockMvc.perform(get(variants.get(0).get("url").asText())
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "image/jpeg"))
+                .andExpect(header().string("ETag", "\"" + photo.get("hash").asText() + "-160\""))
+                .andReturn();
+        BufferedImage scaled = ImageIO.read(new ByteArrayInputStream(thumbnail.getResponse().getContentAsByteArray()));
+        assertEquals(160, scaled.getWidth());
+        assertEquals(107, scaled.getHeight());
+
+        mockMvc.perform(get(photo.get("url").asText() + "?width=300").header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should keep a shared file while another listing uses it and sweep it once unreferenced")
+    void testOrphanSweep() throws Exception {
+        byte[] image = randomPng(2_000);
+        JsonNode photo = upload(image, agentToken, 201);
+        String hash = photo.get("hash").asText();
+
+        ReflectionTestUtils.setField(photoService, "orphanGrace", Duration.ofHours(-1));
+        try {
+            photoService.sweepOrphans();
+            assertTrue(Files.exists(photoStore.path(hash)));
+
+            mockMvc.perform(delete("/api/properties/" + propertyId + "/photos/" + photo.get("id").asLong())
+                            .header("Authorization", "Bearer " + agentToken))
+                    .andExpect(status().isNoContent());
+            photoService.sweepOrphans();
+            assertFalse(Files.exists(photoStore.path(hash)));
+        } finally {
+            ReflectionTestUtils.setField(photoService, "orphanGrace", Duration.ofHours(1));
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.dto.PropertyRequest;
+import org.amalitech.propertymanagementapi.model.Property;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PropertyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User agent;
+    private String agentToken;
+    private String otherAgentToken;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        agent = createUser("property-agent@test.com", Role.AGENT);
+        createUser("property-other-agent@test.com", Role.AGENT);
+        createUser("property-admin@test.com", Role.ADMIN);
+        agentToken = login("property-agent@test.com");
+        otherAgentToken = login("property-other-agent@test.com");
+        adminToken = login("property-admin@test.com");
+    }
+
+    private User createUser(String email, Role role) {
+        return userRepository.findByEmail(email).orElseGet(() -> userRepository.save(User.builder()
+                .email(email)
+                .password(passwordEncoder.encode("password123"))
+                .role(role)
+                .build()));
+    }
+
+    private String login(String email) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email, "password123"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private static PropertyRequest request(String title, String price, PropertyStatus status) {
+        return PropertyRequest.builder()
+                .title(title)
+                .description("Near the beach")
+                .city("Cape Coast")
+                .price(new BigDecimal(price))
+                .bedrooms(3)
+                .status(status)
+                .build();
+    }
+
+    private long createProperty(String token, PropertyRequest request) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/properties")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("PENDING_APPROVAL"))
+                .andExpect(jsonPath("$.ownerEmail").value("property-agent@test.com"))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private JsonNode getJson(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Should create, read, approve, update and delete a listing with owner checks")
+    void testCrudLifecycle() throws Exception {
+        long id = createProperty(agentToken, request("Beach House", "250000.00", null));
+
+        // Pending listings are only visible to their agent and admins
+        mockMvc.perform(get("/api/properties/" + id)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/properties/" + id).header("Authorization", "Bearer " + otherAgentToken))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/properties?status=PENDING_APPROVAL")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/properties/search?q=beach&status=PENDING_APPROVAL")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/properties?status=PENDING_APPROVAL").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/properties/" + id).header("Authorization", "Bearer " + agentToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Beach House"))
+                .andExpect(jsonPath("$.ownerEmail").value("property-agent@test.com"));
+
+        String approve = objectMapper.writeValueAsString(request("Beach House", "250000.00", PropertyStatus.AVAILABLE));
+        mockMvc.perform(put("/api/properties/" + id)
+                        .header("Authorization", "Bearer " + agentToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(approve))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/properties/" + id)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(approve))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("AVAILABLE"));
+        mockMvc.perform(get("/api/properties/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ownerEmail").doesNotExist());
+        mockMvc.perform(get("/api/properties/" + id).header("Authorization", "Bearer " + otherAgentToken))
+                .andExpect(jsonPath("$.ownerEmail").value("property-agent@test.com"));
+
+        mockMvc.perform(put("/api/properties/" + id)
+                        .header("Authorization", "Bearer " + otherAgentToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("Mine now", "1.00", null))))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/properties/" + id)
+                        .header("Authorization", "Bearer " + agentToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("Beach House", "240000.00", PropertyStatus.UNDER_OFFER))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(240000.00))
+                .andExpect(jsonPath("$.status").value("UNDER_OFFER"));
+
+        mockMvc.perform(delete("/api/properties/" + id).header("Authorization", "Bearer " + otherAgentToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/properties/" + id).header("Authorization", "Bearer " + agentToken))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/properties/" + id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should reject listing creation by a plain user and invalid listings")
+    void testCreateValidation() throws Exception {
+        createUser("property-user@test.com", Role.USER);
+        mockMvc.perform(post("/api/properties")
+                        .header("Authorization", "Bearer " + login("property-user@test.com"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("House", "1000.00", null))))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/api/properties")
+                        .header("Authorization", "Bearer " + agentToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("", "-5", null))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.title").exists())
+                .andExpect(jsonPath("$.errors.price").exists());
+    }
+
+    @Test
+    @DisplayName("Should walk every matching listing exactly once in price order using cursors")
+    void testKeysetPagination() throws Exception {
+        // Repeated prices make the id tie-breaker matter
+        for (int i = 0; i < 25; i++) {
+            propertyRepository.save(Property.builder()
+                    .agent(agent)
+                    .title("Keyset " + i)
+                    .city("Keyset City")
+                    .price(new BigDecimal(100_000 + (i % 5) * 1000))
+                    .bedrooms(i % 4)
+                    .status(i == 24 ? PropertyStatus.SOLD : PropertyStatus.AVAILABLE)
+                    .build());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        BigDecimal lastPrice = BigDecimal.ZERO;
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = getJson("/api/properties?city=Keyset City&size=10" + (cursor == null ? "" : "&cursor=" + cursor));
+            for (JsonNode item : page.get("items")) {
+                BigDecimal price = item.get("price").decimalValue();
+                assertTrue(price.compareTo(lastPrice) >= 0);
+                lastPrice = price;
+                seen.add(item.get("id").asLong());
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(24, seen.size());
+        assertEquals(24, seen.stream().distinct().count());
+
+        JsonNode filtered = getJson("/api/properties?city=Keyset City&minPrice=102000&maxPrice=103000&minBedrooms=2");
+        for (JsonNode item : filtered.get("items")) {
+            assertTrue(item.get("bedrooms").asInt() >= 2);
+            assertTrue(item.get("price").decimalValue().compareTo(new BigDecimal("102000")) >= 0);
+            assertTrue(item.get("price").decimalValue().compareTo(new BigDecimal("103000")) <= 0);
+        }
+        assertTrue(filtered.get("items").size() > 0);
+        assertEquals(1, getJson("/api/properties?city=Keyset City&status=SOLD").get("items").size());
+    }
+
+    @Test
+    @DisplayName("Should list the caller's own listings in every status")
+    void testMyProperties() throws Exception {
+        createProperty(agentToken, request("Pending Own", "75000.00", null));
+
+        MvcResult result = mockMvc.perform(get("/api/properties/my-properties?size=100")
+                        .header("Authorization", "Bearer " + agentToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode items = objectMapper.readTree(result.getResponse().getContentAsString()).get("items");
+        assertTrue(items.findValuesAsText("title").contains("Pending Own"));
+
+        mockMvc.perform(get("/api/properties/my-properties")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void testInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/properties?cursor=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties?size=1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should find approved listings near a point or in a box and follow moves and deletes")
+    void testNearby() throws Exception {
+        // Open ocean, so listings from other tests never fall inside the search area
+        PropertyRequest near = request("Near", "100000.00", null);
+        near.setLatitude(-40.500);
+        near.setLongitude(100.300);
+        PropertyRequest far = request("Far", "100000.00", null);
+        far.setLatitude(-40.530);
+        far.setLongitude(100.300);
+        long nearId = createProperty(agentToken, near);
+        long farId = createProperty(agentToken, far);
+
+        String area = "/api/properties/nearby?lat=-40.5&lon=100.3&radiusKm=5";
+        assertEquals(0, getJson(area).get("matches").asInt());
+
+        near.setStatus(PropertyStatus.AVAILABLE);
+        far.setStatus(PropertyStatus.AVAILABLE);
+        for (long id : List.of(nearId, farId)) {
+            mockMvc.perform(put("/api/properties/" + id)
+                            .header("Authorization", "Bearer " + adminToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(id == nearId ? near : far)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.latitude").exists());
+        }
+
+        JsonNode page = getJson(area);
+        assertEquals(2, page.get("matches").asInt());
+        assertEquals(nearId, page.get("items").get(0).get("id").asLong());
+        assertEquals(farId, page.get("items").get(1).get("id").asLong());
+        assertEquals(3336, page.get("items").get(1).get("distanceMeters").asLong(), 5);
+        assertEquals(1, getJson(area + "&limit=1").get("items").size());
+        assertEquals(1, getJson("/api/properties/nearby?lat=-40.5&lon=100.3&radiusKm=1").get("matches").asInt());
+
+        JsonNode box = getJson("/api/properties/nearby?minLat=-40.52&minLon=100.2&maxLat=-40.4&maxLon=100.4");
+        assertEquals(1, box.get("matches").asInt());
+        assertEquals("Near", box.get("items").get(0).get("title").asText());
+
+        far.setLatitude(-40.501);
+        mockMvc.perform(put("/api/properties/" + farId)
+                        .header("Authorization", "Bearer " + agentToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(far)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/properties/" + nearId).header("Authorization", "Bearer " + agentToken))
+                .andExpect(status().isNoContent());
+        page = getJson("/api/properties/nearby?lat=-40.5&lon=100.3&radiusKm=1");
+        assertEquals(1, page.get("matches").asInt());
+        assertEquals(farId, page.get("items").get(0).get("id").asLong());
+    }
+
+    @Test
+    @DisplayName("Should reject incomplete coordinates and malformed nearby searches")
+    void testNearbyValidation() throws Exception {
+        PropertyRequest halfPlaced = request("Half placed", "1000.00", null);
+        halfPlaced.setLatitude(5.6);
+        mockMvc.perform(post("/api/properties")
+                        .header("Authorization", "Bearer " + agentToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(halfPlaced)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.coordinatesComplete").exists());
+
+        mockMvc.perform(get("/api/properties/nearby?lat=5.6")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties/nearby?lat=5.6&lon=-0.2&radiusKm=500")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties/nearby?lat=5.6&lon=-0.2&minLat=5")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties/nearby?minLat=0&minLon=0&maxLat=5&maxLon=5")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should rank approved listings by text relevance with filters and follow updates")
+    void testTextSearch() throws Exception {
+        PropertyRequest loft = request("Zephyrine loft", "180000.00", null);
+        loft.setDescription("Zephyrine riverside loft with a terrace");
+        PropertyRequest cottage = request("Riverside cottage", "90000.00", null);
+        cottage.setDescription("Quiet cottage near the zephyrine river");
+        long loftId = createProperty(agentToken, loft);
+        long cottageId = createProperty(agentToken, cottage);
+
+        assertEquals(0, getJson("/api/properties/search?q=zephyrine").get("matches").asInt());
+
+        for (long id : List.of(loftId, cottageId)) {
+            PropertyRequest approved = id == loftId ? loft : cottage;
+            approved.setStatus(PropertyStatus.AVAILABLE);
+            mockMvc.perform(put("/api/properties/" + id)
+                            .header("Authorization", "Bearer " + adminToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(approved)))
+                    .andExpect(status().isOk());
+        }
+
+        JsonNode page = getJson("/api/properties/search?q=zephyrine");
+        assertEquals(2, page.get("matches").asInt());
+        assertEquals(loftId, page.get("items").get(0).get("id").asLong());
+        assertTrue(page.get("items").get(0).get("score").asDouble() > page.get("items").get(1).get("score").asDouble());
+        assertTrue(page.has("tookMicros"));
+        assertEquals(cottageId, getJson("/api/properties/search?q=zephyrine riversi&maxPrice=100000")
+                .get("items").get(0).get("id").asLong());
+        assertEquals(1, getJson("/api/properties/search?q=zephyrine terr").get("matches").asInt());
+
+        cottage.setDescription("Quiet cottage near the river");
+        mockMvc.perform(put("/api/properties/" + cottageId)
+                        .header("Authorization", "Bearer " + agentToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cottage)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/properties/" + loftId).header("Authorization", "Bearer " + agentToken))
+                .andExpect(status().isNoContent());
+        assertEquals(0, getJson("/api/properties/search?q=zephyrine").get("matches").asInt());
+
+        mockMvc.perform(get("/api/properties/search")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties/search?q=house&page=20&size=100")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties/search?q=a&page=50000000")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties/search?q=a&page=2147483647&size=1")).andExpect(status().isBadRequest());
+    }
+}
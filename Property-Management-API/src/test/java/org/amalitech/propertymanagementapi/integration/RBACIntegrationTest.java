@@ -1,7 +1,10 @@
 package org.amalitech.propertymanagementapi.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.dto.RegisterRequest;
+import org.amalitech.propertymanagementapi.dto.RoleChangeRequest;
 import org.amalitech.propertymanagementapi.model.Role;
 import org.amalitech.propertymanagementapi.model.User;
 import org.amalitech.propertymanagementapi.repository.UserRepository;
@@ -16,8 +19,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -104,6 +109,36 @@ class RBACIntegrationTest {
                 .andExpect(jsonPath("$.message").exists());
     }
 
+    @Test
+    @DisplayName("Admin stats should count users registered and promoted through the API")
+    void testAdminStatsTrackWrites() throws Exception {
+        JsonNode before = stats();
+
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RegisterRequest("stats-new@test.com", "password123"))))
+                .andExpect(status().isCreated());
+        Long id = userRepository.findByEmail("stats-new@test.com").orElseThrow().getId();
+        mockMvc.perform(put("/api/admin/users/" + id + "/role")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RoleChangeRequest(Role.AGENT))))
+                .andExpect(status().isOk());
+
+        JsonNode after = stats();
+        assertEquals(before.get("totalUsers").asLong() + 1, after.get("totalUsers").asLong());
+        assertEquals(before.get("totalAgents").asLong() + 1, after.get("totalAgents").asLong());
+        assertEquals(before.at("/usersByRole/USER").asLong(), after.at("/usersByRole/USER").asLong());
+    }
+
+    private JsonNode stats() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/admin/stats")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
     // Test: USER should NOT access AGENT endpoints
     @Test
     @DisplayName("USER role should get 403 when accessing agent endpoint")
@@ -0,0 +1,143 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.dto.RoleChangeRequest;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TokenRevocationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User createUser(String email, Role role) {
+        return userRepository.findByEmail(email).orElseGet(() -> userRepository.save(User.builder()
+                .email(email)
+                .password(passwordEncoder.encode("password123"))
+                .role(role)
+                .build()));
+    }
+
+    private String login(String email) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email, "password123"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    @Test
+    @DisplayName("Should reject a token after logout while other sessions keep working")
+    void testLogoutRevokesOnlyThatToken() throws Exception {
+        createUser("logout-single@test.com", Role.USER);
+        String phone = login("logout-single@test.com");
+        String laptop = login("logout-single@test.com");
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer " + phone))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/test/secure")
+                        .header("Authorization", "Bearer " + phone))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/test/secure")
+                        .header("Authorization", "Bearer " + laptop))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should reject every earlier token after logout from all devices")
+    void testLogoutAllDevices() throws Exception {
+        createUser("logout-all@test.com", Role.USER);
+        String phone = login("logout-all@test.com");
+        String laptop = login("logout-all@test.com");
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .param("allDevices", "true")
+                        .header("Authorization", "Bearer " + phone))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/test/secure")
+                        .header("Authorization", "Bearer " + laptop))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/test/secure")
+                        .header("Authorization", "Bearer " + login("logout-all@test.com")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should require a token to log out")
+    void testLogoutWithoutToken() throws Exception {
+        mockMvc.perform(post("/api/auth/logout"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Should revoke admin access as soon as an admin is demoted")
+    void testRoleChangeRevokesTokens() throws Exception {
+        createUser("revocation-admin@test.com", Role.ADMIN);
+        User demoted = createUser("revocation-demoted@test.com", Role.ADMIN);
+        String adminToken = login("revocation-admin@test.com");
+        String demotedToken = login("revocation-demoted@test.com");
+
+        mockMvc.perform(put("/api/admin/users/" + demoted.getId() + "/role")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RoleChangeRequest(Role.USER))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("USER"));
+
+        mockMvc.perform(get("/api/test/secure")
+                        .header("Authorization", "Bearer " + demotedToken))
+                .andExpect(status().isForbidden());
+
+        String userToken = login("revocation-demoted@test.com");
+        mockMvc.perform(get("/api/test/secure")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin/stats")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Should return 404 when changing the role of an unknown user")
+    void testRoleChangeUnknownUser() throws Exception {
+        createUser("revocation-admin@test.com", Role.ADMIN);
+
+        mockMvc.perform(put("/api/admin/users/987654321/role")
+                        .header("Authorization", "Bearer " + login("revocation-admin@test.com"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RoleChangeRequest(Role.AGENT))))
+                .andExpect(status().isNotFound());
+    }
+}
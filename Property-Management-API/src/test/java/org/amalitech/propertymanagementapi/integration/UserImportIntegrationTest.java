@@ -0,0 +1,145 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.propertymanagementapi.dto.LoginRequest;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserImportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String tokenFor(String email, Role role) throws Exception {
+        if (!userRepository.existsByEmail(email)) {
+            userRepository.save(User.builder()
+                    .email(email)
+                    .password(passwordEncoder.encode("password123"))
+                    .role(role)
+                    .build());
+        }
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email, "password123"))))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private List<JsonNode> importUsers(String contentType, String body) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/admin/users/import")
+                        .header("Authorization", "Bearer " + tokenFor("import-admin@test.com", Role.ADMIN))
+                        .contentType(contentType)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    @Test
+    @DisplayName("Should import CSV rows and report a result per row")
+    void testCsvImport() throws Exception {
+        tokenFor("import-existing@test.com", Role.USER);
+        String csv = """
+                email,password,role
+                import-csv-1@test.com,password123,
+                "import-csv-2@test.com","pass,word""123",AGENT
+                import-existing@test.com,password123,USER
+                import-csv-1@test.com,password123,USER
+                not-an-email,password123,USER
+                import-csv-3@test.com,password123,OWNER
+                """;
+
+        List<JsonNode> lines = importUsers("text/csv", csv);
+
+        assertEquals(7, lines.size());
+        assertEquals("CREATED", lines.get(0).get("status").asText());
+        assertEquals(2, lines.get(0).get("line").asInt());
+        assertTrue(lines.get(0).hasNonNull("id"));
+        assertEquals("CREATED", lines.get(1).get("status").asText());
+        assertEquals("DUPLICATE", lines.get(2).get("status").asText());
+        assertEquals("DUPLICATE", lines.get(3).get("status").asText());
+        assertEquals("INVALID", lines.get(4).get("status").asText());
+        assertEquals("INVALID", lines.get(5).get("status").asText());
+
+        JsonNode summary = lines.get(6);
+        assertTrue(summary.get("summary").asBoolean());
+        assertEquals(6, summary.get("rows").asInt());
+        assertEquals(2, summary.get("created").asInt());
+        assertEquals(2, summary.get("duplicates").asInt());
+        assertEquals(2, summary.get("invalid").asInt());
+
+        User agent = userRepository.findByEmail("import-csv-2@test.com").orElseThrow();
+        assertEquals(Role.AGENT, agent.getRole());
+        assertTrue(passwordEncoder.matches("pass,word\"123", agent.getPassword()));
+        assertEquals(Role.USER, userRepository.findByEmail("import-csv-1@test.com").orElseThrow().getRole());
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON rows and let imported users log in")
+    void testNdjsonImport() throws Exception {
+        String ndjson = """
+                {"email":"import-json-1@test.com","password":"password123","role":"AGENT"}
+                {"email":"import-json-2@test.com","password":"password123"}
+                {not json}
+                """;
+
+        List<JsonNode> lines = importUsers(MediaType.APPLICATION_NDJSON_VALUE, ndjson);
+
+        assertEquals("CREATED", lines.get(0).get("status").asText());
+        assertEquals("CREATED", lines.get(1).get("status").asText());
+        assertEquals("INVALID", lines.get(2).get("status").asText());
+        assertEquals(3, lines.get(2).get("line").asInt());
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("import-json-1@test.com", "password123"))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should deny import to non-admin users")
+    void testImportRequiresAdmin() throws Exception {
+        mockMvc.perform(post("/api/admin/users/import")
+                        .header("Authorization", "Bearer " + tokenFor("import-agent@test.com", Role.AGENT))
+                        .contentType("text/csv")
+                        .content("import-denied@test.com,password123"))
+                .andExpect(status().isForbidden());
+    }
+}
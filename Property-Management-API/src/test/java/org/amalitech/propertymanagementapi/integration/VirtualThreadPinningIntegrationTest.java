@@ -0,0 +1,136 @@
+package org.amalitech.propertymanagementapi.integration;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.amalitech.propertymanagementapi.dto.RegisterRequest;
+import org.amalitech.propertymanagementapi.exception.DuplicateEmailException;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the blocking persistence paths on virtual threads and fails if a carrier thread is pinned
+ * while one of our own frames is on the stack. Pinning inside the H2 driver is reported but tolerated,
+ * since H2 only stands in for the production database.
+ */
+@SpringBootTest
+@ActiveProfiles("virtual-threads")
+class VirtualThreadPinningIntegrationTest {
+
+    private static final String APP_PACKAGE = "org.amalitech.propertymanagementapi";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    private final List<RecordedEvent> pinnedEvents = new CopyOnWriteArrayList<>();
+    private RecordingStream recording;
+
+    @BeforeEach
+    void startRecording() {
+        recording = new RecordingStream();
+        recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+        recording.onEvent("jdk.VirtualThreadPinned", pinnedEvents::add);
+        recording.startAsync();
+    }
+
+    @AfterEach
+    void stopRecording() {
+        recording.close();
+    }
+
+    @Test
+    @DisplayName("findByEmail, save and register should not pin carrier threads in application code")
+    void testBlockingPathsDoNotPin() throws Exception {
+        runOnVirtualThreads(64, i -> {
+            userService.register(new RegisterRequest("vt-register-" + i + "@test.com", "password123"));
+            try {
+                userService.register(new RegisterRequest("vt-register-" + i + "@test.com", "password123"));
+            } catch (DuplicateEmailException expected) {
+                // duplicate path exercises the rollback as well
+            }
+        });
+        runOnVirtualThreads(64, i -> userRepository.save(User.builder()
+                .email("vt-save-" + i + "@test.com")
+                .password("encoded")
+                .role(Role.USER)
+                .build()));
+        runOnVirtualThreads(256, i -> userRepository.findByEmail("vt-register-" + (i % 64) + "@test.com"));
+        // Concurrent cache misses compete for pooled connections while going through the single-flight user cache
+        runOnVirtualThreads(256, i -> userDetailsService.loadUserByUsername("vt-save-" + (i % 64) + "@test.com"));
+
+        recording.stop();
+
+        List<String> applicationPins = new ArrayList<>();
+        for (RecordedEvent event : pinnedEvents) {
+            String stack = describe(event);
+            if (stack.contains("org.h2.")) {
+                System.out.println("Pinned inside H2 driver (tolerated): " + stack);
+            } else if (stack.contains(APP_PACKAGE)) {
+                applicationPins.add(stack);
+            }
+        }
+        assertTrue(applicationPins.isEmpty(), "Carrier threads pinned in application code: " + applicationPins);
+    }
+
+    private void runOnVirtualThreads(int tasks, TaskBody body) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    body.run(index);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static String describe(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "<no stack trace>";
+        }
+        StringBuilder stack = new StringBuilder();
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            stack.append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(" <- ");
+        }
+        return stack.toString();
+    }
+
+    @FunctionalInterface
+    private interface TaskBody {
+        void run(int index) throws Exception;
+    }
+}
@@ -0,0 +1,131 @@
+package org.amalitech.propertymanagementapi.loadtest;
+
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.security.JwtTokenProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base for load tests against an application started on a random port: seeds users, drives the
+ * configured endpoint mix and reports per-endpoint latency percentiles, error rates and throughput.
+ */
+abstract class AbstractLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    /**
+     * Seeds users, runs the warmup and measured phases and returns the report.
+     */
+    protected String runLoad(LoadTestSettings settings, String title) throws Exception {
+        LoadTestFixture fixture = seed(settings.users());
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build()) {
+            LoadGenerator generator = new LoadGenerator(client, fixture, settings);
+
+            generator.run(settings.warmup());
+            generator.reset();
+            generator.run(settings.duration());
+
+            return report(title, settings, generator.stats());
+        }
+    }
+
+    private LoadTestFixture seed(int users) {
+        String prefix = "loadtest-" + Long.toString(System.currentTimeMillis(), 36) + "-";
+        // One hash shared by all seeded accounts keeps seeding fast while logins still run BCrypt
+        String hash = passwordEncoder.encode(LoadTestFixture.PASSWORD);
+
+        List<User> seeded = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            Role role = i % 20 == 0 ? Role.ADMIN : i % 10 == 0 ? Role.AGENT : Role.USER;
+            seeded.add(User.builder()
+                    .email(prefix + i + "@example.com")
+                    .password(hash)
+                    .role(role)
+                    .build());
+        }
+        seeded = userRepository.saveAll(seeded);
+
+        List<String> emails = new ArrayList<>();
+        List<String> userTokens = new ArrayList<>();
+        List<String> agentTokens = new ArrayList<>();
+        List<String> adminTokens = new ArrayList<>();
+        for (User user : seeded) {
+            String token = jwtTokenProvider.generateToken(user, user.getRole().name());
+            emails.add(user.getEmail());
+            userTokens.add(token);
+            if (user.getRole() == Role.AGENT || user.getRole() == Role.ADMIN) {
+                agentTokens.add(token);
+            }
+            if (user.getRole() == Role.ADMIN) {
+                adminTokens.add(token);
+            }
+        }
+        return new LoadTestFixture("http://localhost:" + port, emails, userTokens, agentTokens, adminTokens);
+    }
+
+    private static String report(String title, LoadTestSettings settings, Map<Endpoint, EndpointStats> stats) {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        StringBuilder report = new StringBuilder()
+                .append(title).append(": ").append(settings.describe()).append('\n')
+                .append(String.format("%-16s %9s %7s %7s %9s %9s %9s %9s %9s%n",
+                        "endpoint", "requests", "errors", "err%", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            totalRequests += endpointStats.requests();
+            totalErrors += endpointStats.errors();
+            report.append(String.format("%-16s %9d %7d %6.2f%% %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().label(),
+                    endpointStats.requests(),
+                    endpointStats.errors(),
+                    errorRate(endpointStats.requests(), endpointStats.errors()),
+                    endpointStats.requests() / seconds,
+                    endpointStats.percentileMillis(50),
+                    endpointStats.percentileMillis(99),
+                    endpointStats.percentileMillis(99.9),
+                    endpointStats.maxMillis()));
+        }
+        report.append(String.format("%-16s %9d %7d %6.2f%% %9.1f%n",
+                "total", totalRequests, totalErrors, errorRate(totalRequests, totalErrors), totalRequests / seconds));
+        return report.toString();
+    }
+
+    private static double errorRate(long requests, long errors) {
+        return requests == 0 ? 0 : 100.0 * errors / requests;
+    }
+
+    protected static void writeReport(String fileName, String report) throws IOException {
+        Path target = Path.of("target");
+        if (Files.isDirectory(target)) {
+            Files.writeString(target.resolve(fileName), report);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.amalitech.propertymanagementapi.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.random.RandomGenerator;
+
+/**
+ * The endpoints the harness can drive, with the request each one sends and the status it expects.
+ */
+enum Endpoint {
+
+    REGISTER("register", 201) {
+        @Override
+        HttpRequest request(LoadTestFixture fixture, RandomGenerator random) {
+            return fixture.jsonPost("/api/auth/register", fixture.newRegistrationBody());
+        }
+    },
+    LOGIN("login", 200) {
+        @Override
+        HttpRequest request(LoadTestFixture fixture, RandomGenerator random) {
+            return fixture.jsonPost("/api/auth/login", fixture.loginBody(fixture.randomUser(random)));
+        }
+    },
+    AGENT_DASHBOARD("agent-dashboard", 200) {
+        @Override
+        HttpRequest request(LoadTestFixture fixture, RandomGenerator random) {
+            return fixture.authorizedGet("/api/agent/dashboard", fixture.randomAgentToken(random));
+        }
+    },
+    ADMIN_STATS("admin-stats", 200) {
+        @Override
+        HttpRequest request(LoadTestFixture fixture, RandomGenerator random) {
+            return fixture.authorizedGet("/api/admin/stats", fixture.randomAdminToken(random));
+        }
+    },
+    SECURE("secure", 200) {
+        @Override
+        HttpRequest request(LoadTestFixture fixture, RandomGenerator random) {
+            return fixture.authorizedGet("/api/test/secure", fixture.randomUserToken(random));
+        }
+    };
+
+    private final String label;
+    private final int expectedStatus;
+
+    Endpoint(String label, int expectedStatus) {
+        this.label = label;
+        this.expectedStatus = expectedStatus;
+    }
+
+    abstract HttpRequest request(LoadTestFixture fixture, RandomGenerator random);
+
+    String label() {
+        return label;
+    }
+
+    boolean isSuccess(int status) {
+        return status == expectedStatus;
+    }
+
+    static Endpoint fromName(String name) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.label.equalsIgnoreCase(name) || endpoint.name().equalsIgnoreCase(name)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint in loadtest.mix: " + name);
+    }
+}
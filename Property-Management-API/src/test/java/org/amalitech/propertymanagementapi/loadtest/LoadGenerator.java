@@ -0,0 +1,129 @@
+package org.amalitech.propertymanagementapi.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the configured endpoint mix against a running server and records per-endpoint statistics.
+ * In the open model latency is measured from the request's scheduled start, so a stalled server
+ * shows up as queueing delay instead of being hidden by coordinated omission.
+ */
+class LoadGenerator {
+
+    private final HttpClient client;
+    private final LoadTestFixture fixture;
+    private final LoadTestSettings settings;
+    private final Endpoint[] wheel;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+
+    LoadGenerator(HttpClient client, LoadTestFixture fixture, LoadTestSettings settings) {
+        this.client = client;
+        this.fixture = fixture;
+        this.settings = settings;
+
+        List<Endpoint> weighted = new ArrayList<>();
+        settings.mix().forEach((endpoint, weight) -> {
+            stats.put(endpoint, new EndpointStats());
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+        });
+        this.wheel = weighted.toArray(Endpoint[]::new);
+    }
+
+    Map<Endpoint, EndpointStats> stats() {
+        return stats;
+    }
+
+    void reset() {
+        stats.values().forEach(EndpointStats::reset);
+    }
+
+    void run(Duration duration) throws InterruptedException {
+        if (settings.model() == LoadTestSettings.Model.CLOSED) {
+            runClosed(duration);
+        } else {
+            runOpen(duration);
+        }
+    }
+
+    private void runClosed(Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < settings.concurrency(); c++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        send(pickEndpoint(), System.nanoTime());
+                    }
+                });
+            }
+        }
+    }
+
+    private void runOpen(Duration duration) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.ratePerSecond();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        Semaphore inFlight = new Semaphore(settings.maxInFlight());
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduledStart = start + i * intervalNanos;
+                if (scheduledStart >= end) {
+                    break;
+                }
+                long wait = scheduledStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+
+                Endpoint endpoint = pickEndpoint();
+                if (!inFlight.tryAcquire()) {
+                    stats.get(endpoint).recordDropped();
+                    continue;
+                }
+                clients.submit(() -> {
+                    try {
+                        send(endpoint, scheduledStart);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private Endpoint pickEndpoint() {
+        return wheel[ThreadLocalRandom.current().nextInt(wheel.length)];
+    }
+
+    private void send(Endpoint endpoint, long startNanos) {
+        boolean success;
+        try {
+            HttpResponse<Void> response = client.send(
+                    endpoint.request(fixture, ThreadLocalRandom.current()),
+                    HttpResponse.BodyHandlers.discarding());
+            success = endpoint.isSuccess(response.statusCode());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            success = false;
+        }
+        stats.get(endpoint).record(System.nanoTime() - startNanos, success);
+    }
+}
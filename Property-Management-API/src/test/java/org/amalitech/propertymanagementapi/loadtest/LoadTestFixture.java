@@ -0,0 +1,77 @@
+package org.amalitech.propertymanagementapi.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Seeded accounts and pre-issued tokens the endpoints draw from while the test runs.
+ */
+class LoadTestFixture {
+
+    static final String PASSWORD = "password123";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final List<String> userEmails;
+    private final List<String> userTokens;
+    private final List<String> agentTokens;
+    private final List<String> adminTokens;
+    private final AtomicLong registrations = new AtomicLong();
+    // Keeps registration emails unique when the database outlives a run
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    LoadTestFixture(String baseUrl, List<String> userEmails, List<String> userTokens,
+                    List<String> agentTokens, List<String> adminTokens) {
+        this.baseUrl = baseUrl;
+        this.userEmails = List.copyOf(userEmails);
+        this.userTokens = List.copyOf(userTokens);
+        this.agentTokens = List.copyOf(agentTokens);
+        this.adminTokens = List.copyOf(adminTokens);
+    }
+
+    HttpRequest jsonPost(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    HttpRequest authorizedGet(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    String newRegistrationBody() {
+        String email = "loadtest-new-" + runId + "-" + registrations.incrementAndGet() + "@example.com";
+        return loginBody(email);
+    }
+
+    String loginBody(String email) {
+        return "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    String randomUser(RandomGenerator random) {
+        return userEmails.get(random.nextInt(userEmails.size()));
+    }
+
+    String randomUserToken(RandomGenerator random) {
+        return userTokens.get(random.nextInt(userTokens.size()));
+    }
+
+    String randomAgentToken(RandomGenerator random) {
+        return agentTokens.get(random.nextInt(agentTokens.size()));
+    }
+
+    String randomAdminToken(RandomGenerator random) {
+        return adminTokens.get(random.nextInt(adminTokens.size()));
+    }
+}
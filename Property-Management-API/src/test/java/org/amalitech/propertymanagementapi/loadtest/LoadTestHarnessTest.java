@@ -0,0 +1,32 @@
+package org.amalitech.propertymanagementapi.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Self-contained load test: starts the application on a random port against its own in-memory H2,
+ * seeds users, drives the configured endpoint mix and prints per-endpoint latency percentiles,
+ * error rates and throughput. The report is also written to target/loadtest-report.txt.
+ * See {@link LoadTestSettings} for the available system properties.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=INFO",
+        "logging.level.org.amalitech.propertymanagementapi=WARN"
+})
+class LoadTestHarnessTest extends AbstractLoadTest {
+
+    @Test
+    @DisplayName("Run the configured load profile and report per-endpoint statistics")
+    void runLoadTest() throws Exception {
+        String report = runLoad(LoadTestSettings.fromSystemProperties(), "Load test");
+        System.out.println(report);
+        writeReport("loadtest-report.txt", report);
+    }
+}
@@ -0,0 +1,75 @@
+package org.amalitech.propertymanagementapi.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from system properties so runs can be repeated from the command line:
+ * <pre>
+ * mvn test -Pbenchmark -Dtest=LoadTestHarnessTest \
+ *     -Dloadtest.model=open -Dloadtest.rate=300 -Dloadtest.duration=60 \
+ *     -Dloadtest.mix=login:1,secure:8,agent-dashboard:1
+ * </pre>
+ */
+record LoadTestSettings(
+        Model model,
+        int users,
+        int concurrency,
+        int ratePerSecond,
+        int maxInFlight,
+        Duration warmup,
+        Duration duration,
+        Map<Endpoint, Integer> mix
+) {
+
+    enum Model {
+        /** A fixed number of clients, each sending its next request once the previous one completes. */
+        CLOSED,
+        /** Requests arrive at a constant rate regardless of how fast earlier ones complete. */
+        OPEN
+    }
+
+    static final String DEFAULT_MIX = "register:1,login:2,agent-dashboard:2,admin-stats:1,secure:4";
+
+    static LoadTestSettings fromSystemProperties() {
+        return fromSystemProperties(DEFAULT_MIX);
+    }
+
+    static LoadTestSettings fromSystemProperties(String defaultMix) {
+        return new LoadTestSettings(
+                Model.valueOf(System.getProperty("loadtest.model", "closed").toUpperCase(Locale.ROOT)),
+                Integer.getInteger("loadtest.users", 200),
+                Integer.getInteger("loadtest.concurrency", 32),
+                Integer.getInteger("loadtest.rate", 200),
+                Integer.getInteger("loadtest.max-in-flight", 10_000),
+                Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 5)),
+                Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30)),
+                parseMix(System.getProperty("loadtest.mix", defaultMix))
+        );
+    }
+
+    static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight > 0) {
+                weights.put(Endpoint.fromName(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix selects no endpoints: " + mix);
+        }
+        return weights;
+    }
+
+    String describe() {
+        String shape = model == Model.CLOSED
+                ? concurrency + " clients"
+                : ratePerSecond + " req/s (max " + maxInFlight + " in flight)";
+        return "%s model, %s, %d seeded users, warmup %ds, duration %ds, mix %s"
+                .formatted(model, shape, users, warmup.toSeconds(), duration.toSeconds(), mix);
+    }
+}
@@ -0,0 +1,192 @@
+package org.amalitech.propertymanagementapi.loadtest;
+
+import org.amalitech.propertymanagementapi.model.Property;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.security.JwtTokenProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Concurrent downloads of one 10 MB photo over real sockets, with Tomcat's sendfile on and off (the
+ * latter copies with FileChannel.transferTo). Reports latency percentiles and MB/s per mode; reports are
+ * printed and written to target/loadtest-photos-sendfile.txt and target/loadtest-photos-transfer-to.txt.
+ * Run with: mvn test -Pbenchmark -Dtest=PhotoDownloadBenchmarkTest [-Dloadtest.concurrency=32 -Dloadtest.duration=30]
+ */
+@Tag("benchmark")
+class PhotoDownloadBenchmarkTest {
+
+    private static final int PHOTO_SIZE = 10 * 1024 * 1024;
+    private static final Pattern HASH = Pattern.compile("\"hash\"\\s*:\\s*\"([0-9a-f]{64})\"");
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:photos-sendfile;DB_CLOSE_DELAY=-1",
+            "photos.sendfile=true"
+    })
+    class Sendfile extends DownloadBenchmark {
+        Sendfile() {
+            super("sendfile");
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:photos-transfer-to;DB_CLOSE_DELAY=-1",
+            "photos.sendfile=false"
+    })
+    class TransferTo extends DownloadBenchmark {
+        TransferTo() {
+            super("transfer-to");
+        }
+    }
+
+    abstract static class DownloadBenchmark {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private PropertyRepository propertyRepository;
+
+        @Autowired
+        private JwtTokenProvider jwtTokenProvider;
+
+        private final String mode;
+
+        DownloadBenchmark(String mode) {
+            this.mode = mode;
+        }
+
+        @Test
+        @DisplayName("Download a 10 MB photo from concurrent clients")
+        void benchmarkDownloads() throws Exception {
+            int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+            Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 5));
+            Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30));
+
+            User agent = userRepository.save(User.builder()
+                    .email("photo-bench-" + mode + "@example.com")
+                    .password("not-used")
+                    .role(Role.AGENT)
+                    .build());
+            Property property = propertyRepository.save(Property.builder()
+                    .agent(agent)
+                    .title("Photo benchmark")
+                    .city("Accra")
+                    .price(new BigDecimal("100000.00"))
+                    .bedrooms(1)
+                    .status(PropertyStatus.AVAILABLE)
+                    .build());
+            String token = jwtTokenProvider.generateToken(agent, agent.getRole().name());
+            String baseUrl = "http://localhost:" + port;
+
+            try (HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build()) {
+                HttpResponse<String> uploaded = client.send(HttpRequest.newBuilder(
+                                URI.create(baseUrl + "/api/properties/" + property.getId() + "/photos"))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "image/jpeg")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(randomJpeg()))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+                assertEquals(201, uploaded.statusCode(), uploaded.body());
+                Matcher hash = HASH.matcher(uploaded.body());
+                hash.find();
+                HttpRequest download = HttpRequest.newBuilder(URI.create(baseUrl + "/api/photos/" + hash.group(1)))
+                        .timeout(Duration.ofMinutes(1))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build();
+
+                EndpointStats stats = new EndpointStats();
+                LongAdder bytes = new LongAdder();
+                run(client, download, concurrency, warmup, stats, bytes);
+                stats.reset();
+                bytes.reset();
+                run(client, download, concurrency, duration, stats, bytes);
+
+                double seconds = duration.toMillis() / 1000.0;
+                String report = String.format("Photo downloads (%s): %d clients, 10 MB photo, warmup %ds, duration %ds%n"
+                                + "%9s %7s %9s %9s %9s %9s %9s%n"
+                                + "%9d %7d %9.1f %9.1f %9.2f %9.2f %9.2f%n",
+                        mode, concurrency, warmup.toSeconds(), duration.toSeconds(),
+                        "requests", "errors", "req/s", "MB/s", "p50 ms", "p99 ms", "max ms",
+                        stats.requests(), stats.errors(), stats.requests() / seconds,
+                        bytes.sum() / seconds / (1024 * 1024),
+                        stats.percentileMillis(50), stats.percentileMillis(99), stats.maxMillis());
+                System.out.println(report);
+                AbstractLoadTest.writeReport("loadtest-photos-" + mode + ".txt", report);
+                assertEquals(0, stats.errors(), report);
+            }
+        }
+
+        private static void run(HttpClient client, HttpRequest download, int concurrency, Duration duration,
+                                EndpointStats stats, LongAdder bytes) {
+            long deadline = System.nanoTime() + duration.toNanos();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < concurrency; c++) {
+                    clients.submit(() -> {
+                        while (System.nanoTime() < deadline) {
+                            long start = System.nanoTime();
+                            boolean success;
+                            try {
+                                HttpResponse<Void> response = client.send(download, HttpResponse.BodyHandlers.discarding());
+                                success = response.statusCode() == 200
+                                        && response.headers().firstValueAsLong("Content-Length").orElse(-1) == PHOTO_SIZE;
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                return;
+                            } catch (Exception e) {
+                                success = false;
+                            }
+                            stats.record(System.nanoTime() - start, success);
+                            if (success) {
+                                bytes.add(PHOTO_SIZE);
+                            }
+                        }
+                    });
+                }
+            }
+        }
+
+        private static byte[] randomJpeg() {
+            byte[] bytes = new byte[PHOTO_SIZE];
+            ThreadLocalRandom.current().nextBytes(bytes);
+            bytes[0] = (byte) 0xFF;
+            bytes[1] = (byte) 0xD8;
+            bytes[2] = (byte) 0xFF;
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.amalitech.propertymanagementapi.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the same load against the default profile (in-memory H2, formatted SQL logging, security
+ * DEBUG logging) and the prod profile (file-backed H2, fixed Hikari pool, statement caching, quiet
+ * logging). Reports are printed and written to target/loadtest-default.txt and target/loadtest-prod.txt.
+ * The user cache is off so every request runs a query, and the default mix leaves out login and
+ * register, whose cost is BCrypt in both profiles. Run each profile in its own JVM with a long warmup;
+ * on a small machine the first minute is mostly JIT compilation.
+ * Run with: mvn test -Pbenchmark -Dtest='ProductionProfileBenchmarkTest$ProdProfile' -Dloadtest.warmup=45
+ */
+@Tag("benchmark")
+class ProductionProfileBenchmarkTest {
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:profile-default;DB_CLOSE_DELAY=-1",
+            "security.user-cache.enabled=false"
+    })
+    class DefaultProfile extends ProfileBenchmark {
+        DefaultProfile() {
+            super("default");
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @ActiveProfiles("prod")
+    @TestPropertySource(properties = {
+            "DATABASE_PATH=./target/prod-benchmark/${random.uuid}/propertydb",
+            "JWT_KEYS_PATH=./target/prod-benchmark/jwt-keys",
+            "security.user-cache.enabled=false"
+    })
+    class ProdProfile extends ProfileBenchmark {
+        ProdProfile() {
+            super("prod");
+        }
+    }
+
+    abstract static class ProfileBenchmark extends AbstractLoadTest {
+
+        private static final String DEFAULT_MIX = "secure:4,agent-dashboard:2,admin-stats:1";
+
+        private final String profile;
+
+        ProfileBenchmark(String profile) {
+            this.profile = profile;
+        }
+
+        @Test
+        @DisplayName("Run the configured load profile against this Spring profile")
+        void benchmarkProfile() throws Exception {
+            String report = runLoad(LoadTestSettings.fromSystemProperties(DEFAULT_MIX), "Profile " + profile);
+            System.out.println(report);
+            writeReport("loadtest-" + profile + ".txt", report);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.amalitech.propertymanagementapi.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BCryptStrengthCalibratorTest {
+
+    @Test
+    @DisplayName("Should never go below the minimum strength")
+    void testMinimumStrengthIsFloor() {
+        assertEquals(6, BCryptStrengthCalibrator.calibrate(Duration.ofNanos(1), 6, 12));
+    }
+
+    @Test
+    @DisplayName("Should pick a strength within bounds for a generous budget")
+    void testStrengthWithinBounds() {
+        int strength = BCryptStrengthCalibrator.calibrate(Duration.ofMillis(200), 4, 8);
+
+        assertTrue(strength >= 4 && strength <= 8);
+    }
+}
@@ -0,0 +1,135 @@
+package org.amalitech.propertymanagementapi.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachedUserDetailsServiceTest {
+
+    @Mock
+    private CustomUserDetailsService delegate;
+
+    private CachedUserDetailsService userDetailsService;
+
+    private final User user = User.builder()
+            .id(1L)
+            .email("cached@example.com")
+            .password("encodedPassword")
+            .role(Role.USER)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new CachedUserDetailsService(delegate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userDetailsService, "enabled", true);
+        ReflectionTestUtils.setField(userDetailsService, "ttl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(userDetailsService, "maximumSize", 100L);
+        userDetailsService.init();
+    }
+
+    @Test
+    @DisplayName("Should load each user from the database only once")
+    void testCachesLoadedUser() {
+        when(delegate.loadUserByUsername("cached@example.com")).thenReturn(user);
+
+        UserDetails first = userDetailsService.loadUserByUsername("cached@example.com");
+        UserDetails second = userDetailsService.loadUserByUsername("cached@example.com");
+
+        assertSame(first, second);
+        verify(delegate, times(1)).loadUserByUsername("cached@example.com");
+        assertEquals(0.5, userDetailsService.stats().hitRate());
+    }
+
+    @Test
+    @DisplayName("Should coalesce concurrent misses for the same email into one query")
+    void testConcurrentMissesAreCoalesced() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        when(delegate.loadUserByUsername("cached@example.com")).thenAnswer(invocation -> {
+            loaderStarted.countDown();
+            releaseLoader.await(5, TimeUnit.SECONDS);
+            return user;
+        });
+
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<UserDetails>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> userDetailsService.loadUserByUsername("cached@example.com")));
+            }
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            releaseLoader.countDown();
+
+            for (Future<UserDetails> result : results) {
+                assertSame(user, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(delegate, times(1)).loadUserByUsername("cached@example.com");
+    }
+
+    @Test
+    @DisplayName("Should reload the user after eviction")
+    void testEvictForcesReload() {
+        when(delegate.loadUserByUsername("cached@example.com")).thenReturn(user);
+
+        userDetailsService.loadUserByUsername("cached@example.com");
+        userDetailsService.evict("cached@example.com");
+        userDetailsService.loadUserByUsername("cached@example.com");
+
+        verify(delegate, times(2)).loadUserByUsername("cached@example.com");
+    }
+
+    @Test
+    @DisplayName("Should share one entry between differently capitalized emails")
+    void testEmailCaseSharesEntry() {
+        when(delegate.loadUserByUsername("Cached@Example.com")).thenReturn(user);
+
+        UserDetails first = userDetailsService.loadUserByUsername("Cached@Example.com");
+        UserDetails second = userDetailsService.loadUserByUsername("cached@example.com");
+        userDetailsService.evict("CACHED@example.com");
+        when(delegate.loadUserByUsername("cached@example.com")).thenReturn(user);
+        userDetailsService.loadUserByUsername("cached@example.com");
+
+        assertSame(first, second);
+        verify(delegate, times(1)).loadUserByUsername("Cached@Example.com");
+        verify(delegate, times(1)).loadUserByUsername("cached@example.com");
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown users")
+    void testUnknownUserIsNotCached() {
+        when(delegate.loadUserByUsername("missing@example.com"))
+                .thenThrow(new UsernameNotFoundException("User not found with email: missing@example.com"));
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("missing@example.com"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("missing@example.com"));
+
+        verify(delegate, times(2)).loadUserByUsername("missing@example.com");
+    }
+}
@@ -0,0 +1,203 @@
+package org.amalitech.propertymanagementapi.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.InvalidKeyException;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class JwtKeyRingTest {
+
+    private final User user = User.builder()
+            .id(1L)
+            .email("keys@example.com")
+            .password("encodedPassword")
+            .role(Role.USER)
+            .build();
+
+    @TempDir
+    Path tempDir;
+
+    private JwtKeyRing keyRing(String algorithm, String directory) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", algorithm);
+        ReflectionTestUtils.setField(keyRing, "directory", directory);
+        ReflectionTestUtils.setField(keyRing, "retained", 2);
+        ReflectionTestUtils.setField(keyRing, "activationDelay", Duration.ZERO);
+        keyRing.init();
+        return keyRing;
+    }
+
+    private JwtTokenProvider tokenProvider(JwtKeyRing keyRing) {
+        JwtTokenProvider provider = new JwtTokenProvider(keyRing);
+        ReflectionTestUtils.setField(provider, "expiration", 86400000L);
+        provider.init();
+        return provider;
+    }
+
+    private String kid(String token) throws Exception {
+        byte[] header = Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.')));
+        return new ObjectMapper().readTree(header).get("kid").asText();
+    }
+
+    @Test
+    @DisplayName("Should sign with the active key and name it in the kid header")
+    void testTokenCarriesKid() throws Exception {
+        JwtKeyRing keyRing = keyRing("ES256", "");
+        String token = tokenProvider(keyRing).generateToken(user, "USER");
+
+        assertEquals(keyRing.signingKey().kid(), kid(token));
+        assertEquals("keys@example.com", tokenProvider(keyRing).verify(token).subject());
+    }
+
+    @Test
+    @DisplayName("Should keep verifying the previous key after a rotation and drop the one before it")
+    void testRotationRetainsPreviousKey() throws Exception {
+        JwtKeyRing keyRing = keyRing("ES256", "");
+        JwtTokenProvider provider = tokenProvider(keyRing);
+        String first = provider.generateToken(user, "USER");
+
+        keyRing.rotate();
+        String second = provider.generateToken(user, "USER");
+
+        assertNotEquals(kid(first), kid(second));
+        assertNotNull(provider.verify(first));
+        assertNotNull(provider.verify(second));
+
+        keyRing.rotate();
+
+        assertThrows(InvalidKeyException.class, () -> provider.verify(first));
+        assertNotNull(provider.verify(second));
+    }
+
+    @Test
+    @DisplayName("Should publish a rotated key before it signs and promote it once the delay has passed")
+    void testRotatedKeySignsAfterActivationDelay() throws Exception {
+        AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T00:00:00Z"));
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", "ES256");
+        ReflectionTestUtils.setField(keyRing, "directory", "");
+        ReflectionTestUtils.setField(keyRing, "retained", 2);
+        ReflectionTestUtils.setField(keyRing, "activationDelay", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(keyRing, "clock", new Clock() {
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            public Instant instant() {
+                return now.get();
+            }
+        });
+        keyRing.init();
+        JwtTokenProvider provider = tokenProvider(keyRing);
+        String first = provider.generateToken(user, "USER");
+
+        now.set(Instant.parse("2026-01-01T00:01:00Z"));
+        JwtKeyRing.SigningKey next = keyRing.rotate();
+        assertEquals(Instant.parse("2026-01-01T00:06:00Z"), keyRing.activatesAt(next));
+        assertEquals(2, Jwks.setParser().build().parse(keyRing.jwks()).getKeys().size());
+        assertEquals(kid(first), kid(provider.generateToken(user, "USER")));
+
+        now.set(Instant.parse("2026-01-01T00:06:00Z"));
+        String second = provider.generateToken(user, "USER");
+        assertEquals(next.kid(), kid(second));
+        assertNotNull(provider.verify(first));
+
+        // A third key is only published, so the first still verifies until the third signs
+        now.set(Instant.parse("2026-01-01T01:00:00Z"));
+        keyRing.rotate();
+        assertNotNull(provider.verify(first));
+        assertEquals(3, Jwks.setParser().build().parse(keyRing.jwks()).getKeys().size());
+        now.set(Instant.parse("2026-01-01T01:05:00Z"));
+        provider.generateToken(user, "USER");
+        assertThrows(InvalidKeyException.class, () -> provider.verify(first));
+        assertNotNull(provider.verify(second));
+    }
+
+    @Test
+    @DisplayName("Should publish only public keys and change the ETag on rotation")
+    void testJwksPublishesVerificationKeys() {
+        JwtKeyRing keyRing = keyRing("EdDSA", "");
+        String etag = keyRing.jwksETag();
+        keyRing.rotate();
+
+        JwkSet jwks = Jwks.setParser().build().parse(keyRing.jwks());
+
+        assertEquals(2, jwks.getKeys().size());
+        jwks.getKeys().forEach(jwk -> {
+            assertEquals("EdDSA", jwk.getAlgorithm());
+            assertFalse(jwk.containsKey("d"));
+        });
+        assertNotEquals(etag, keyRing.jwksETag());
+    }
+
+    @Test
+    @DisplayName("Should reject an HMAC token that claims the kid of a signing key")
+    void testRejectsAlgorithmSubstitution() {
+        JwtKeyRing keyRing = keyRing("ES256", "");
+        String forged = Jwts.builder()
+                .header().keyId(keyRing.signingKey().kid()).and()
+                .subject("keys@example.com")
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor("404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970"
+                        .getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertThrows(JwtException.class, () -> tokenProvider(keyRing).verify(forged));
+    }
+
+    @Test
+    @DisplayName("Should reload stored keys so tokens survive a restart")
+    void testKeysPersistInDirectory() throws Exception {
+        JwtKeyRing before = keyRing("ES256", tempDir.toString());
+        before.rotate();
+        String token = tokenProvider(before).generateToken(user, "USER");
+
+        JwtKeyRing after = keyRing("ES256", tempDir.toString());
+
+        assertEquals(before.signingKey().kid(), after.signingKey().kid());
+        assertEquals(before.jwks(), after.jwks());
+        assertEquals("keys@example.com", tokenProvider(after).verify(token).subject());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should create stored private keys readable by the owner only")
+    void testStoredKeysAreOwnerOnly() throws Exception {
+        assumeTrue(tempDir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        JwtKeyRing keyRing = keyRing("ES256", tempDir.toString());
+
+        Path file = tempDir.resolve(keyRing.signingKey().kid() + ".jwk.json");
+        assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(file));
+    }
+}
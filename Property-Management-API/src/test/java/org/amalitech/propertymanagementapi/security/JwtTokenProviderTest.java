@@ -1,5 +1,6 @@
 package org.amalitech.propertymanagementapi.security;
 
+import io.jsonwebtoken.JwtException;
 import org.amalitech.propertymanagementapi.model.Role;
 import org.amalitech.propertymanagementapi.model.User;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,10 +14,7 @@ import org.springframework.test.context.TestPropertySource;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
-@TestPropertySource(properties = {
-        "jwt.secret=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
-        "jwt.expiration=86400000"
-})
+@TestPropertySource(properties = "jwt.expiration=86400000")
 class JwtTokenProviderTest {
    
     @Autowired
@@ -94,4 +92,28 @@ class JwtTokenProviderTest {
         String token = jwtTokenProvider.generateToken(userDetails, "USER");
         assertNotNull(jwtTokenProvider.extractExpiration(token));
     }
+    
+    @Test
+    @DisplayName("Should expose all verified claims from a single parse")
+    void testVerifyReturnsClaims() {
+        String token = jwtTokenProvider.generateToken(userDetails, "USER");
+        VerifiedToken verified = jwtTokenProvider.verify(token);
+        
+        assertEquals("test@example.com", verified.subject());
+        assertEquals("USER", verified.role());
+        assertEquals(1L, verified.userId());
+        assertNotNull(verified.issuedAt());
+        assertTrue(verified.expiration().isAfter(verified.issuedAt()));
+        assertTrue(jwtTokenProvider.validateToken(verified, userDetails));
+    }
+    
+    @Test
+    @DisplayName("Should reject a token with a tampered signature")
+    void testVerifyRejectsTamperedToken() {
+        String token = jwtTokenProvider.generateToken(userDetails, "USER");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        
+        assertThrows(JwtException.class, () -> jwtTokenProvider.verify(tampered));
+        assertFalse(jwtTokenProvider.validateToken(tampered, userDetails));
+    }
 }
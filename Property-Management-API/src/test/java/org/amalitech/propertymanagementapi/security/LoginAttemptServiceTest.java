@@ -0,0 +1,89 @@
+package org.amalitech.propertymanagementapi.security;
+
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAttemptServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CachedUserDetailsService userDetailsCache;
+
+    private LoginAttemptService loginAttemptService;
+
+    @BeforeEach
+    void setUp() {
+        loginAttemptService = new LoginAttemptService(userRepository, userDetailsCache);
+        ReflectionTestUtils.setField(loginAttemptService, "maxFailures", 3);
+        ReflectionTestUtils.setField(loginAttemptService, "lockoutDuration", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(loginAttemptService, "maximumAccounts", 1000L);
+        loginAttemptService.init();
+    }
+
+    @Test
+    @DisplayName("Should lock the account once consecutive failures reach the limit")
+    void testLocksAfterMaxFailures() {
+        loginAttemptService.recordFailure("lock@example.com");
+        loginAttemptService.recordFailure("lock@example.com");
+        assertTrue(loginAttemptService.lockRemaining("lock@example.com").isZero());
+
+        loginAttemptService.recordFailure("LOCK@example.com");
+
+        Duration remaining = loginAttemptService.lockRemaining("lock@example.com");
+        assertTrue(remaining.compareTo(Duration.ofMinutes(14)) > 0);
+        assertTrue(remaining.compareTo(Duration.ofMinutes(15)) <= 0);
+    }
+
+    @Test
+    @DisplayName("Should reset the failure count after a successful login")
+    void testSuccessResetsFailures() {
+        loginAttemptService.recordFailure("reset@example.com");
+        loginAttemptService.recordFailure("reset@example.com");
+        loginAttemptService.recordSuccess("reset@example.com");
+        loginAttemptService.recordFailure("reset@example.com");
+        loginAttemptService.recordFailure("reset@example.com");
+
+        assertTrue(loginAttemptService.lockRemaining("reset@example.com").isZero());
+    }
+
+    @Test
+    @DisplayName("Should flush changed accounts once and evict their cached details")
+    void testFlushWritesDirtyAccounts() {
+        when(userRepository.updateLoginFailures(anyString(), anyInt(), any())).thenReturn(1);
+        for (int i = 0; i < 3; i++) {
+            loginAttemptService.recordFailure("flush@example.com");
+        }
+
+        loginAttemptService.flush();
+        loginAttemptService.flush();
+
+        verify(userRepository, times(1)).updateLoginFailures(eq("flush@example.com"), eq(3),
+                argThat((Instant lockedUntil) -> lockedUntil != null && lockedUntil.isAfter(Instant.now())));
+        verify(userDetailsCache).evict("flush@example.com");
+    }
+
+    @Test
+    @DisplayName("Should not write anything for a clean login")
+    void testCleanSuccessWritesNothing() {
+        loginAttemptService.recordSuccess("clean@example.com");
+        loginAttemptService.flush();
+
+        verifyNoInteractions(userRepository, userDetailsCache);
+    }
+}
@@ -0,0 +1,152 @@
+package org.amalitech.propertymanagementapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.amalitech.propertymanagementapi.exception.LoginThrottledException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private LoginRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new LoginRateLimiter(new AuthMetrics(meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(rateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(rateLimiter, "ipCapacity", 4);
+        ReflectionTestUtils.setField(rateLimiter, "ipPeriod", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(rateLimiter, "emailCapacity", 2);
+        ReflectionTestUtils.setField(rateLimiter, "emailPeriod", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(rateLimiter, "maximumKeys", 1000L);
+        rateLimiter.init();
+    }
+
+    @Test
+    @DisplayName("Should allow a full burst and then report the wait until the next token")
+    void testBucketBurstAndRefill() {
+        long start = 0;
+        RateLimitBucket bucket = new RateLimitBucket(3, Duration.ofSeconds(3), start);
+
+        assertEquals(0, bucket.tryAcquire(start));
+        assertEquals(0, bucket.tryAcquire(start));
+        assertEquals(0, bucket.tryAcquire(start));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), bucket.tryAcquire(start));
+
+        long later = start + TimeUnit.SECONDS.toNanos(1);
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    @DisplayName("Should hand out exactly the capacity under concurrent callers")
+    void testBucketIsExactUnderContention() throws Exception {
+        RateLimitBucket bucket = new RateLimitBucket(100, Duration.ofDays(1), 0);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(100, granted.get());
+    }
+
+    @Test
+    @DisplayName("Should throttle an email regardless of case once its bucket is empty")
+    void testPerEmailLimit() {
+        rateLimiter.acquire("10.0.0.1", "victim@example.com");
+        rateLimiter.acquire("10.0.0.2", "Victim@Example.com");
+
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> rateLimiter.acquire("10.0.0.3", "VICTIM@example.com"));
+        assertTrue(ex.getRetryAfterSeconds() >= 1 && ex.getRetryAfterSeconds() <= 30);
+
+        assertDoesNotThrow(() -> rateLimiter.acquire("10.0.0.3", "other@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should throttle a client IP across different emails")
+    void testPerIpLimit() {
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.acquire("10.0.0.9", "spray" + i + "@example.com");
+        }
+
+        assertThrows(LoginThrottledException.class, () -> rateLimiter.acquire("10.0.0.9", "spray9@example.com"));
+        assertDoesNotThrow(() -> rateLimiter.acquire("10.0.0.10", "spray9@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should start buckets empty while the cache is full, so size eviction never refills one")
+    void testSizeEvictionFailsClosed() {
+        ReflectionTestUtils.setField(rateLimiter, "ipCapacity", 1000);
+        ReflectionTestUtils.setField(rateLimiter, "maximumKeys", 3L);
+        rateLimiter.init();
+
+        RateLimitBucket empty = new RateLimitBucket(3, Duration.ofSeconds(3), 0, true);
+        assertEquals(TimeUnit.SECONDS.toNanos(1), empty.tryAcquire(0));
+        assertEquals(0, empty.tryAcquire(TimeUnit.SECONDS.toNanos(1)));
+
+        rateLimiter.acquire("10.0.0.1", "victim@example.com");
+        // Spray distinct emails to push the victim's half-used bucket out of the full cache
+        for (int i = 0; i < 50; i++) {
+            try {
+                rateLimiter.acquire("10.0.0.1", "spray" + i + "@example.com");
+            } catch (LoginThrottledException e) {
+                // Expected once the cache is full
+            }
+        }
+        Cache<?, ?> emailBuckets = (Cache<?, ?>) ReflectionTestUtils.getField(rateLimiter, "emailBuckets");
+        emailBuckets.cleanUp();
+        assertEquals(3, emailBuckets.estimatedSize());
+
+        int granted = 0;
+        for (int i = 0; i < 3; i++) {
+            try {
+                rateLimiter.acquire("10.0.0.1", "victim@example.com");
+                granted++;
+            } catch (LoginThrottledException e) {
+                // Throttled
+            }
+        }
+        assertTrue(granted <= 1, "Victim got " + granted + " attempts after eviction");
+        assertThrows(LoginThrottledException.class, () -> rateLimiter.acquire("10.0.0.1", "newcomer@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should let every attempt through when disabled")
+    void testDisabled() {
+        ReflectionTestUtils.setField(rateLimiter, "enabled", false);
+
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.acquire("10.0.0.1", "victim@example.com");
+        }
+    }
+}
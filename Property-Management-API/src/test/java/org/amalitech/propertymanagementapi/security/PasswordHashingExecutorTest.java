@@ -0,0 +1,135 @@
+package org.amalitech.propertymanagementapi.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.amalitech.propertymanagementapi.exception.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PasswordHashingExecutor hashingExecutor;
+
+    @BeforeEach
+    void setUp() {
+        hashingExecutor = new PasswordHashingExecutor(meterRegistry);
+        ReflectionTestUtils.setField(hashingExecutor, "threads", 1);
+        ReflectionTestUtils.setField(hashingExecutor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(hashingExecutor, "retryAfterSeconds", 2L);
+        hashingExecutor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should hash on the pool and record latency")
+    void testEncodeRunsOnPool() {
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), hashingExecutor);
+
+        String hash = encoder.encode("password123");
+
+        assertTrue(encoder.matches("password123", hash));
+        assertEquals(1, meterRegistry.get("security.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("security.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should offload work from a caller whose thread name looks like a pool thread")
+    void testThreadNameDoesNotBypassPool() throws Exception {
+        AtomicReference<Thread> caller = new AtomicReference<>();
+        AtomicReference<Thread> worker = new AtomicReference<>();
+
+        Thread impostor = new Thread(() -> {
+            caller.set(Thread.currentThread());
+            hashingExecutor.execute("encode", () -> worker.getAndSet(Thread.currentThread()));
+        }, "password-hash-99");
+        impostor.start();
+        impostor.join(5_000);
+
+        assertNotNull(worker.get());
+        assertNotSame(caller.get(), worker.get());
+    }
+
+    @Test
+    @DisplayName("Should fail fast when the queue is full")
+    void testRejectsWhenSaturated() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> busy = CompletableFuture.supplyAsync(() -> hashingExecutor.execute("encode", () -> {
+            running.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> hashingExecutor.execute("encode", () -> true));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("security.password.hash.queue.depth").gauge().value() < 1) {
+            assertTrue(System.nanoTime() < deadline, "second task was never queued");
+            Thread.onSpinWait();
+        }
+
+        PasswordHashingUnavailableException exception = assertThrows(
+                PasswordHashingUnavailableException.class,
+                () -> hashingExecutor.execute("matches", () -> true)
+        );
+
+        assertEquals(2L, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("security.password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(busy.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should run submitted work on the caller when the queue is full")
+    void testSubmitFallsBackToCaller() throws Exception {
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), hashingExecutor);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> busy = hashingExecutor.submit("encode", () -> {
+            running.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = hashingExecutor.submit("encode", () -> true);
+
+        // The nested encode must also run inline rather than be rejected by the full queue
+        CompletableFuture<String> inline = hashingExecutor.submit("import", () -> encoder.encode("password123"));
+
+        assertTrue(inline.isDone());
+        assertTrue(new BCryptPasswordEncoder(4).matches("password123", inline.get()));
+        assertEquals(1.0, meterRegistry.get("security.password.hash.caller-runs").counter().count());
+        assertTrue(meterRegistry.find("security.password.hash.rejected").counters().isEmpty());
+
+        release.countDown();
+        assertTrue(busy.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,125 @@
+package org.amalitech.propertymanagementapi.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.amalitech.propertymanagementapi.model.RevokedToken;
+import org.amalitech.propertymanagementapi.repository.RevokedTokenRepository;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private CachedUserDetailsService userDetailsCache;
+
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        revocationService = new TokenRevocationService(userRepository, revokedTokenRepository, userDetailsCache,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(revocationService, "expectedRevocations", 1000L);
+        ReflectionTestUtils.setField(revocationService, "falsePositiveRate", 0.01);
+    }
+
+    private static VerifiedToken token(Long userId, String jti, long epoch) {
+        Instant now = Instant.now();
+        return new VerifiedToken("revocation@example.com", "USER", userId, now, now.plus(1, ChronoUnit.HOURS),
+                "kid", jti, epoch);
+    }
+
+    private static UserRepository.TokenEpoch epoch(long id, long epoch) {
+        return new UserRepository.TokenEpoch() {
+            public Long getId() {
+                return id;
+            }
+
+            public long getTokenEpoch() {
+                return epoch;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should rebuild epochs and the denylist from the database on startup")
+    void testRebuildsStateOnStartup() {
+        String revokedJti = UUID.randomUUID().toString();
+        when(userRepository.findByTokenEpochGreaterThan(0)).thenReturn(List.of(epoch(1L, 2)));
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(RevokedToken.builder()
+                .jti(revokedJti).userId(3L).expiresAt(Instant.now().plus(1, ChronoUnit.HOURS)).build()));
+
+        revocationService.init();
+
+        assertTrue(revocationService.isRevoked(token(1L, UUID.randomUUID().toString(), 1)));
+        assertFalse(revocationService.isRevoked(token(1L, UUID.randomUUID().toString(), 2)));
+        assertTrue(revocationService.isRevoked(token(3L, revokedJti, 0)));
+        assertFalse(revocationService.isRevoked(token(3L, UUID.randomUUID().toString(), 0)));
+    }
+
+    @Test
+    @DisplayName("Should revoke a single token and persist it")
+    void testRevokeSingleToken() {
+        revocationService.init();
+        VerifiedToken revoked = token(5L, UUID.randomUUID().toString(), 0);
+
+        revocationService.revoke(revoked);
+
+        assertTrue(revocationService.isRevoked(revoked));
+        assertFalse(revocationService.isRevoked(token(5L, UUID.randomUUID().toString(), 0)));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    @DisplayName("Should revoke all earlier tokens of a user by bumping the epoch")
+    void testRevokeAllTokens() {
+        revocationService.init();
+        when(userRepository.findTokenEpoch(5L)).thenReturn(Optional.of(1L));
+
+        long epoch = revocationService.revokeAllTokens(5L, "revocation@example.com");
+
+        assertEquals(1L, epoch);
+        assertTrue(revocationService.isRevoked(token(5L, UUID.randomUUID().toString(), 0)));
+        assertFalse(revocationService.isRevoked(token(5L, UUID.randomUUID().toString(), 1)));
+        assertFalse(revocationService.isRevoked(token(6L, UUID.randomUUID().toString(), 0)));
+        verify(userRepository).incrementTokenEpoch(5L);
+        verify(userDetailsCache).evict("revocation@example.com");
+    }
+
+    @Test
+    @DisplayName("Should keep revocations beyond the filter capacity exact after a purge")
+    void testPurgeResizesDenylist() {
+        revocationService.init();
+        List<VerifiedToken> revoked = IntStream.range(0, 3000)
+                .mapToObj(i -> token(9L, UUID.randomUUID().toString(), 0))
+                .toList();
+        revoked.forEach(revocationService::revoke);
+
+        revocationService.purgeExpired();
+
+        assertTrue(revoked.stream().allMatch(revocationService::isRevoked));
+        verify(revokedTokenRepository).deleteExpired(any());
+    }
+}
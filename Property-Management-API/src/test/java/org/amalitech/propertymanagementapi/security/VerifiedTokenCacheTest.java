@@ -0,0 +1,138 @@
+package org.amalitech.propertymanagementapi.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final User user = User.builder()
+            .id(1L)
+            .email("cache@example.com")
+            .password("encodedPassword")
+            .role(Role.USER)
+            .build();
+
+    private JwtKeyRing keyRing;
+
+    private JwtTokenProvider tokenProvider(long expiration) {
+        keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", "ES256");
+        ReflectionTestUtils.setField(keyRing, "directory", "");
+        ReflectionTestUtils.setField(keyRing, "retained", 2);
+        ReflectionTestUtils.setField(keyRing, "activationDelay", Duration.ZERO);
+        keyRing.init();
+
+        JwtTokenProvider provider = new JwtTokenProvider(keyRing);
+        ReflectionTestUtils.setField(provider, "expiration", expiration);
+        provider.init();
+        return provider;
+    }
+
+    private VerifiedTokenCache cache(JwtTokenProvider provider, boolean enabled, long maximumSize) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        VerifiedTokenCache cache = new VerifiedTokenCache(provider, registry, new AuthMetrics(registry));
+        ReflectionTestUtils.setField(cache, "enabled", enabled);
+        ReflectionTestUtils.setField(cache, "maximumSize", maximumSize);
+        cache.init();
+        return cache;
+    }
+
+    @Test
+    @DisplayName("Should serve repeated tokens from the cache")
+    void testRepeatedTokenIsCacheHit() {
+        JwtTokenProvider provider = tokenProvider(86400000L);
+        VerifiedTokenCache cache = cache(provider, true, 100);
+        String token = provider.generateToken(user, "USER");
+
+        VerifiedToken first = cache.verify(token);
+        VerifiedToken second = cache.verify(token);
+
+        assertSame(first, second);
+        assertEquals("cache@example.com", second.subject());
+        assertEquals(1, cache.stats().missCount());
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    @DisplayName("Should not cache tokens that fail verification")
+    void testInvalidTokenIsNotCached() {
+        JwtTokenProvider provider = tokenProvider(86400000L);
+        VerifiedTokenCache cache = cache(provider, true, 100);
+        String token = provider.generateToken(user, "USER");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+        assertEquals(0, cache.estimatedSize());
+    }
+
+    @Test
+    @DisplayName("Should stop serving an entry once the token has expired")
+    void testEntryExpiresWithToken() throws InterruptedException {
+        JwtTokenProvider provider = tokenProvider(2000L);
+        VerifiedTokenCache cache = cache(provider, true, 100);
+        String token = provider.generateToken(user, "USER");
+
+        assertNotNull(cache.verify(token));
+        // exp has second precision, so the token is expired at the latest 2s after issue
+        Thread.sleep(2100);
+
+        assertThrows(ExpiredJwtException.class, () -> cache.verify(token));
+    }
+
+    @Test
+    @DisplayName("Should evict entries beyond the maximum size")
+    void testSizeBound() {
+        JwtTokenProvider provider = tokenProvider(86400000L);
+        VerifiedTokenCache cache = cache(provider, true, 10);
+
+        for (long id = 1; id <= 50; id++) {
+            User other = User.builder().id(id).email("user" + id + "@example.com").role(Role.USER).build();
+            cache.verify(provider.generateToken(other, "USER"));
+        }
+        cache.cleanUp();
+
+        assertTrue(cache.estimatedSize() <= 10);
+        assertTrue(cache.stats().evictionCount() >= 40);
+    }
+
+    @Test
+    @DisplayName("Should stop serving a cached token once its signing key is rotated out")
+    void testRotatedOutKeyIsNotServedFromCache() {
+        JwtTokenProvider provider = tokenProvider(86400000L);
+        VerifiedTokenCache cache = cache(provider, true, 100);
+        String token = provider.generateToken(user, "USER");
+        cache.verify(token);
+
+        keyRing.rotate();
+        assertNotNull(cache.verify(token));
+        keyRing.rotate();
+
+        assertThrows(JwtException.class, () -> cache.verify(token));
+        assertEquals(0, cache.estimatedSize());
+    }
+
+    @Test
+    @DisplayName("Should bypass the cache when disabled")
+    void testDisabledCache() {
+        JwtTokenProvider provider = tokenProvider(86400000L);
+        VerifiedTokenCache cache = cache(provider, false, 100);
+        String token = provider.generateToken(user, "USER");
+
+        cache.verify(token);
+        cache.verify(token);
+
+        assertEquals(0, cache.stats().requestCount());
+        assertEquals(0, cache.estimatedSize());
+    }
+}
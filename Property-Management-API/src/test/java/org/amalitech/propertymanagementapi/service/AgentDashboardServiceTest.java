@@ -0,0 +1,107 @@
+package org.amalitech.propertymanagementapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.amalitech.propertymanagementapi.dto.AgentDashboard;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AgentDashboardServiceTest {
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    private AgentDashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new AgentDashboardService(propertyRepository, new SimpleMeterRegistry(), new ResourceVersions());
+        ReflectionTestUtils.setField(dashboardService, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(dashboardService, "maximumSize", 100L);
+        dashboardService.init();
+    }
+
+    private static PropertyRepository.AgentTotals totals(long total, Long pending, BigDecimal availableValue) {
+        return new PropertyRepository.AgentTotals() {
+            public long getTotal() {
+                return total;
+            }
+
+            public Long getPendingApproval() {
+                return pending;
+            }
+
+            public Long getAvailable() {
+                return pending == null ? null : total - pending;
+            }
+
+            public Long getUnderOffer() {
+                return pending == null ? null : 0L;
+            }
+
+            public Long getSold() {
+                return pending == null ? null : 0L;
+            }
+
+            public BigDecimal getAvailableValue() {
+                return availableValue;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should serve repeated refreshes from the cache until evicted")
+    void testCachesUntilEvicted() {
+        when(propertyRepository.findAgentTotals(5L))
+                .thenReturn(totals(3, 1L, new BigDecimal("500000.00")))
+                .thenReturn(totals(4, 2L, new BigDecimal("500000.00")));
+
+        AgentDashboard first = dashboardService.dashboard(5L);
+        AgentDashboard second = dashboardService.dashboard(5L);
+        assertSame(first, second);
+        assertEquals(3, first.getMyProperties());
+        assertEquals(1, first.getPendingApprovals());
+        assertEquals(2, first.getAvailable());
+        verify(propertyRepository, times(1)).findAgentTotals(5L);
+
+        dashboardService.evict(5L);
+
+        assertEquals(4, dashboardService.dashboard(5L).getMyProperties());
+        verify(propertyRepository, times(2)).findAgentTotals(5L);
+    }
+
+    @Test
+    @DisplayName("Should report zeros for an agent without listings")
+    void testEmptyAgent() {
+        when(propertyRepository.findAgentTotals(6L)).thenReturn(totals(0, null, null));
+
+        AgentDashboard dashboard = dashboardService.dashboard(6L);
+
+        assertEquals(0, dashboard.getMyProperties());
+        assertEquals(0, dashboard.getPendingApprovals());
+        assertEquals(BigDecimal.ZERO, dashboard.getAvailableValue());
+    }
+
+    @Test
+    @DisplayName("Should not cache a failed query")
+    void testFailureIsNotCached() {
+        when(propertyRepository.findAgentTotals(7L))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(totals(1, 0L, BigDecimal.ONE));
+
+        assertThrows(IllegalStateException.class, () -> dashboardService.dashboard(7L));
+        assertEquals(1, dashboardService.dashboard(7L).getMyProperties());
+    }
+}
@@ -0,0 +1,194 @@
+package org.amalitech.propertymanagementapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.amalitech.propertymanagementapi.dto.PhotoVariant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhotoThumbnailPipelineTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    private Path directory;
+
+    private PhotoStore photoStore;
+    private PhotoThumbnailPipeline pipeline;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        photoStore = new PhotoStore();
+        ReflectionTestUtils.setField(photoStore, "directory", directory);
+        ReflectionTestUtils.setField(photoStore, "maxSize", DataSize.ofMegabytes(5));
+        photoStore.init();
+
+        pipeline = new PhotoThumbnailPipeline(photoStore, meterRegistry);
+        ReflectionTestUtils.setField(pipeline, "widths", new int[]{200, 50, 0});
+        ReflectionTestUtils.setField(pipeline, "threads", 1);
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 1);
+        ReflectionTestUtils.setField(pipeline, "maxPixels", 1_000_000L);
+        ReflectionTestUtils.setField(pipeline, "jpegQuality", 0.8f);
+        ReflectionTestUtils.setField(pipeline, "failureRetryAfter", Duration.ofDays(1));
+        ReflectionTestUtils.setField(pipeline, "failureMaximumSize", 100L);
+        pipeline.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    private String storePng(int width, int height, int seed) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, seed);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        return photoStore.store(new ByteArrayInputStream(png.toByteArray())).hash();
+    }
+
+    private List<PhotoVariant.Status> statuses(String hash, String contentType) {
+        return pipeline.variants(hash, contentType).stream().map(PhotoVariant::getStatus).toList();
+    }
+
+    private void awaitReady(String hash) throws InterruptedException {
+        for (int attempt = 0; attempt < 200 && statuses(hash, "image/png").contains(PhotoVariant.Status.PENDING); attempt++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("Should scale to the width keeping the aspect ratio, and never scale up")
+    void testResize() {
+        BufferedImage wide = new BufferedImage(1000, 400, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage scaled = PhotoThumbnailPipeline.resize(wide, 300, false);
+        assertEquals(300, scaled.getWidth());
+        assertEquals(120, scaled.getHeight());
+
+        BufferedImage small = PhotoThumbnailPipeline.resize(new BufferedImage(40, 30, BufferedImage.TYPE_INT_ARGB), 300, true);
+        assertEquals(40, small.getWidth());
+        assertEquals(30, small.getHeight());
+        assertTrue(small.getColorModel().hasAlpha());
+    }
+
+    @Test
+    @DisplayName("Should store each width beside the original and report it ready")
+    void testGeneratesVariants() throws Exception {
+        String hash = storePng(800, 600, 1);
+
+        assertTrue(pipeline.submit(hash, "image/png"));
+        awaitReady(hash);
+
+        List<PhotoVariant> variants = pipeline.variants(hash, "image/png");
+        assertEquals(List.of(50, 200), variants.stream().map(PhotoVariant::getWidth).toList());
+        assertEquals(List.of(PhotoVariant.Status.READY, PhotoVariant.Status.READY), statuses(hash, "image/png"));
+        assertEquals("/api/photos/" + hash + "?width=50", variants.get(0).getUrl());
+        BufferedImage stored = ImageIO.read(photoStore.variantPath(hash, 200).toFile());
+        assertEquals(200, stored.getWidth());
+        assertEquals(150, stored.getHeight());
+        assertEquals(1, meterRegistry.get("photos.thumbnail.job").tag("outcome", "success").timer().count());
+        assertTrue(pipeline.isVariantWidth(50));
+        assertFalse(pipeline.isVariantWidth(100));
+    }
+
+    @Test
+    @DisplayName("Should merge repeat jobs for an image, drop jobs when the queue is full and backfill them later")
+    void testDeduplicatesAndRejects() throws Exception {
+        String first = storePng(300, 300, 1);
+        String second = storePng(300, 300, 2);
+
+        // Occupy the only worker so submitted jobs stay queued
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(pipeline, "executor");
+        executor.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertTrue(pipeline.submit(first, "image/png"));
+        assertTrue(pipeline.submit(first, "image/png"));
+        assertFalse(pipeline.submit(second, "image/png"));
+        assertEquals(1, meterRegistry.get("photos.thumbnail.deduplicated").counter().count());
+        assertEquals(1, meterRegistry.get("photos.thumbnail.rejected").counter().count());
+        assertEquals(1, meterRegistry.get("photos.thumbnail.queue.depth").gauge().value());
+        assertEquals(0, pipeline.backfill());
+        assertEquals(List.of(PhotoVariant.Status.PENDING, PhotoVariant.Status.PENDING), statuses(second, "image/png"));
+
+        release.countDown();
+        awaitReady(first);
+        assertEquals(1, pipeline.backfill());
+        awaitReady(second);
+        assertEquals(List.of(PhotoVariant.Status.READY, PhotoVariant.Status.READY), statuses(second, "image/png"));
+        assertEquals(0, pipeline.backfill());
+    }
+
+    @Test
+    @DisplayName("Should report images the JDK cannot decode as unavailable")
+    void testUnavailable() throws Exception {
+        String hash = storePng(10, 10, 3);
+        assertTrue(pipeline.submit(hash, "image/webp"));
+        assertEquals(List.of(PhotoVariant.Status.UNAVAILABLE, PhotoVariant.Status.UNAVAILABLE), statuses(hash, "image/webp"));
+
+        String broken = photoStore.store(new ByteArrayInputStream(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A,
+                '\n', 1, 2, 3})).hash();
+        assertTrue(pipeline.submit(broken, "image/png"));
+        for (int attempt = 0; attempt < 200 && meterRegistry.get("photos.thumbnail.job").tag("outcome", "failure")
+                .timer().count() == 0; attempt++) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of(PhotoVariant.Status.UNAVAILABLE, PhotoVariant.Status.UNAVAILABLE), statuses(broken, "image/png"));
+        // Not queued again while the failure is remembered
+        assertTrue(pipeline.submit(broken, "image/png"));
+        assertEquals(1, meterRegistry.get("photos.thumbnail.job").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should report widths already on disk as ready after a job fails, and retry once the failure expires")
+    void testFailedJobKeepsStoredWidths() throws Exception {
+        pipeline.shutdown();
+        ReflectionTestUtils.setField(pipeline, "failureRetryAfter", Duration.ofMillis(200));
+        pipeline.init();
+        String broken = photoStore.store(new ByteArrayInputStream(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A,
+                '\n', 4, 5, 6})).hash();
+        photoStore.storeVariant(broken, 200, out -> out.write(new byte[]{1, 2, 3}));
+
+        assertTrue(pipeline.submit(broken, "image/png"));
+        awaitFailures(1);
+        assertEquals(List.of(PhotoVariant.Status.UNAVAILABLE, PhotoVariant.Status.READY), statuses(broken, "image/png"));
+
+        Thread.sleep(300);
+        assertEquals(List.of(PhotoVariant.Status.PENDING, PhotoVariant.Status.READY), statuses(broken, "image/png"));
+        assertTrue(pipeline.submit(broken, "image/png"));
+        awaitFailures(2);
+    }
+
+    private void awaitFailures(long count) throws InterruptedException {
+        for (int attempt = 0; attempt < 200 && meterRegistry.get("photos.thumbnail.job").tag("outcome", "failure")
+                .timer().count() < count; attempt++) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, meterRegistry.get("photos.thumbnail.job").tag("outcome", "failure").timer().count());
+    }
+}
@@ -0,0 +1,185 @@
+package org.amalitech.propertymanagementapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyGeoIndexTest {
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    private PropertyGeoIndex geoIndex;
+
+    @BeforeEach
+    void setUp() {
+        geoIndex = new PropertyGeoIndex(propertyRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(geoIndex, "cellSizeDegrees", 0.05);
+        ReflectionTestUtils.setField(geoIndex, "loadBatchSize", 2);
+    }
+
+    private static PropertyRepository.GeoPoint point(long id, double latitude, double longitude) {
+        return new PropertyRepository.GeoPoint() {
+            public Long getId() {
+                return id;
+            }
+
+            public Double getLatitude() {
+                return latitude;
+            }
+
+            public Double getLongitude() {
+                return longitude;
+            }
+
+            public PropertyStatus getStatus() {
+                return PropertyStatus.AVAILABLE;
+            }
+        };
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * PropertyGeoIndex.EARTH_RADIUS_METERS * Math.asin(Math.sqrt(a));
+    }
+
+    @Test
+    @DisplayName("Should load the index from the database in id-ordered batches")
+    void testLoadInBatches() {
+        when(propertyRepository.findGeoPointsAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            return List.of(point(1, 5.60, -0.19), point(2, 5.61, -0.18), point(3, 6.69, -1.62)).stream()
+                    .filter(point -> point.getId() > afterId)
+                    .limit(2)
+                    .toList();
+        });
+
+        geoIndex.init();
+
+        assertEquals(3, geoIndex.size());
+        verify(propertyRepository).findGeoPointsAfter(0L, Limit.of(2));
+        verify(propertyRepository).findGeoPointsAfter(2L, Limit.of(2));
+        assertEquals(2, geoIndex.nearby(5.60, -0.19, 5_000, PropertyStatus.AVAILABLE, 10).matches());
+    }
+
+    @Test
+    @DisplayName("Should return the same listings as a brute-force distance scan, nearest first")
+    void testRadiusMatchesBruteForce() {
+        geoIndex.init();
+        Random random = new Random(42);
+        double[][] points = new double[5_000][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[]{5.5 + random.nextDouble() * 0.4, -0.4 + random.nextDouble() * 0.4};
+            geoIndex.put(i, points[i][0], points[i][1], PropertyStatus.AVAILABLE);
+        }
+        double lat = 5.7;
+        double lon = -0.2;
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < points.length; i++) {
+            if (haversine(lat, lon, points[i][0], points[i][1]) <= 5_000) {
+                expected.add(i);
+            }
+        }
+        expected.sort(Comparator.comparingDouble(i -> haversine(lat, lon, points[i][0], points[i][1])));
+
+        PropertyGeoIndex.Result result = geoIndex.nearby(lat, lon, 5_000, PropertyStatus.AVAILABLE, 20);
+
+        assertEquals(expected.size(), result.matches());
+        assertEquals(expected.subList(0, 20), result.hits().stream().map(hit -> (int) hit.id()).toList());
+        PropertyGeoIndex.Hit first = result.hits().get(0);
+        assertEquals(haversine(lat, lon, first.latitude(), first.longitude()), first.distanceMeters(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Should follow moves, status changes and removals")
+    void testWrites() {
+        geoIndex.init();
+        geoIndex.put(1, 5.60, -0.19, PropertyStatus.PENDING_APPROVAL);
+        assertEquals(0, geoIndex.nearby(5.60, -0.19, 1_000, PropertyStatus.AVAILABLE, 10).matches());
+
+        geoIndex.put(1, 5.60, -0.19, PropertyStatus.AVAILABLE);
+        assertEquals(1, geoIndex.nearby(5.60, -0.19, 1_000, PropertyStatus.AVAILABLE, 10).matches());
+        assertEquals(1, geoIndex.size());
+
+        geoIndex.put(1, 6.69, -1.62, PropertyStatus.AVAILABLE);
+        assertEquals(0, geoIndex.nearby(5.60, -0.19, 1_000, PropertyStatus.AVAILABLE, 10).matches());
+        assertEquals(1, geoIndex.nearby(6.69, -1.62, 1_000, PropertyStatus.AVAILABLE, 10).matches());
+
+        geoIndex.put(1, null, null, PropertyStatus.AVAILABLE);
+        assertEquals(0, geoIndex.size());
+        geoIndex.put(2, 6.69, -1.62, PropertyStatus.AVAILABLE);
+        geoIndex.remove(2);
+        assertEquals(0, geoIndex.nearby(6.69, -1.62, 1_000, PropertyStatus.AVAILABLE, 10).matches());
+        assertEquals(0, geoIndex.size());
+    }
+
+    @Test
+    @DisplayName("Should keep a listing in one cell when two moves commit out of order")
+    void testMovesAppliedOutOfOrder() {
+        geoIndex.init();
+        geoIndex.put(1, 5.60, -0.19, PropertyStatus.AVAILABLE);
+
+        // Two concurrent updates both read the listing at Accra; run their after-commit hooks in reverse
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> hooks;
+        try {
+            geoIndex.put(1, 6.69, -1.62, PropertyStatus.AVAILABLE);
+            geoIndex.put(1, 9.40, -0.85, PropertyStatus.AVAILABLE);
+            hooks = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        hooks.get(1).afterCommit();
+        hooks.get(0).afterCommit();
+
+        assertEquals(1, geoIndex.size());
+        assertEquals(0, geoIndex.nearby(5.60, -0.19, 1_000, PropertyStatus.AVAILABLE, 10).matches());
+        assertEquals(0, geoIndex.nearby(9.40, -0.85, 1_000, PropertyStatus.AVAILABLE, 10).matches());
+        assertEquals(1, geoIndex.nearby(6.69, -1.62, 1_000, PropertyStatus.AVAILABLE, 10).matches());
+        assertEquals(1, geoIndex.within(-90, -180, 90, 180, PropertyStatus.AVAILABLE, 10).matches());
+
+        geoIndex.remove(1);
+        assertEquals(0, geoIndex.within(-90, -180, 90, 180, PropertyStatus.AVAILABLE, 10).matches());
+    }
+
+    @Test
+    @DisplayName("Should search boxes, including one that crosses the antimeridian")
+    void testBoundingBox() {
+        geoIndex.init();
+        geoIndex.put(1, -17.80, 179.98, PropertyStatus.AVAILABLE);
+        geoIndex.put(2, -17.70, -179.95, PropertyStatus.AVAILABLE);
+        geoIndex.put(3, -17.75, 179.50, PropertyStatus.AVAILABLE);
+
+        PropertyGeoIndex.Result crossing = geoIndex.within(-18.0, 179.9, -17.5, -179.9, PropertyStatus.AVAILABLE, 10);
+        assertEquals(List.of(1L, 2L), crossing.hits().stream().map(PropertyGeoIndex.Hit::id).toList());
+
+        PropertyGeoIndex.Result west = geoIndex.within(-18.0, 179.4, -17.5, 179.6, PropertyStatus.AVAILABLE, 10);
+        assertEquals(List.of(3L), west.hits().stream().map(PropertyGeoIndex.Hit::id).toList());
+
+        // Radius searches wrap the same way
+        assertEquals(2, geoIndex.nearby(-17.75, 180.0, 10_000, PropertyStatus.AVAILABLE, 10).matches());
+    }
+}
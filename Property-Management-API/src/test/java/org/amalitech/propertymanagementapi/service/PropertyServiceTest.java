@@ -0,0 +1,204 @@
+package org.amalitech.propertymanagementapi.service;
+
+import org.amalitech.propertymanagementapi.dto.NearbyPage;
+import org.amalitech.propertymanagementapi.dto.NearbyProperty;
+import org.amalitech.propertymanagementapi.dto.NearbySearchRequest;
+import org.amalitech.propertymanagementapi.dto.PropertyPage;
+import org.amalitech.propertymanagementapi.dto.PropertyRequest;
+import org.amalitech.propertymanagementapi.dto.PropertySearchRequest;
+import org.amalitech.propertymanagementapi.dto.PropertySummary;
+import org.amalitech.propertymanagementapi.dto.PropertyTextSearchRequest;
+import org.amalitech.propertymanagementapi.exception.InvalidCursorException;
+import org.amalitech.propertymanagementapi.exception.PropertyNotFoundException;
+import org.amalitech.propertymanagementapi.model.Property;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.model.User;
+import org.amalitech.propertymanagementapi.repository.PropertyPhotoRepository;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.amalitech.propertymanagementapi.repository.PropertySearchRepository;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyServiceTest {
+    
+    @Mock
+    private PropertyRepository propertyRepository;
+    
+    @Mock
+    private PropertyPhotoRepository photoRepository;
+    
+    @Mock
+    private PhotoService photoService;
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private AgentDashboardService agentDashboardService;
+    
+    @Mock
+    private StatisticsService statisticsService;
+    
+    @Mock
+    private PropertyGeoIndex geoIndex;
+    
+    @Mock
+    private PropertyTextIndex textIndex;
+    
+    @InjectMocks
+    private PropertyService propertyService;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(propertyService, "defaultPageSize", 3);
+        ReflectionTestUtils.setField(propertyService, "defaultRadiusKm", 5.0);
+    }
+    
+    private static Authentication as(Long id, Role role) {
+        User user = User.builder().id(id).email("user" + id + "@example.com").role(role).build();
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+    
+    private static List<PropertySummary> rows(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new PropertySummary((long) i + 1, "Listing", "Accra", new BigDecimal("1000.50"), 2,
+                        PropertyStatus.AVAILABLE))
+                .toList();
+    }
+    
+    @Test
+    @DisplayName("Should return a cursor that continues after the last row of a full page")
+    void testSearchCursorRoundTrip() {
+        when(propertyRepository.search(any(), eq(4))).thenReturn(rows(4)).thenReturn(rows(1));
+        
+        PropertyPage first = propertyService.search(new PropertySearchRequest(), null);
+        assertEquals(3, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+        
+        PropertySearchRequest next = PropertySearchRequest.builder().cursor(first.getNextCursor()).build();
+        PropertyPage second = propertyService.search(next, null);
+        assertNull(second.getNextCursor());
+        
+        ArgumentCaptor<PropertySearchRepository.Filter> filters = ArgumentCaptor.forClass(PropertySearchRepository.Filter.class);
+        verify(propertyRepository, times(2)).search(filters.capture(), eq(4));
+        PropertySearchRepository.Filter seek = filters.getAllValues().get(1);
+        assertEquals(PropertyStatus.AVAILABLE, seek.status());
+        assertEquals(new BigDecimal("1000.50"), seek.afterPrice());
+        assertEquals(3L, seek.afterId());
+    }
+    
+    @Test
+    @DisplayName("Should reject a cursor that does not decode")
+    void testInvalidCursor() {
+        PropertySearchRequest request = PropertySearchRequest.builder().cursor("%%%").build();
+        
+        assertThrows(InvalidCursorException.class, () -> propertyService.search(request, null));
+        verifyNoInteractions(propertyRepository);
+    }
+    
+    @Test
+    @DisplayName("Should hide pending listings from the public and the agent's email from anonymous callers")
+    void testPendingListingVisibility() {
+        User owner = User.builder().id(1L).email("owner@example.com").role(Role.AGENT).build();
+        Property property = Property.builder().id(10L).agent(owner).title("House").city("Accra")
+                .price(BigDecimal.TEN).status(PropertyStatus.PENDING_APPROVAL).build();
+        when(propertyRepository.findWithAgentById(10L)).thenReturn(Optional.of(property));
+        
+        assertThrows(PropertyNotFoundException.class, () -> propertyService.get(10L, null));
+        assertThrows(PropertyNotFoundException.class, () -> propertyService.get(10L, as(2L, Role.AGENT)));
+        assertEquals("owner@example.com", propertyService.get(10L, as(1L, Role.AGENT)).getOwnerEmail());
+        assertEquals("owner@example.com", propertyService.get(10L, as(3L, Role.ADMIN)).getOwnerEmail());
+        
+        property.setStatus(PropertyStatus.AVAILABLE);
+        assertNull(propertyService.get(10L, null).getOwnerEmail());
+        assertEquals("owner@example.com", propertyService.get(10L, as(2L, Role.USER)).getOwnerEmail());
+        
+        PropertySearchRequest pending = PropertySearchRequest.builder().status(PropertyStatus.PENDING_APPROVAL).build();
+        assertThrows(AccessDeniedException.class, () -> propertyService.search(pending, null));
+        assertThrows(AccessDeniedException.class, () -> propertyService.search(pending, as(1L, Role.AGENT)));
+        assertThrows(AccessDeniedException.class, () -> propertyService.nearby(NearbySearchRequest.builder()
+                .lat(5.6).lon(-0.2).status(PropertyStatus.PENDING_APPROVAL).build(), null));
+        verifyNoInteractions(geoIndex);
+        when(propertyRepository.search(any(), eq(4))).thenReturn(List.of());
+        propertyService.search(pending, as(3L, Role.ADMIN));
+        verify(propertyRepository).search(argThat(filter -> filter.status() == PropertyStatus.PENDING_APPROVAL), eq(4));
+    }
+    
+    @Test
+    @DisplayName("Should let only the owner or an admin update, and only an admin approve")
+    void testUpdateOwnership() {
+        User owner = User.builder().id(1L).email("owner@example.com").role(Role.AGENT).build();
+        Property property = Property.builder().id(10L).agent(owner).title("House").city("Accra")
+                .price(BigDecimal.TEN).status(PropertyStatus.PENDING_APPROVAL).build();
+        when(propertyRepository.findWithAgentById(10L)).thenReturn(Optional.of(property));
+        PropertyRequest approve = PropertyRequest.builder().title("House").city("Accra").price(BigDecimal.TEN)
+                .status(PropertyStatus.AVAILABLE).build();
+        
+        assertThrows(AccessDeniedException.class, () -> propertyService.update(10L, approve, as(2L, Role.AGENT)));
+        assertThrows(AccessDeniedException.class, () -> propertyService.update(10L, approve, as(1L, Role.AGENT)));
+        verify(propertyRepository, never()).saveAndFlush(any());
+        
+        when(propertyRepository.saveAndFlush(property)).thenReturn(property);
+        assertEquals(PropertyStatus.AVAILABLE, propertyService.update(10L, approve, as(3L, Role.ADMIN)).getStatus());
+        verify(agentDashboardService).evict(1L);
+    }
+    
+    @Test
+    @DisplayName("Should keep the ranked window within the search depth whatever the default page size")
+    void testTextSearchDepthClamped() {
+        ReflectionTestUtils.setField(propertyService, "defaultPageSize", 50);
+        when(textIndex.search(any())).thenReturn(new PropertyTextIndex.Result(List.of(), 0));
+        
+        propertyService.textSearch(PropertyTextSearchRequest.builder().q("house").page(19).build(), null);
+        propertyService.textSearch(PropertyTextSearchRequest.builder().q("house").page(Integer.MAX_VALUE).build(), null);
+        
+        ArgumentCaptor<PropertyTextIndex.Query> queries = ArgumentCaptor.forClass(PropertyTextIndex.Query.class);
+        verify(textIndex, times(2)).search(queries.capture());
+        assertEquals(950, queries.getAllValues().get(0).offset());
+        assertEquals(50, queries.getAllValues().get(0).limit());
+        assertEquals(PropertyTextSearchRequest.MAX_DEPTH, queries.getAllValues().get(1).offset());
+        assertEquals(0, queries.getAllValues().get(1).limit());
+    }
+    
+    @Test
+    @DisplayName("Should hydrate nearby hits in distance order and drop rows that changed since the index was read")
+    void testNearbyHydration() {
+        when(geoIndex.nearby(5.6, -0.2, 5_000, PropertyStatus.AVAILABLE, 3)).thenReturn(new PropertyGeoIndex.Result(List.of(
+                new PropertyGeoIndex.Hit(3, 5.601, -0.2, 111.2),
+                new PropertyGeoIndex.Hit(1, 5.602, -0.2, 222.4),
+                new PropertyGeoIndex.Hit(2, 5.603, -0.2, 333.6)), 7));
+        PropertySummary sold = new PropertySummary(2L, "Sold", "Accra", BigDecimal.ONE, 1, PropertyStatus.SOLD);
+        when(propertyRepository.findSummariesByIdIn(List.of(3L, 1L, 2L)))
+                .thenReturn(List.of(rows(1).get(0), sold, new PropertySummary(3L, "Nearest", "Accra", BigDecimal.TEN, 2,
+                        PropertyStatus.AVAILABLE)));
+        
+        NearbyPage page = propertyService.nearby(NearbySearchRequest.builder().lat(5.6).lon(-0.2).build(), null);
+        
+        assertEquals(7, page.getMatches());
+        assertEquals(List.of(3L, 1L), page.getItems().stream().map(NearbyProperty::getId).toList());
+        assertEquals(111, page.getItems().get(0).getDistanceMeters());
+        assertEquals(5.601, page.getItems().get(0).getLatitude());
+    }
+}
@@ -0,0 +1,159 @@
+package org.amalitech.propertymanagementapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.amalitech.propertymanagementapi.model.PropertyStatus;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyTextIndexTest {
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    private PropertyTextIndex textIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(propertyRepository.findTextDocumentsAfter(anyLong(), any())).thenReturn(List.of());
+        textIndex = new PropertyTextIndex(propertyRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(textIndex, "loadBatchSize", 100);
+        ReflectionTestUtils.setField(textIndex, "maxPrefixTerms", 64);
+        ReflectionTestUtils.setField(textIndex, "minPrefixLength", 2);
+        ReflectionTestUtils.setField(textIndex, "compactRatio", 0.2);
+        textIndex.init();
+    }
+
+    private void index(long id, String title, String description, String city, String price, int bedrooms) {
+        textIndex.put(new PropertyTextIndex.Document(id, title, description, city, new BigDecimal(price), bedrooms,
+                PropertyStatus.AVAILABLE));
+    }
+
+    private List<Long> search(String text) {
+        return ids(textIndex.search(new PropertyTextIndex.Query(text, PropertyStatus.AVAILABLE, null, null, null, null,
+                0, 10)));
+    }
+
+    private static List<Long> ids(PropertyTextIndex.Result result) {
+        return result.hits().stream().map(PropertyTextIndex.Hit::id).toList();
+    }
+
+    @Test
+    @DisplayName("Should fold case and accents and drop stop words")
+    void testTokenize() {
+        assertEquals(List.of("cafe", "view", "3", "bedroom", "flat"),
+                PropertyTextIndex.tokenize("Café-view, 3 BEDROOM flat with the"));
+    }
+
+    @Test
+    @DisplayName("Should require every word and rank rarer and title matches higher")
+    void testBm25Ranking() {
+        index(1, "Garden flat", "Quiet flat near the park", "Accra", "1000", 2);
+        index(2, "Flat with a pool", "Pool and garden", "Accra", "2000", 3);
+        index(3, "Town house", "Garden and garage", "Kumasi", "3000", 4);
+        index(4, "Flat", "Small flat", "Kumasi", "500", 1);
+
+        assertEquals(List.of(1L, 2L, 3L), search("garden "));
+        assertEquals(List.of(1L, 2L), search("garden flat "));
+        assertEquals(List.of(2L), search("pool garden "));
+        assertTrue(search("pool castle ").isEmpty());
+        assertTrue(search("the ").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should match the last word as a prefix while it is being typed")
+    void testPrefix() {
+        index(1, "Apartment", "", "Accra", "1000", 2);
+        index(2, "Apart hotel", "", "Accra", "1000", 2);
+        index(3, "Bungalow", "", "Accra", "1000", 2);
+
+        assertEquals(List.of(2L, 1L), search("apart"));
+        assertEquals(List.of(2L), search("apart "));
+        assertEquals(List.of(1L), search("accra apartm"));
+        // Below the minimum prefix length only the exact word matches
+        assertTrue(search("a").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should apply the structured filters and page through the ranking")
+    void testFiltersAndPaging() {
+        for (int i = 1; i <= 30; i++) {
+            index(i, "House " + i, "Family house", i % 2 == 0 ? "Accra" : "Tema", String.valueOf(i * 1000), i % 5);
+        }
+
+        PropertyTextIndex.Result filtered = textIndex.search(new PropertyTextIndex.Query("house ", PropertyStatus.AVAILABLE,
+                "Accra", new BigDecimal("5000"), new BigDecimal("20000.00"), 2, 0, 100));
+        assertEquals(List.of(8L, 12L, 14L, 18L), ids(filtered).stream().sorted().toList());
+        assertEquals(4, filtered.matches());
+
+        PropertyTextIndex.Result first = textIndex.search(new PropertyTextIndex.Query("house ", null, null, null, null,
+                null, 0, 20));
+        PropertyTextIndex.Result second = textIndex.search(new PropertyTextIndex.Query("house ", null, null, null, null,
+                null, 20, 20));
+        assertEquals(30, first.matches());
+        assertEquals(20, first.hits().size());
+        assertEquals(10, second.hits().size());
+        assertTrue(second.hits().stream().noneMatch(hit -> ids(first).contains(hit.id())));
+        assertTrue(textIndex.search(new PropertyTextIndex.Query("house ", PropertyStatus.SOLD, null, null, null, null,
+                0, 10)).hits().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and removals, before and after compaction")
+    void testUpdatesAndCompaction() {
+        index(1, "Villa", "Sea view", "Accra", "1000", 2);
+        index(2, "Villa", "Lake view", "Accra", "1000", 2);
+        index(3, "Cottage", "Forest view", "Accra", "1000", 2);
+
+        index(1, "Villa", "Mountain view", "Accra", "1000", 2);
+        textIndex.remove(3);
+        assertTrue(search("sea ").isEmpty());
+        assertEquals(List.of(1L), search("mountain "));
+        assertEquals(2, textIndex.size());
+        // Tombstoned postings must not push the document frequency past the live count
+        assertTrue(textIndex.search(new PropertyTextIndex.Query("villa ", null, null, null, null, null, 0, 10))
+                .hits().stream().allMatch(hit -> hit.score() > 0));
+
+        textIndex.compactIfNeeded();
+        assertEquals(List.of(1L), search("mountain "));
+        assertTrue(search("forest ").isEmpty());
+        assertEquals(List.of(1L, 2L), search("villa view ").stream().sorted().toList());
+
+        index(4, "Villa", "Sea view", "Accra", "1000", 2);
+        assertEquals(List.of(4L), search("sea "));
+    }
+    
+    @Test
+    @DisplayName("Should intersect a rare word with a common one across skipped posting blocks")
+    void testIntersectionWithSkips() {
+        for (int i = 1; i <= 2_000; i++) {
+            index(i, "Common listing", i % 97 == 0 ? "rare" : "plain", "Accra", "1000", 2);
+        }
+        textIndex.remove(970);
+
+        List<Long> expected = new ArrayList<>();
+        for (long i = 97; i <= 2_000; i += 97) {
+            if (i != 970) {
+                expected.add(i);
+            }
+        }
+        PropertyTextIndex.Result result = textIndex.search(new PropertyTextIndex.Query("common rare ", null, null, null,
+                null, null, 0, 100));
+        assertEquals(expected, ids(result).stream().sorted().toList());
+        assertEquals(expected.size(), result.matches());
+    }
+}
@@ -0,0 +1,35 @@
+package org.amalitech.propertymanagementapi.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceVersionsTest {
+
+    private final ResourceVersions resourceVersions = new ResourceVersions();
+
+    @Test
+    @DisplayName("Should move the ETag on when the resource instance is bumped, and only that instance")
+    void testBumpChangesETag() {
+        String before = resourceVersions.etag(ResourceVersions.AGENT_DASHBOARD, 1L, null);
+        String other = resourceVersions.etag(ResourceVersions.AGENT_DASHBOARD, 2L, null);
+
+        resourceVersions.bump(ResourceVersions.AGENT_DASHBOARD, 1L);
+
+        assertNotEquals(before, resourceVersions.etag(ResourceVersions.AGENT_DASHBOARD, 1L, null));
+        assertEquals(other, resourceVersions.etag(ResourceVersions.AGENT_DASHBOARD, 2L, null));
+        assertTrue(before.startsWith("W/\""));
+    }
+
+    @Test
+    @DisplayName("Should give variants with equal hash codes different ETags")
+    void testVariantsDoNotCollide() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        assertNotEquals(resourceVersions.etag(ResourceVersions.ADMIN_STATS, null, "Aa"),
+                resourceVersions.etag(ResourceVersions.ADMIN_STATS, null, "BB"));
+        assertEquals(resourceVersions.etag(ResourceVersions.ADMIN_STATS, null, "Aa"),
+                resourceVersions.etag(ResourceVersions.ADMIN_STATS, null, "Aa"));
+    }
+}
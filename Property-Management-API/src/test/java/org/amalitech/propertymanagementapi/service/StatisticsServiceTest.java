@@ -0,0 +1,116 @@
+package org.amalitech.propertymanagementapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.amalitech.propertymanagementapi.model.Role;
+import org.amalitech.propertymanagementapi.repository.PropertyRepository;
+import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatisticsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    private StatisticsService statisticsService;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.countByRole()).thenReturn(List.of(roleCount(Role.USER, 40), roleCount(Role.AGENT, 5)));
+        statisticsService = new StatisticsService(userRepository, propertyRepository, new SimpleMeterRegistry(),
+                new ResourceVersions());
+        statisticsService.init();
+    }
+
+    private static UserRepository.RoleCount roleCount(Role role, long count) {
+        return new UserRepository.RoleCount() {
+            public Role getRole() {
+                return role;
+            }
+
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should start from the database counts")
+    void testInitialCounts() {
+        assertEquals(40, statisticsService.userCount(Role.USER));
+        assertEquals(5, statisticsService.userCount(Role.AGENT));
+        assertEquals(0, statisticsService.userCount(Role.ADMIN));
+        assertEquals(45L, statisticsService.snapshot().get("totalUsers"));
+    }
+
+    @Test
+    @DisplayName("Should track registrations and role changes without querying")
+    void testWritesUpdateCounters() {
+        statisticsService.userCreated(Role.USER);
+        statisticsService.roleChanged(Role.USER, Role.ADMIN);
+        statisticsService.roleChanged(Role.AGENT, Role.AGENT);
+        statisticsService.snapshot();
+
+        assertEquals(40, statisticsService.userCount(Role.USER));
+        assertEquals(5, statisticsService.userCount(Role.AGENT));
+        assertEquals(1, statisticsService.userCount(Role.ADMIN));
+        verify(userRepository, times(1)).countByRole();
+    }
+
+    @Test
+    @DisplayName("Should apply a role change only when its transaction commits")
+    void testRoleChangeWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            statisticsService.roleChanged(Role.USER, Role.ADMIN);
+            assertEquals(0, statisticsService.userCount(Role.ADMIN));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(39, statisticsService.userCount(Role.USER));
+        assertEquals(1, statisticsService.userCount(Role.ADMIN));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Rolled back: the synchronizations are dropped without afterCommit
+            statisticsService.roleChanged(Role.AGENT, Role.ADMIN);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(5, statisticsService.userCount(Role.AGENT));
+        assertEquals(1, statisticsService.userCount(Role.ADMIN));
+    }
+
+    @Test
+    @DisplayName("Should correct drift from writes that bypassed the service")
+    void testReconcileCorrectsDrift() {
+        statisticsService.userCreated(Role.USER);
+        when(userRepository.countByRole()).thenReturn(List.of(roleCount(Role.USER, 50), roleCount(Role.ADMIN, 2)));
+
+        when(propertyRepository.count()).thenReturn(12L);
+        statisticsService.propertyCreated();
+
+        statisticsService.reconcile();
+
+        assertEquals(12L, statisticsService.snapshot().get("totalProperties"));
+        assertEquals(50, statisticsService.userCount(Role.USER));
+        assertEquals(0, statisticsService.userCount(Role.AGENT));
+        assertEquals(2, statisticsService.userCount(Role.ADMIN));
+    }
+}
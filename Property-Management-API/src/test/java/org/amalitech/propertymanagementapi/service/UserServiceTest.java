@@ -2,9 +2,14 @@ package org.amalitech.propertymanagementapi.service;
 
 import org.amalitech.propertymanagementapi.dto.RegisterRequest;
 import org.amalitech.propertymanagementapi.exception.DuplicateEmailException;
+import org.amalitech.propertymanagementapi.exception.UserNotFoundException;
 import org.amalitech.propertymanagementapi.model.Role;
 import org.amalitech.propertymanagementapi.model.User;
 import org.amalitech.propertymanagementapi.repository.UserRepository;
+import org.amalitech.propertymanagementapi.security.AuthMetrics;
+import org.amalitech.propertymanagementapi.security.CachedUserDetailsService;
+import org.amalitech.propertymanagementapi.security.TokenRevocationService;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,8 +17,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -28,6 +37,18 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
     
+    @Mock
+    private CachedUserDetailsService userDetailsCache;
+    
+    @Mock
+    private AuthMetrics authMetrics;
+    
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    
+    @Mock
+    private StatisticsService statisticsService;
+    
     @InjectMocks
     private UserService userService;
     
@@ -42,7 +63,6 @@ class UserServiceTest {
     @DisplayName("Should successfully register a new user")
     void testRegisterSuccess() {
         // Arrange
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         
         User savedUser = User.builder()
@@ -52,7 +72,7 @@ class UserServiceTest {
                 .role(Role.USER)
                 .build();
         
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
         
         // Act
         User result = userService.register(registerRequest);
@@ -63,16 +83,21 @@ class UserServiceTest {
         assertEquals(Role.USER, result.getRole());
         assertEquals("encodedPassword", result.getPassword());
         
-        verify(userRepository, times(1)).existsByEmail("test@example.com");
         verify(passwordEncoder, times(1)).encode("password123");
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userDetailsCache, times(1)).evict("test@example.com");
+        verify(authMetrics, times(1)).recordRegistration(eq(false), anyLong());
+        verify(statisticsService, times(1)).userCreated(Role.USER);
     }
     
     @Test
-    @DisplayName("Should throw DuplicateEmailException when email already exists")
+    @DisplayName("Should throw DuplicateEmailException when the email unique constraint is violated")
     void testRegisterDuplicateEmail() {
         // Arrange
-        when(userRepository.existsByEmail(anyString())).thenReturn(true);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(constraintViolation(
+                "PUBLIC.UK_USERS_EMAIL_INDEX_4 ON PUBLIC.USERS(EMAIL NULLS FIRST)"));
         
         // Act & Assert
         DuplicateEmailException exception = assertThrows(
@@ -81,15 +106,38 @@ class UserServiceTest {
         );
         
         assertEquals("Email is already registered", exception.getMessage());
-        verify(userRepository, times(1)).existsByEmail("test@example.com");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userDetailsCache, never()).evict(anyString());
+        verify(authMetrics, times(1)).recordRegistration(eq(true), anyLong());
+    }
+    
+    @Test
+    @DisplayName("Should rethrow integrity violations of other constraints")
+    void testRegisterOtherConstraintViolation() {
+        // Arrange
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        DataIntegrityViolationException violation = constraintViolation("PUBLIC.CONSTRAINT_4D");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(violation);
+        
+        // Act & Assert
+        assertSame(violation, assertThrows(
+                DataIntegrityViolationException.class,
+                () -> userService.register(registerRequest)
+        ));
+        verify(authMetrics, never()).recordRegistration(anyBoolean(), anyLong());
+    }
+    
+    private static DataIntegrityViolationException constraintViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement",
+                        new SQLException("Unique index or primary key violation", "23505"), constraintName));
     }
     
     @Test
     @DisplayName("Should encode password before saving")
     void testPasswordIsEncoded() {
         // Arrange
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
         
         User savedUser = User.builder()
@@ -99,7 +147,7 @@ class UserServiceTest {
                 .role(Role.USER)
                 .build();
         
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
         
         // Act
         User result = userService.register(registerRequest);
@@ -114,7 +162,6 @@ class UserServiceTest {
     @DisplayName("Should assign USER role by default")
     void testDefaultRoleIsUser() {
         // Arrange
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         
         User savedUser = User.builder()
@@ -124,7 +171,7 @@ class UserServiceTest {
                 .role(Role.USER)
                 .build();
         
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
         
         // Act
         User result = userService.register(registerRequest);
@@ -132,4 +179,51 @@ class UserServiceTest {
         // Assert
         assertEquals(Role.USER, result.getRole());
     }
+    
+    @Test
+    @DisplayName("Should change the role and revoke the user's existing tokens")
+    void testChangeRoleRevokesTokens() {
+        User user = User.builder()
+                .id(7L)
+                .email("demoted@example.com")
+                .password("encodedPassword")
+                .role(Role.ADMIN)
+                .build();
+        when(userRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(user));
+        when(tokenRevocationService.revokeAllTokens(7L, "demoted@example.com")).thenReturn(1L);
+        
+        User result = userService.changeRole(7L, Role.USER);
+        
+        assertEquals(Role.USER, result.getRole());
+        assertEquals(1L, result.getTokenEpoch());
+        verify(userRepository).save(user);
+        verify(tokenRevocationService).revokeAllTokens(7L, "demoted@example.com");
+        verify(statisticsService).roleChanged(Role.ADMIN, Role.USER);
+    }
+    
+    @Test
+    @DisplayName("Should not count a role change whose token revocation failed")
+    void testChangeRoleRevocationFailure() {
+        User user = User.builder()
+                .id(7L)
+                .email("demoted@example.com")
+                .password("encodedPassword")
+                .role(Role.ADMIN)
+                .build();
+        when(userRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(user));
+        when(tokenRevocationService.revokeAllTokens(7L, "demoted@example.com"))
+                .thenThrow(new UserNotFoundException("User not found with id: 7"));
+        
+        assertThrows(UserNotFoundException.class, () -> userService.changeRole(7L, Role.USER));
+        verify(statisticsService, never()).roleChanged(any(), any());
+    }
+    
+    @Test
+    @DisplayName("Should throw UserNotFoundException when changing the role of an unknown user")
+    void testChangeRoleUnknownUser() {
+        when(userRepository.findByIdForUpdate(99L)).thenReturn(Optional.empty());
+        
+        assertThrows(UserNotFoundException.class, () -> userService.changeRole(99L, Role.AGENT));
+        verify(tokenRevocationService, never()).revokeAllTokens(any(), any());
+    }
 }